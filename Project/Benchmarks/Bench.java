@@ -0,0 +1,181 @@
+package Project.Benchmarks;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal microbenchmark harness (no external dependencies so it builds with
+ * build.sh).
+ * <p>
+ * Each benchmark is a LongSupplier that performs a batch of operations and
+ * returns a value that gets folded into a sink so the JIT can't eliminate the
+ * work.
+ * </p>
+ * <p>
+ * Every result is also collected so a run can be written as JSON (same shape
+ * as JMH's -rf json output, one result per line) and compared against another
+ * commit's run with BenchCompare.
+ * </p>
+ */
+public abstract class Bench {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURE_ITERATIONS = 10;
+    private static final long ITERATION_NANOS = 200_000_000L; // 200ms per iteration
+
+    private static volatile long sink;
+    private static long lastIterationOps;
+    // HotSpot extension; lets benchmarks report allocation alongside latency
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory
+            .getThreadMXBean();
+
+    /**
+     * One measured value; secondary is the allocation rate for timed benchmarks
+     */
+    public static final class Result {
+        public final String name;
+        public final double score;
+        public final String unit;
+        public final double bytesPerOp;
+
+        Result(String name, double score, String unit, double bytesPerOp) {
+            this.name = name;
+            this.score = score;
+            this.unit = unit;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+
+    private static final List<Result> results = new ArrayList<>();
+
+    /**
+     * Runs the batch repeatedly and prints the average nanoseconds and heap bytes
+     * allocated per operation
+     *
+     * @param name      label for the output
+     * @param opsPerRun number of operations a single batch performs
+     * @param batch     the work to measure
+     * @return average ns/op over the measured iterations
+     */
+    public static double run(String name, int opsPerRun, LongSupplier batch) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(opsPerRun, batch);
+        }
+        double total = 0;
+        long ops = 0;
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            total += iteration(opsPerRun, batch);
+            ops += lastIterationOps;
+        }
+        double bytesPerOp = (double) (THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore) / ops;
+        double nsPerOp = total / MEASURE_ITERATIONS;
+        System.out.println(String.format("%-50s %12.2f ns/op %14.0f ops/s %10.1f B/op", name, nsPerOp, 1e9 / nsPerOp,
+                bytesPerOp));
+        synchronized (results) {
+            results.add(new Result(name, nsPerOp, "ns/op", bytesPerOp));
+        }
+        return nsPerOp;
+    }
+
+    private static double iteration(int opsPerRun, LongSupplier batch) {
+        long ops = 0;
+        long acc = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            acc += batch.getAsLong();
+            ops += opsPerRun;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        sink += acc;
+        lastIterationOps = ops;
+        return (double) elapsed / ops;
+    }
+
+    /**
+     * Records a non-timed measurement (i.e., encoded size) alongside the timed
+     * results
+     *
+     * @param name
+     * @param score
+     * @param unit
+     */
+    public static void record(String name, double score, String unit) {
+        System.out.println(String.format("%-50s %12.1f %s", name, score, unit));
+        synchronized (results) {
+            results.add(new Result(name, score, unit, Double.NaN));
+        }
+    }
+
+    public static List<Result> results() {
+        synchronized (results) {
+            return new ArrayList<>(results);
+        }
+    }
+
+    /**
+     * Writes every result collected so far
+     *
+     * @param path   output file
+     * @param commit label for the code under test (i.e., git commit)
+     * @throws IOException
+     */
+    public static void writeJson(Path path, String commit) throws IOException {
+        List<Result> snapshot = results();
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            w.println("[");
+            for (int i = 0; i < snapshot.size(); i++) {
+                Result r = snapshot.get(i);
+                StringBuilder sb = new StringBuilder();
+                sb.append("  {\"benchmark\": \"").append(escape(r.name)).append('"');
+                sb.append(", \"mode\": \"").append("ns/op".equals(r.unit) ? "avgt" : "ss").append('"');
+                sb.append(", \"jdkVersion\": \"").append(escape(System.getProperty("java.version"))).append('"');
+                sb.append(", \"params\": {\"commit\": \"").append(escape(commit)).append("\"}");
+                sb.append(", \"primaryMetric\": {\"score\": ").append(number(r.score));
+                sb.append(", \"scoreUnit\": \"").append(escape(r.unit)).append("\"}");
+                if (!Double.isNaN(r.bytesPerOp)) {
+                    sb.append(", \"secondaryMetrics\": {\"gc.alloc.rate.norm\": {\"score\": ")
+                            .append(number(r.bytesPerOp)).append(", \"scoreUnit\": \"B/op\"}}");
+                }
+                sb.append('}');
+                if (i < snapshot.size() - 1) {
+                    sb.append(',');
+                }
+                w.println(sb);
+            }
+            w.println("]");
+        }
+    }
+
+    private static String number(double d) {
+        return Double.isFinite(d) ? String.format(Locale.ROOT, "%.3f", d) : "0";
+    }
+
+    private static String escape(String s) {
+        return s == null ? "" : s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Heap used after a best-effort full GC
+     */
+    public static long usedHeapAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,74 @@
+package Project.Benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares two result files written by BenchmarkSuite (or JMH -rf json) and
+ * flags benchmarks whose score got worse by more than the threshold.
+ * <p>
+ * Run: java Project.Benchmarks.BenchCompare base.json head.json [--threshold=10]
+ * </p>
+ * Exits with 1 if anything regressed so it can gate a script. Every unit this
+ * suite emits is lower-is-better (ns/op, bytes).
+ */
+public class BenchCompare {
+    // Bench.writeJson puts one result per line, so a line-wise match is enough
+    private static final Pattern RESULT = Pattern.compile(
+            "\"benchmark\":\\s*\"((?:[^\"\\\\]|\\\\.)*)\".*?\"primaryMetric\":\\s*\\{\"score\":\\s*([-0-9.eE]+),\\s*\"scoreUnit\":\\s*\"([^\"]*)\"");
+
+    static Map<String, double[]> load(Path path) throws IOException {
+        Map<String, double[]> scores = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(path)) {
+            Matcher m = RESULT.matcher(line);
+            if (m.find()) {
+                String name = m.group(1).replace("\\\"", "\"").replace("\\\\", "\\");
+                scores.put(name + " (" + m.group(3) + ")", new double[] { Double.parseDouble(m.group(2)) });
+            }
+        }
+        return scores;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: BenchCompare base.json head.json [--threshold=percent]");
+            System.exit(2);
+        }
+        double threshold = 10;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith("--threshold=")) {
+                threshold = Double.parseDouble(args[i].substring("--threshold=".length()));
+            }
+        }
+        Map<String, double[]> base = load(Path.of(args[0]));
+        Map<String, double[]> head = load(Path.of(args[1]));
+        int regressions = 0;
+        for (Map.Entry<String, double[]> e : head.entrySet()) {
+            double[] before = base.get(e.getKey());
+            double after = e.getValue()[0];
+            if (before == null) {
+                System.out.println(String.format("%-70s %12s -> %12.1f  (new)", e.getKey(), "-", after));
+                continue;
+            }
+            double delta = before[0] == 0 ? 0 : (after - before[0]) / before[0] * 100;
+            boolean regressed = delta > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.println(String.format("%-70s %12.1f -> %12.1f  %+7.1f%%%s", e.getKey(), before[0], after, delta,
+                    regressed ? "  REGRESSION" : ""));
+        }
+        for (String name : base.keySet()) {
+            if (!head.containsKey(name)) {
+                System.out.println(String.format("%-70s (removed)", name));
+            }
+        }
+        System.out.println(String.format("%d regression(s) over %.0f%%", regressions, threshold));
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+}
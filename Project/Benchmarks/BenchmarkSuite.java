@@ -0,0 +1,57 @@
+package Project.Benchmarks;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Runs every benchmark in this package and optionally writes the results as
+ * JSON for BenchCompare.
+ * <p>
+ * Run: java Project.Benchmarks.BenchmarkSuite --json=bench-HEAD.json
+ * </p>
+ * The commit label comes from -Dbench.commit, falling back to
+ * "git rev-parse --short HEAD".
+ */
+public class BenchmarkSuite {
+
+    public static void main(String[] args) throws Throwable {
+        Path json = null;
+        for (String arg : args) {
+            if (arg.startsWith("--json=")) {
+                json = Path.of(arg.substring("--json=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        DispatchBenchmark.quietLogging();
+
+        PayloadBenchmark.run();
+        PayloadBenchmark.runRoster();
+        DispatchBenchmark.run();
+        RoomBenchmark.run();
+        ChoiceBenchmark.main(new String[0]);
+        LongMapBenchmark.main(new String[0]);
+        LoggingBenchmark.run();
+
+        if (json != null) {
+            String commit = System.getProperty("bench.commit", gitCommit());
+            Bench.writeJson(json, commit);
+            System.out.println("Wrote " + Bench.results().size() + " results to " + json);
+        }
+    }
+
+    private static String gitCommit() {
+        try {
+            Process p = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            try (BufferedReader r = new BufferedReader(
+                    new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+                String line = r.readLine();
+                return p.waitFor() == 0 && line != null ? line.trim() : "unknown";
+            }
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package Project.Benchmarks;
+
+import java.util.Random;
+
+import Project.Common.Choice;
+
+/**
+ * Compares the old String-based pick validation/resolution (trim, toLowerCase,
+ * String.matches, char comparisons) with the Choice enum's allocation-free
+ * parse and outcome bitmask.
+ * <p>
+ * Run: java Project.Benchmarks.ChoiceBenchmark
+ * </p>
+ */
+public class ChoiceBenchmark {
+    private static final int PICKS_PER_RUN = 1024;
+    private static final String[] CODES = { "r", "p", "s", "f", "w" };
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        // fresh String instances like the ones deserialized off the socket
+        final String[] messages = new String[PICKS_PER_RUN];
+        final Choice[] parsed = new Choice[PICKS_PER_RUN];
+        final byte[] stored = new byte[PICKS_PER_RUN];
+        for (int i = 0; i < PICKS_PER_RUN; i++) {
+            messages[i] = new String(CODES[random.nextInt(CODES.length)]);
+            parsed[i] = Choice.fromWire(messages[i]);
+            stored[i] = parsed[i].toByte();
+        }
+
+        System.out.println("Pick validation");
+        Bench.run("String trim/toLowerCase/matches(\"[rpsfw]\")", PICKS_PER_RUN, () -> {
+            long valid = 0;
+            for (int i = 0; i < messages.length; i++) {
+                String choice = messages[i].trim().toLowerCase();
+                if (choice.matches("[rpsfw]")) {
+                    valid += choice.charAt(0);
+                }
+            }
+            return valid;
+        });
+        Bench.run("Choice.fromWire + isAllowed", PICKS_PER_RUN, () -> {
+            long valid = 0;
+            for (int i = 0; i < messages.length; i++) {
+                Choice choice = Choice.fromWire(messages[i]);
+                if (choice != null && choice.isAllowed(true)) {
+                    valid += choice.code;
+                }
+            }
+            return valid;
+        });
+
+        System.out.println("Battle resolution");
+        Bench.run("char comparison chain", PICKS_PER_RUN, () -> {
+            long wins = 0;
+            for (int i = 0; i < stored.length; i++) {
+                char a = messages[i].charAt(0);
+                char b = messages[(i + 1) % stored.length].charAt(0);
+                if (legacyWinsAgainst(a, b)) {
+                    wins++;
+                }
+            }
+            return wins;
+        });
+        Bench.run("Choice.fromByte + beats (bitmask)", PICKS_PER_RUN, () -> {
+            long wins = 0;
+            for (int i = 0; i < stored.length; i++) {
+                Choice a = Choice.fromByte(stored[i]);
+                Choice b = Choice.fromByte(stored[(i + 1) % stored.length]);
+                if (a.beats(b)) {
+                    wins++;
+                }
+            }
+            return wins;
+        });
+    }
+
+    // GameRoom.winsAgainst() before Choice (extra options enabled)
+    private static boolean legacyWinsAgainst(char a, char b) {
+        if (a == 'r') {
+            return b == 's' || b == 'f';
+        } else if (a == 'p') {
+            return b == 'r' || b == 'w';
+        } else if (a == 's') {
+            return b == 'p' || b == 'w';
+        } else if (a == 'f') {
+            return b == 'p' || b == 's';
+        } else if (a == 'w') {
+            return b == 'f' || b == 'r';
+        }
+        return false;
+    }
+}
@@ -0,0 +1,249 @@
+package Project.Benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+
+import Project.Client.Client;
+import Project.Client.Interfaces.IMessageEvents;
+import Project.Client.Interfaces.IPointsEvent;
+import Project.Client.Interfaces.IRoundEvents;
+import Project.Client.Interfaces.ITimeEvents;
+import Project.Common.ClockSyncPayload;
+import Project.Common.ConnectionPayload;
+import Project.Common.LoggerUtil;
+import Project.Common.Payload;
+import Project.Common.PayloadType;
+import Project.Common.PointsPayload;
+import Project.Common.RoundResultPayload;
+import Project.Common.TimerPayload;
+import Project.Common.TimerType;
+
+/**
+ * Cost of routing an already-decoded payload to its handler on each side.
+ * <p>
+ * Server: ServerThread.processPayload on an unstarted thread whose sends are
+ * swallowed (so only dispatch/handler work is measured), sitting in a plain
+ * Room with a few other members for the relay cases.
+ * </p>
+ * <p>
+ * Client: Client.processPayload and passToUICallback (both private, reached
+ * via a private lookup) with a set of no-op listeners registered.
+ * </p>
+ * Logging is configured off first; with it on these numbers mostly measure the
+ * logger.
+ * <p>
+ * Run: java Project.Benchmarks.DispatchBenchmark
+ * </p>
+ */
+public class DispatchBenchmark {
+    private static final int OPS = 256;
+    private static final int ROOM_MEMBERS = 4;
+    private static final int LISTENERS = 8;
+
+    /**
+     * Listener that implements every callback the benchmarked payloads reach
+     */
+    static class StubListener implements IMessageEvents, IPointsEvent, ITimeEvents, IRoundEvents {
+        long calls = 0;
+
+        @Override
+        public void onMessageReceive(long id, String message) {
+            calls++;
+        }
+
+        @Override
+        public void onPointsUpdate(long clientId, int points) {
+            calls++;
+        }
+
+        @Override
+        public void onPendingPick(long clientId, boolean isPending) {
+            calls++;
+        }
+
+        @Override
+        public void onEliminationStatus(long clientId, boolean isEliminated) {
+            calls++;
+        }
+
+        @Override
+        public void onTimerUpdate(TimerType timerType, int time) {
+            calls++;
+        }
+
+        @Override
+        public void onTimerDeadline(TimerType timerType, long localDeadline) {
+            calls++;
+        }
+
+        @Override
+        public void onRoundResult(RoundResultPayload result) {
+            calls++;
+        }
+
+        @Override
+        public void onAwayStatusChange(long clientId, boolean isAway) {
+            calls++;
+        }
+
+        @Override
+        public void onAwayStatusToggle(boolean isAway) {
+            calls++;
+        }
+
+        @Override
+        public void onSpectatorStatusChange(long clientId, boolean isSpectator) {
+            calls++;
+        }
+    }
+
+    /**
+     * Routes all log output nowhere so the benchmarks measure dispatch, not I/O
+     */
+    static void quietLogging() {
+        LoggerUtil.LoggerConfig config = new LoggerUtil.LoggerConfig();
+        config.setConsoleLogLevel(Level.OFF);
+        config.setFileLogLevel(Level.OFF);
+        config.setLogLocation(System.getProperty("java.io.tmpdir") + "/bench.log");
+        LoggerUtil.INSTANCE.setConfig(config);
+    }
+
+    public static void main(String[] args) throws Throwable {
+        quietLogging();
+        run();
+    }
+
+    /**
+     * Runs the server and client dispatch benchmarks (also used by
+     * BenchmarkSuite)
+     */
+    public static void run() throws Throwable {
+        runServer();
+        runClient();
+    }
+
+    private static void runServer() {
+        FakeRoom room = new FakeRoom("bench");
+        FakeServerThread thread = new FakeServerThread(1);
+        room.join(thread);
+        for (int i = 2; i <= ROOM_MEMBERS; i++) {
+            room.join(new FakeServerThread(i));
+        }
+
+        System.out.println("ServerThread.processPayload");
+        Payload[] messages = new Payload[OPS];
+        Payload[] reverses = new Payload[OPS];
+        ClockSyncPayload[] syncs = new ClockSyncPayload[OPS];
+        Payload[] unhandled = new Payload[OPS];
+        for (int i = 0; i < OPS; i++) {
+            messages[i] = new Payload();
+            messages[i].setPayloadType(PayloadType.MESSAGE);
+            messages[i].setMessage("hello " + i);
+            reverses[i] = new Payload();
+            reverses[i].setPayloadType(PayloadType.REVERSE);
+            reverses[i].setMessage("hello " + i);
+            syncs[i] = new ClockSyncPayload();
+            syncs[i].setT0(i);
+            unhandled[i] = new Payload();
+            unhandled[i].setPayloadType(PayloadType.PENDING_PICK);
+        }
+        benchServer("server/CLOCK_SYNC", thread, syncs);
+        benchServer("server/MESSAGE (relay to " + ROOM_MEMBERS + ")", thread, messages);
+        benchServer("server/REVERSE (relay to " + ROOM_MEMBERS + ")", thread, reverses);
+        benchServer("server/unhandled type (default branch)", thread, unhandled);
+    }
+
+    private static void benchServer(String name, FakeServerThread thread, Payload[] payloads) {
+        Bench.run(name, payloads.length, () -> {
+            for (Payload p : payloads) {
+                thread.dispatch(p);
+            }
+            return thread.sent;
+        });
+    }
+
+    private static void runClient() throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(Client.class, MethodHandles.lookup());
+        MethodHandle processPayload = lookup.findVirtual(Client.class, "processPayload",
+                MethodType.methodType(void.class, Payload.class));
+        MethodHandle passToUICallback = lookup.findVirtual(Client.class, "passToUICallback",
+                MethodType.methodType(void.class, Class.class, Consumer.class));
+        Client client = Client.INSTANCE;
+
+        StubListener[] listeners = new StubListener[LISTENERS];
+        for (int i = 0; i < LISTENERS; i++) {
+            listeners[i] = new StubListener();
+            client.registerCallback(listeners[i]);
+        }
+        // seed the known clients the payloads refer to
+        for (long id = 1000; id < 1004; id++) {
+            ConnectionPayload sync = new ConnectionPayload();
+            sync.setPayloadType(PayloadType.SYNC_CLIENT);
+            sync.setClientId(id);
+            sync.setClientName("p" + id);
+            sync.setMessage("bench");
+            processPayload.invoke(client, (Payload) sync);
+        }
+
+        System.out.println("Client.processPayload (" + LISTENERS + " listeners)");
+        Payload[] pending = new Payload[OPS];
+        Payload[] messages = new Payload[OPS];
+        Payload[] points = new Payload[OPS];
+        Payload[] timers = new Payload[OPS];
+        Payload[] results = new Payload[OPS];
+        IntFunction<Payload> roundResult = PayloadBenchmark.samples().get("RoundResultPayload(4 players)");
+        IntFunction<Payload> statusDelta = PayloadBenchmark.samples().get("StatusDeltaPayload(4 players)");
+        for (int i = 0; i < OPS; i++) {
+            // a round start: every seeded client is pending again
+            pending[i] = statusDelta.apply(i);
+            messages[i] = new Payload();
+            messages[i].setPayloadType(PayloadType.MESSAGE);
+            messages[i].setClientId(1000 + i % 4);
+            messages[i].setMessage("p: hello " + i);
+            PointsPayload pp = new PointsPayload();
+            pp.setClientId(1000 + i % 4);
+            pp.setPoints(i);
+            points[i] = pp;
+            TimerPayload tp = new TimerPayload();
+            tp.setTimerType(TimerType.ROUND);
+            tp.setDeadline(System.currentTimeMillis() + 30_000, System.currentTimeMillis());
+            timers[i] = tp;
+            // ids in the sample round result start at 1000 like the seeded clients
+            results[i] = roundResult.apply(0);
+        }
+        benchClient("client/STATUS_DELTA (4 players)", processPayload, client, pending);
+        benchClient("client/MESSAGE", processPayload, client, messages);
+        benchClient("client/POINTS", processPayload, client, points);
+        benchClient("client/TIME", processPayload, client, timers);
+        benchClient("client/ROUND_RESULT (4 players)", processPayload, client, results);
+
+        Consumer<IMessageEvents> callback = e -> e.onMessageReceive(1000, "hi");
+        Bench.run("client/passToUICallback(IMessageEvents)", OPS, () -> {
+            try {
+                for (int i = 0; i < OPS; i++) {
+                    passToUICallback.invoke(client, IMessageEvents.class, callback);
+                }
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+            return listeners[0].calls;
+        });
+    }
+
+    private static void benchClient(String name, MethodHandle processPayload, Client client, Payload[] payloads) {
+        Bench.run(name, payloads.length, () -> {
+            try {
+                for (Payload p : payloads) {
+                    processPayload.invoke(client, p);
+                }
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+            return payloads.length;
+        });
+    }
+}
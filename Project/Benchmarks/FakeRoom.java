@@ -0,0 +1,26 @@
+package Project.Benchmarks;
+
+import Project.Server.Room;
+import Project.Server.ServerThread;
+
+/**
+ * Plain Room with its protected membership/relay entry points exposed to the
+ * benchmarks
+ */
+class FakeRoom extends Room {
+    FakeRoom(String name) {
+        super(name);
+    }
+
+    void join(ServerThread client) {
+        addClient(client);
+    }
+
+    void leave(ServerThread client) {
+        removeClient(client);
+    }
+
+    void send(ServerThread sender, String message) {
+        relay(sender, message);
+    }
+}
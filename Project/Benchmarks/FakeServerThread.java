@@ -0,0 +1,34 @@
+package Project.Benchmarks;
+
+import java.net.Socket;
+
+import Project.Common.Payload;
+import Project.Server.ServerThread;
+
+/**
+ * In-memory ServerThread sink: never started, exposes processPayload and counts
+ * outgoing payloads instead of writing them to a socket
+ */
+class FakeServerThread extends ServerThread {
+    long sent = 0;
+    // keeps each payload reachable so the JIT can't scalar-replace it away
+    Payload last;
+
+    FakeServerThread(long clientId) {
+        super(new Socket(), t -> {
+        });
+        setClientId(clientId);
+        setClientName("bench" + clientId);
+    }
+
+    void dispatch(Payload payload) {
+        processPayload(payload);
+    }
+
+    @Override
+    protected boolean sendToClient(Payload payload) {
+        sent++;
+        last = payload;
+        return true;
+    }
+}
@@ -0,0 +1,254 @@
+package Project.Benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import Project.Common.Choice;
+import Project.Common.Payload;
+import Project.Common.Phase;
+import Project.Common.PlayerStatus;
+import Project.Common.RoundResultPayload;
+import Project.Common.StatusDeltaPayload;
+import Project.Common.VirtualClock;
+import Project.Server.GameRoom;
+
+/**
+ * Plays full GameRoom sessions on a VirtualClock: ready up, rounds, 30 second
+ * round timers expiring on players who don't pick, game over, ready again.
+ * Nothing sleeps, so thousands of sessions take seconds, and one seed always
+ * produces the same sequence of events.
+ * <p>
+ * Each run folds every round result into a checksum; the same seed is run
+ * --runs times and the simulation fails (exit 1) if the checksums differ.
+ * </p>
+ * <p>
+ * Run: java Project.Benchmarks.GameSimulation --sessions=10000
+ * </p>
+ * Options (all optional): --sessions=5000 (total) --rooms=8 --players=4
+ * --seed=42 --afkRate=0.05 (chance a player sits out a round) --maxPickMs=10000
+ * --runs=2
+ */
+public class GameSimulation {
+    // time to click ready again after a game ends
+    private static final long REREADY_DELAY_MS = 1000;
+
+    public static class Config {
+        public int sessions = 5000;
+        public int rooms = 8;
+        public int players = 4;
+        public long seed = 42;
+        public double afkRate = 0.05;
+        public long maxPickMs = 10_000;
+        public int runs = 2;
+
+        public static Config parse(String[] args) {
+            Config c = new Config();
+            for (String arg : args) {
+                String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+                if (kv.length != 2) {
+                    throw new IllegalArgumentException("Expected --key=value but got " + arg);
+                }
+                switch (kv[0]) {
+                    case "sessions" -> c.sessions = Integer.parseInt(kv[1]);
+                    case "rooms" -> c.rooms = Math.max(1, Integer.parseInt(kv[1]));
+                    case "players" -> c.players = Math.max(2, Integer.parseInt(kv[1]));
+                    case "seed" -> c.seed = Long.parseLong(kv[1]);
+                    case "afkRate" -> c.afkRate = Double.parseDouble(kv[1]);
+                    case "maxPickMs" -> c.maxPickMs = Math.max(1, Long.parseLong(kv[1]));
+                    case "runs" -> c.runs = Math.max(1, Integer.parseInt(kv[1]));
+                    default -> throw new IllegalArgumentException("Unknown option " + kv[0]);
+                }
+            }
+            return c;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("sessions=%d rooms=%d players=%d seed=%d afkRate=%.2f maxPickMs=%d runs=%d",
+                    sessions, rooms, players, seed, afkRate, maxPickMs, runs);
+        }
+    }
+
+    /**
+     * Totals for one run
+     */
+    static class Result {
+        long sessions = 0;
+        long rounds = 0;
+        long timedOutRounds = 0;
+        long wipeouts = 0;
+        long checksum = 17;
+        long virtualMillis = 0;
+        long wallNanos = 0;
+        long tasksRun = 0;
+
+        void fold(long value) {
+            checksum = checksum * 31 + value;
+        }
+
+        @Override
+        public String toString() {
+            double wallSeconds = wallNanos / 1e9;
+            return String.format(
+                    "sessions=%d rounds=%d timedOut=%d wipeouts=%d virtual=%.1fh wall=%.2fs (%.0f sessions/s, %d clock tasks) checksum=%016x",
+                    sessions, rounds, timedOutRounds, wipeouts, virtualMillis / 3_600_000.0, wallSeconds,
+                    sessions / wallSeconds, tasksRun, checksum);
+        }
+    }
+
+    /**
+     * Player that reacts to the payloads the room sends it: picks a random
+     * choice at a random point in the round when it's pending (or sits the round
+     * out)
+     */
+    static class SimPlayer extends FakeServerThread {
+        private final SimRoom room;
+        private final boolean recordsResults;
+
+        SimPlayer(long clientId, SimRoom room, boolean recordsResults) {
+            super(clientId);
+            this.room = room;
+            this.recordsResults = recordsResults;
+        }
+
+        @Override
+        protected boolean sendToClient(Payload payload) {
+            super.sendToClient(payload);
+            if (payload instanceof StatusDeltaPayload delta && delta.isSet(getClientId(), PlayerStatus.PENDING)) {
+                room.onPending(this);
+            } else if (recordsResults && payload instanceof RoundResultPayload result) {
+                room.onResult(result);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * GameRoom on the shared virtual clock with its protected entry points
+     * exposed
+     */
+    static class SimRoom extends GameRoom {
+        private final VirtualClock clock;
+        private final Random random;
+        private final Config config;
+        private final Result result;
+        private final int sessionsWanted;
+        private final List<SimPlayer> players = new ArrayList<>();
+        private int sessionsPlayed = 0;
+
+        SimRoom(String name, VirtualClock clock, Random random, Config config, Result result, int sessionsWanted) {
+            super(name, clock);
+            this.clock = clock;
+            this.random = random;
+            this.config = config;
+            this.result = result;
+            this.sessionsWanted = sessionsWanted;
+        }
+
+        void seat(long firstId, int count) {
+            for (int i = 0; i < count; i++) {
+                SimPlayer player = new SimPlayer(firstId + i, this, i == 0);
+                players.add(player);
+                addClient(player);
+            }
+            // ready up once onClientAdded (scheduled on the clock) has run
+            clock.schedule(this::readyAll, REREADY_DELAY_MS);
+        }
+
+        private synchronized void readyAll() {
+            for (SimPlayer player : players) {
+                handleReady(player, false, true);
+            }
+        }
+
+        void onPending(SimPlayer player) {
+            if (random.nextDouble() < config.afkRate) {
+                return;
+            }
+            Choice choice = Choice.values()[random.nextInt(3)];
+            clock.schedule(() -> handleTurnAction(player, choice), random.nextLong(config.maxPickMs));
+        }
+
+        void onResult(RoundResultPayload round) {
+            result.rounds++;
+            if (round.getSkipped().length > 0) {
+                result.timedOutRounds++;
+            }
+            result.fold(clock.currentTimeMillis());
+            result.fold(round.getRound());
+            for (long id : round.getEliminated()) {
+                result.fold(id);
+            }
+            for (int point : round.getPoints()) {
+                result.fold(point);
+            }
+            if (round.isGameOver()) {
+                result.fold(round.getWinnerId());
+                if (round.getSurvivors() == 0) {
+                    result.wipeouts++;
+                }
+            }
+        }
+
+        @Override
+        protected synchronized void onSessionEnd() {
+            boolean gameWasRunning = currentPhase == Phase.IN_PROGRESS;
+            super.onSessionEnd();
+            if (gameWasRunning) {
+                sessionsPlayed++;
+                result.sessions++;
+                if (sessionsPlayed < sessionsWanted) {
+                    clock.schedule(this::readyAll, REREADY_DELAY_MS);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        Config config = Config.parse(args);
+        DispatchBenchmark.quietLogging();
+        System.out.println("Game simulation: " + config);
+        Result first = null;
+        boolean reproducible = true;
+        for (int run = 1; run <= config.runs; run++) {
+            Result result = run(config);
+            System.out.println("Run " + run + ": " + result);
+            if (first == null) {
+                first = result;
+            } else if (result.checksum != first.checksum || result.rounds != first.rounds) {
+                reproducible = false;
+            }
+        }
+        if (!reproducible) {
+            System.out.println("FAIL: runs with the same seed diverged");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Plays config.sessions sessions spread over config.rooms rooms sharing one
+     * clock and one seeded Random, driving the clock until nothing is scheduled
+     */
+    static Result run(Config config) {
+        VirtualClock clock = new VirtualClock(0);
+        Random random = new Random(config.seed);
+        Result result = new Result();
+        long start = System.nanoTime();
+        for (int r = 0; r < config.rooms; r++) {
+            int sessionsWanted = config.sessions / config.rooms + (r < config.sessions % config.rooms ? 1 : 0);
+            if (sessionsWanted == 0) {
+                continue;
+            }
+            SimRoom room = new SimRoom("sim-" + r, clock, random, config, result, sessionsWanted);
+            room.seat(1 + (long) r * config.players, config.players);
+        }
+        while (clock.runNext()) {
+            // every callback runs on this thread in a fixed order
+        }
+        result.wallNanos = System.nanoTime() - start;
+        result.virtualMillis = clock.currentTimeMillis();
+        result.tasksRun = clock.getTasksRun();
+        return result;
+    }
+}
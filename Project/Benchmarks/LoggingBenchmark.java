@@ -0,0 +1,159 @@
+package Project.Benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.LongSupplier;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+import java.util.stream.Stream;
+
+import Project.Common.BinaryLogHandler;
+import Project.Common.CallerLookup;
+import Project.Common.LoggerUtil;
+import Project.Common.Payload;
+
+/**
+ * Per-record cost of finding a log line's calling class: the old
+ * Thread.getStackTrace() scan against CallerLookup's StackWalker, with the call
+ * made STACK_DEPTH frames deep like a log call on a ServerThread, what a log
+ * call costs when its level is filtered out, and the text and binary sinks'
+ * cost per record.
+ * <p>
+ * Run: java Project.Benchmarks.LoggingBenchmark
+ * </p>
+ */
+public class LoggingBenchmark {
+    // roughly the depth of a log call made while handling a payload
+    private static final int STACK_DEPTH = 24;
+    private static final int OPS_PER_RUN = 64;
+
+    public static void main(String[] args) {
+        DispatchBenchmark.quietLogging();
+        run();
+    }
+
+    /**
+     * Runs the logging benchmarks (also used by BenchmarkSuite)
+     */
+    public static void run() {
+        System.out.println(String.format("Caller lookup per log record (%d frames deep)", STACK_DEPTH));
+        Bench.run("caller/Thread.getStackTrace (before)", OPS_PER_RUN,
+                () -> atDepth(STACK_DEPTH, LoggingBenchmark::stackTraceBatch));
+        Bench.run("caller/CallerLookup (StackWalker)", OPS_PER_RUN,
+                () -> atDepth(STACK_DEPTH, LoggingBenchmark::walkerBatch));
+        // what LoggerUtil does per call with captureCaller off
+        Bench.run("caller/capture off", OPS_PER_RUN, () -> atDepth(STACK_DEPTH, () -> 0));
+
+        // whole log calls with every handler filtered out: none should build a
+        // record or a message
+        Payload payload = new Payload();
+        payload.setMessage("benchmark message");
+        System.out.println("Filtered-out log calls (levels OFF)");
+        Bench.run("LoggerUtil.info(String concat)", OPS_PER_RUN, () -> {
+            for (int i = 0; i < OPS_PER_RUN; i++) {
+                LoggerUtil.INSTANCE.info("Sending to client: " + payload);
+            }
+            return OPS_PER_RUN;
+        });
+        Bench.run("LoggerUtil.info(Supplier)", OPS_PER_RUN, () -> {
+            for (int i = 0; i < OPS_PER_RUN; i++) {
+                LoggerUtil.INSTANCE.info(() -> "Sending to client: " + payload);
+            }
+            return OPS_PER_RUN;
+        });
+        Bench.run("LoggerUtil.info(format, args)", OPS_PER_RUN, () -> {
+            for (int i = 0; i < OPS_PER_RUN; i++) {
+                LoggerUtil.INSTANCE.info("Sending to client: %s", payload);
+            }
+            return OPS_PER_RUN;
+        });
+
+        runSinks();
+    }
+
+    /**
+     * Cost of writing one record in each sink, with the same record every time
+     */
+    private static void runSinks() {
+        Path dir;
+        FileHandler text;
+        BinaryLogHandler binary;
+        try {
+            dir = Files.createTempDirectory("logbench");
+            text = new FileHandler(dir.resolve("text-%g.log").toString(), 64 * 1024 * 1024, 2);
+            binary = new BinaryLogHandler(dir.resolve("binary").toString(), 64 * 1024 * 1024, 2, 10);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        text.setFormatter(new SimpleFormatter());
+        LogRecord record = new LogRecord(Level.INFO, "Thread[%s]: %s");
+        record.setParameters(new Object[] { 42L, "Sending to client: Payload[MESSAGE] Client Id [42] Message: [hi]" });
+        record.setSourceClassName("Project.Server.ServerThread");
+
+        System.out.println("Log sinks (one record)");
+        Bench.run("sink/FileHandler + SimpleFormatter", OPS_PER_RUN, () -> {
+            for (int i = 0; i < OPS_PER_RUN; i++) {
+                text.publish(record);
+            }
+            return OPS_PER_RUN;
+        });
+        Bench.run("sink/BinaryLogHandler", OPS_PER_RUN, () -> {
+            for (int i = 0; i < OPS_PER_RUN; i++) {
+                binary.publish(record);
+            }
+            return OPS_PER_RUN;
+        });
+        text.close();
+        binary.close();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            // leave it for the OS to clean up
+        }
+    }
+
+    private static long stackTraceBatch() {
+        long hash = 0;
+        for (int i = 0; i < OPS_PER_RUN; i++) {
+            hash += stackTraceCaller().length();
+        }
+        return hash;
+    }
+
+    private static long walkerBatch() {
+        long hash = 0;
+        for (int i = 0; i < OPS_PER_RUN; i++) {
+            hash += CallerLookup.callerClassName().length();
+        }
+        return hash;
+    }
+
+    /**
+     * LoggerUtil's lookup before CallerLookup: materialize the whole stack and
+     * scan it by name
+     */
+    private static String stackTraceCaller() {
+        String loggerUtilPackage = LoggerUtil.class.getPackage().getName();
+        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
+        for (StackTraceElement element : stackTrace) {
+            String className = element.getClassName();
+            if (!className.startsWith("java.util.logging") &&
+                    !className.startsWith(loggerUtilPackage) &&
+                    !className.equals(Thread.class.getName())) {
+                return className;
+            }
+        }
+        return "unknown";
+    }
+
+    private static long atDepth(int depth, LongSupplier batch) {
+        return depth <= 0 ? batch.getAsLong() : atDepth(depth - 1, batch) + 1;
+    }
+}
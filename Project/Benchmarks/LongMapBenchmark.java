@@ -0,0 +1,102 @@
+package Project.Benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import Project.Common.ConcurrentLongMap;
+
+/**
+ * Compares ConcurrentLongMap against ConcurrentHashMap&lt;Long, V&gt; for the
+ * membership lookups Room/Client do on every payload.
+ * <p>
+ * Run: java Project.Benchmarks.LongMapBenchmark [entries]
+ * </p>
+ */
+public class LongMapBenchmark {
+    // ids beyond the Long.valueOf() cache, as seen on a long-running server
+    private static final long FIRST_ID = 1_000_000L;
+    private static final int LOOKUPS_PER_RUN = 1024;
+
+    public static void main(String[] args) {
+        int entries = 1000;
+        try {
+            entries = Integer.parseInt(args[0]);
+        } catch (Exception e) {
+            // default
+        }
+        final Object value = new Object();
+        final long[] probes = new long[LOOKUPS_PER_RUN];
+        Random random = new Random(42);
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = FIRST_ID + random.nextInt(entries);
+        }
+
+        ConcurrentLongMap<Object> longMap = new ConcurrentLongMap<>();
+        ConcurrentHashMap<Long, Object> chm = new ConcurrentHashMap<>();
+        for (int i = 0; i < entries; i++) {
+            longMap.put(FIRST_ID + i, value);
+            chm.put(FIRST_ID + i, value);
+        }
+
+        System.out.println(String.format("Lookup throughput (%d entries)", entries));
+        Bench.run("ConcurrentLongMap.get", LOOKUPS_PER_RUN, () -> {
+            long hits = 0;
+            for (int i = 0; i < probes.length; i++) {
+                if (longMap.get(probes[i]) != null) {
+                    hits++;
+                }
+            }
+            return hits;
+        });
+        Bench.run("ConcurrentHashMap<Long,V>.get (boxed)", LOOKUPS_PER_RUN, () -> {
+            long hits = 0;
+            for (int i = 0; i < probes.length; i++) {
+                if (chm.get(probes[i]) != null) {
+                    hits++;
+                }
+            }
+            return hits;
+        });
+        Bench.run("ConcurrentLongMap.containsKey", LOOKUPS_PER_RUN, () -> {
+            long hits = 0;
+            for (int i = 0; i < probes.length; i++) {
+                if (longMap.containsKey(probes[i])) {
+                    hits++;
+                }
+            }
+            return hits;
+        });
+        Bench.run("ConcurrentHashMap<Long,V>.containsKey (boxed)", LOOKUPS_PER_RUN, () -> {
+            long hits = 0;
+            for (int i = 0; i < probes.length; i++) {
+                if (chm.containsKey(probes[i])) {
+                    hits++;
+                }
+            }
+            return hits;
+        });
+
+        System.out.println("Per-entry memory");
+        int memEntries = Math.max(entries, 100_000);
+        longMap.clear();
+        chm.clear();
+        long base = Bench.usedHeapAfterGc();
+        ConcurrentLongMap<Object> sizedLongMap = new ConcurrentLongMap<>();
+        for (int i = 0; i < memEntries; i++) {
+            sizedLongMap.put(FIRST_ID + i, value);
+        }
+        long longMapBytes = Bench.usedHeapAfterGc() - base;
+        base = Bench.usedHeapAfterGc();
+        ConcurrentHashMap<Long, Object> sizedChm = new ConcurrentHashMap<>();
+        for (int i = 0; i < memEntries; i++) {
+            sizedChm.put(FIRST_ID + i, value);
+        }
+        long chmBytes = Bench.usedHeapAfterGc() - base;
+        System.out.println(String.format("%-50s %12.1f bytes/entry (table estimate %.1f)", "ConcurrentLongMap",
+                (double) longMapBytes / memEntries, (double) sizedLongMap.tableBytes() / memEntries));
+        System.out.println(String.format("%-50s %12.1f bytes/entry", "ConcurrentHashMap<Long,V>",
+                (double) chmBytes / memEntries));
+        // keep both reachable until after measurement
+        System.out.println(String.format("(%d/%d entries)", sizedLongMap.size(), sizedChm.size()));
+    }
+}
@@ -0,0 +1,328 @@
+package Project.Benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import Project.Common.Choice;
+import Project.Common.ClockSyncPayload;
+import Project.Common.ConnectionPayload;
+import Project.Common.DictionaryObjectInputStream;
+import Project.Common.DictionaryObjectOutputStream;
+import Project.Common.Payload;
+import Project.Common.PayloadType;
+import Project.Common.PlayerStatus;
+import Project.Common.PointsPayload;
+import Project.Common.ReadyPayload;
+import Project.Common.RoomResultPayload;
+import Project.Common.RoundResultPayload;
+import Project.Common.StatusDeltaPayload;
+import Project.Common.TimerPayload;
+import Project.Common.TimerType;
+
+/**
+ * Encode/decode cost and size of every Payload subclass through the
+ * ObjectOutputStream path the sockets use.
+ * <p>
+ * Two codecs are compared: "fresh" builds a new Object stream per payload
+ * (stream header and class descriptors every time) and "stream" reuses one
+ * long-lived stream like BaseServerThread/Client do, resetting it every batch
+ * so the handle table stays bounded.
+ * </p>
+ * <p>
+ * The roster case replays big-lobby traffic (member syncs and name-bearing
+ * game events) through a plain long-lived stream and a
+ * DictionaryObjectOutputStream, both reset every 256 payloads like
+ * BaseServerThread.
+ * </p>
+ * <p>
+ * Run: java Project.Benchmarks.PayloadBenchmark
+ * </p>
+ */
+public class PayloadBenchmark {
+    // distinct instances per batch so nothing but class descriptors is shared
+    private static final int BATCH = 256;
+    private static final int LOBBY_SIZE = 64;
+    private static final int ROSTER_ROUNDS = 40;
+
+    /**
+     * @return a factory per payload shape; each call builds a distinct instance
+     */
+    static Map<String, IntFunction<Payload>> samples() {
+        Map<String, IntFunction<Payload>> samples = new LinkedHashMap<>();
+        samples.put("Payload(MESSAGE)", i -> {
+            Payload p = new Payload();
+            p.setPayloadType(PayloadType.MESSAGE);
+            p.setClientId(1000 + i);
+            p.setMessage("player" + i + "#" + (1000 + i) + ": gg, rematch?");
+            return p;
+        });
+        samples.put("ConnectionPayload(ROOM_JOIN)", i -> {
+            ConnectionPayload p = new ConnectionPayload();
+            p.setPayloadType(PayloadType.ROOM_JOIN);
+            p.setClientId(1000 + i);
+            p.setClientName("player" + i);
+            p.setMessage("room-" + (i % 8));
+            return p;
+        });
+        samples.put("ReadyPayload(READY)", i -> {
+            ReadyPayload p = new ReadyPayload();
+            p.setClientId(1000 + i);
+            p.setReady(i % 2 == 0);
+            return p;
+        });
+        samples.put("PointsPayload(POINTS)", i -> {
+            PointsPayload p = new PointsPayload();
+            p.setClientId(1000 + i);
+            p.setPoints(i % 10);
+            return p;
+        });
+        samples.put("RoomResultPayload(ROOM_LIST)", i -> {
+            RoomResultPayload p = new RoomResultPayload();
+            List<String> rooms = new ArrayList<>();
+            for (int r = 0; r < 10; r++) {
+                rooms.add("room-" + i + "-" + r);
+            }
+            p.setRooms(rooms);
+            return p;
+        });
+        samples.put("TimerPayload(TIME)", i -> {
+            TimerPayload p = new TimerPayload();
+            p.setTimerType(TimerType.ROUND);
+            long now = 1_700_000_000_000L + i;
+            p.setDeadline(now + 30_000, now);
+            return p;
+        });
+        samples.put("RoundResultPayload(4 players)", i -> {
+            RoundResultPayload p = new RoundResultPayload();
+            p.setRound(i);
+            long base = 1000 + i * 4;
+            p.setPairings(new long[] { base, base + 1, base + 2, base + 3 },
+                    new byte[] { Choice.ROCK.toByte(), Choice.PAPER.toByte(), Choice.SCISSORS.toByte(),
+                            Choice.ROCK.toByte() },
+                    new long[] { base + 1, base + 2, base + 3, base },
+                    new byte[] { Choice.PAPER.toByte(), Choice.SCISSORS.toByte(), Choice.ROCK.toByte(),
+                            Choice.ROCK.toByte() },
+                    new byte[] { RoundResultPayload.B_WON, RoundResultPayload.B_WON, RoundResultPayload.B_WON,
+                            RoundResultPayload.TIE });
+            p.setEliminated(new long[] { base, base + 1, base + 2 });
+            p.setPoints(new long[] { base, base + 1, base + 2, base + 3 }, new int[] { 0, 1, 1, 1 });
+            p.setSurvivors(1);
+            p.setGameOver(base + 3);
+            return p;
+        });
+        samples.put("StatusDeltaPayload(4 players)", i -> {
+            // a round start: everyone still in is pending and not eliminated
+            StatusDeltaPayload p = new StatusDeltaPayload();
+            byte mask = (byte) (PlayerStatus.PENDING | PlayerStatus.ELIMINATED);
+            p.setEntries(new long[] { 1000, 1001, 1002, 1003 }, new byte[] { mask, mask, mask, mask },
+                    new byte[] { PlayerStatus.PENDING, PlayerStatus.PENDING, PlayerStatus.PENDING,
+                            PlayerStatus.PENDING });
+            return p;
+        });
+        samples.put("ClockSyncPayload(CLOCK_SYNC)", i -> {
+            ClockSyncPayload p = new ClockSyncPayload();
+            p.setT0(1_700_000_000_000L + i);
+            p.setT1(1_700_000_000_003L + i);
+            p.setT2(1_700_000_000_004L + i);
+            p.setReported(3, 2);
+            return p;
+        });
+        return samples;
+    }
+
+    static byte[] encodeFresh(Payload payload) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(payload);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Object decodeFresh(byte[] encoded) {
+        try {
+            return new ObjectInputStream(new ByteArrayInputStream(encoded)).readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        run();
+        runRoster();
+    }
+
+    /**
+     * Roster-heavy traffic for one client in a big lobby: every round each
+     * member is re-synced (names are the server's stored instances) and
+     * announced in a game event (display names are rebuilt each time)
+     */
+    static List<Payload> rosterTraffic() {
+        String room = "lobby-main";
+        String[] names = new String[LOBBY_SIZE];
+        for (int i = 0; i < LOBBY_SIZE; i++) {
+            names[i] = "player" + i;
+        }
+        List<Payload> traffic = new ArrayList<>();
+        for (int round = 0; round < ROSTER_ROUNDS; round++) {
+            for (int i = 0; i < LOBBY_SIZE; i++) {
+                ConnectionPayload sync = new ConnectionPayload();
+                sync.setPayloadType(PayloadType.SYNC_CLIENT);
+                sync.setClientId(1000 + i);
+                sync.setClientName(names[i]);
+                sync.setMessage(room);
+                traffic.add(sync);
+
+                Payload event = new Payload();
+                event.setPayloadType(PayloadType.MESSAGE);
+                event.setClientId(1000 + i);
+                event.setMessage(String.format("%s#%s", names[i], 1000 + i));
+                traffic.add(event);
+            }
+        }
+        return traffic;
+    }
+
+    static byte[] encodeRoster(List<Payload> traffic, boolean dictionary) {
+        try {
+            ByteArrayOutputStream sink = new ByteArrayOutputStream(256 * 1024);
+            ObjectOutputStream out = dictionary ? new DictionaryObjectOutputStream(sink)
+                    : new ObjectOutputStream(sink);
+            int sinceReset = 0;
+            for (Payload p : traffic) {
+                out.writeObject(p);
+                if (++sinceReset >= BATCH) {
+                    out.reset();
+                    sinceReset = 0;
+                }
+            }
+            out.flush();
+            return sink.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<Payload> decodeRoster(byte[] encoded, int count, boolean dictionary) {
+        try (ObjectInputStream in = dictionary ? new DictionaryObjectInputStream(new ByteArrayInputStream(encoded))
+                : new ObjectInputStream(new ByteArrayInputStream(encoded))) {
+            List<Payload> decoded = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                decoded.add((Payload) in.readObject());
+            }
+            return decoded;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Wire size and codec cost of roster traffic with and without the string
+     * dictionary (also used by BenchmarkSuite)
+     */
+    public static void runRoster() {
+        List<Payload> traffic = rosterTraffic();
+        int count = traffic.size();
+        System.out.println("Roster traffic (" + LOBBY_SIZE + " members, " + count + " payloads)");
+        for (boolean dictionary : new boolean[] { false, true }) {
+            String codec = dictionary ? "dictionary" : "stream";
+            byte[] encoded = encodeRoster(traffic, dictionary);
+            List<Payload> decoded = decodeRoster(encoded, count, dictionary);
+            for (int i = 0; i < count; i++) {
+                if (!traffic.get(i).toString().equals(decoded.get(i).toString())) {
+                    throw new IllegalStateException("Roster payload " + i + " didn't round trip: " + decoded.get(i));
+                }
+            }
+            Bench.record("size/roster/" + codec, (double) encoded.length / count, "bytes");
+            Bench.run("encode/roster/" + codec, count, () -> encodeRoster(traffic, dictionary).length);
+            Bench.run("decode/roster/" + codec, count, () -> decodeRoster(encoded, count, dictionary).size());
+        }
+    }
+
+    /**
+     * Runs every payload/codec combination (also used by BenchmarkSuite)
+     */
+    public static void run() throws IOException {
+        for (Map.Entry<String, IntFunction<Payload>> sample : samples().entrySet()) {
+            String name = sample.getKey();
+            Payload[] batch = new Payload[BATCH];
+            byte[][] freshEncoded = new byte[BATCH][];
+            long freshBytes = 0;
+            for (int i = 0; i < BATCH; i++) {
+                batch[i] = sample.getValue().apply(i);
+                freshEncoded[i] = encodeFresh(batch[i]);
+                freshBytes += freshEncoded[i].length;
+            }
+
+            // one long-lived stream; reset per batch like a periodic out.reset()
+            ByteArrayOutputStream sink = new ByteArrayOutputStream(64 * 1024);
+            ObjectOutputStream shared = new ObjectOutputStream(sink);
+            for (Payload p : batch) {
+                shared.writeObject(p);
+            }
+            shared.flush();
+            byte[] streamEncoded = sink.toByteArray();
+
+            System.out.println(name);
+            Bench.record("size/" + name + "/fresh", (double) freshBytes / BATCH, "bytes");
+            Bench.record("size/" + name + "/stream", (double) streamEncoded.length / BATCH, "bytes");
+
+            Bench.run("encode/" + name + "/fresh", BATCH, () -> {
+                long total = 0;
+                for (Payload p : batch) {
+                    total += encodeFresh(p).length;
+                }
+                return total;
+            });
+            Bench.run("encode/" + name + "/stream", BATCH, () -> {
+                try {
+                    sink.reset();
+                    shared.reset();
+                    for (Payload p : batch) {
+                        shared.writeObject(p);
+                    }
+                    shared.flush();
+                    return sink.size();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            Bench.run("decode/" + name + "/fresh", BATCH, () -> {
+                long hash = 0;
+                for (byte[] encoded : freshEncoded) {
+                    hash += decodeFresh(encoded).hashCode();
+                }
+                return hash;
+            });
+            Bench.run("decode/" + name + "/stream", BATCH, () -> {
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(streamEncoded))) {
+                    long hash = 0;
+                    for (int i = 0; i < BATCH; i++) {
+                        hash += in.readObject().hashCode();
+                    }
+                    return hash;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+    }
+}
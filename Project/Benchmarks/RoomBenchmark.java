@@ -0,0 +1,226 @@
+package Project.Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Project.Common.Choice;
+import Project.Common.Phase;
+import Project.Common.TimerType;
+import Project.Server.GameRoom;
+import Project.Server.Room;
+import Project.Server.ServerThread;
+
+/**
+ * Scaling curve of the room code by member count, with FakeServerThread sinks
+ * in place of sockets so only the room's own work (iteration, payload
+ * construction, locking) is measured.
+ * <ul>
+ * <li>Room.relay: one chat message fanned out to every member</li>
+ * <li>Room.addClient/removeClient: one extra member joining and leaving (and
+ * moving through an otherwise empty lobby, which is O(1))</li>
+ * <li>GameRoom.sendTimerDeadline: one timer update fanned out</li>
+ * <li>GameRoom.handleTurnAction: one pick (amortizes the round end that the
+ * last pick of a round triggers)</li>
+ * <li>GameRoom.onRoundEnd: resolving a round where everyone picked, excluding
+ * the next onRoundStart</li>
+ * </ul>
+ * <p>
+ * Run: java Project.Benchmarks.RoomBenchmark [--sizes=2,10,100,1000,10000]
+ * </p>
+ */
+public class RoomBenchmark {
+    private static final int[] DEFAULT_SIZES = { 2, 10, 100, 1_000, 10_000 };
+    // picks per batch; large rooms resolve a round across several batches
+    private static final int MAX_PICKS_PER_BATCH = 256;
+    // rounds are O(n^2) sends, so large rooms get fewer of them
+    private static final long ROUND_SEND_BUDGET = 200_000_000L;
+
+    /**
+     * GameRoom with its protected hooks exposed and onRoundEnd timed in place
+     */
+    static class BenchGameRoom extends GameRoom {
+        final AtomicInteger added = new AtomicInteger();
+        long roundEndNanos = 0;
+        long roundsEnded = 0;
+        private long nestedStartNanos = 0;
+        private boolean inRoundEnd = false;
+        // stop chaining rounds so no round timer is left behind
+        volatile boolean stopping = false;
+
+        BenchGameRoom(String name) {
+            super(name);
+        }
+
+        void join(ServerThread client) {
+            addClient(client);
+        }
+
+        void ready(ServerThread client) {
+            handleReady(client, false, true);
+        }
+
+        void pick(ServerThread client, Choice choice) {
+            handleTurnAction(client, choice);
+        }
+
+        void deadline(long deadline) {
+            sendTimerDeadline(TimerType.ROUND, deadline);
+        }
+
+        Phase phase() {
+            return currentPhase;
+        }
+
+        @Override
+        protected synchronized void onClientAdded(ServerThread sp) {
+            super.onClientAdded(sp);
+            added.incrementAndGet();
+        }
+
+        @Override
+        protected synchronized void onRoundStart() {
+            if (stopping) {
+                return;
+            }
+            long start = System.nanoTime();
+            super.onRoundStart();
+            if (inRoundEnd) {
+                nestedStartNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        protected synchronized void onRoundEnd() {
+            inRoundEnd = true;
+            nestedStartNanos = 0;
+            long start = System.nanoTime();
+            super.onRoundEnd();
+            roundEndNanos += System.nanoTime() - start - nestedStartNanos;
+            roundsEnded++;
+            inRoundEnd = false;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = DEFAULT_SIZES;
+        for (String arg : args) {
+            if (arg.startsWith("--sizes=")) {
+                String[] parts = arg.substring("--sizes=".length()).split(",");
+                sizes = new int[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    sizes[i] = Integer.parseInt(parts[i].trim());
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        DispatchBenchmark.quietLogging();
+        run(sizes);
+    }
+
+    /**
+     * Runs every room benchmark at each size (also used by BenchmarkSuite)
+     */
+    public static void run(int[] sizes) throws InterruptedException {
+        for (int n : sizes) {
+            System.out.println("Room size " + n);
+            benchRoom(n);
+            benchGameRoom(n);
+        }
+    }
+
+    public static void run() throws InterruptedException {
+        run(DEFAULT_SIZES);
+    }
+
+    private static FakeServerThread[] members(int n, long firstId) {
+        FakeServerThread[] members = new FakeServerThread[n];
+        for (int i = 0; i < n; i++) {
+            members[i] = new FakeServerThread(firstId + i);
+        }
+        return members;
+    }
+
+    private static void benchRoom(int n) {
+        FakeRoom room = new FakeRoom("bench-room-" + n);
+        FakeServerThread[] members = members(n, 1);
+        for (FakeServerThread member : members) {
+            room.join(member);
+        }
+        FakeServerThread sender = members[0];
+
+        Bench.run("room/relay/n=" + n, 1, () -> {
+            room.send(sender, "gg");
+            return sender.sent;
+        });
+
+        // the visitor parks in a lobby between joins like a real client would
+        FakeRoom lobby = new FakeRoom(Room.LOBBY);
+        FakeServerThread visitor = new FakeServerThread(n + 1);
+        lobby.join(visitor);
+        Bench.run("room/addClient+removeClient/n=" + n, 1, () -> {
+            lobby.leave(visitor);
+            room.join(visitor);
+            room.leave(visitor);
+            lobby.join(visitor);
+            return visitor.sent;
+        });
+    }
+
+    private static void benchGameRoom(int n) throws InterruptedException {
+        BenchGameRoom room = new BenchGameRoom("bench-game-" + n);
+        FakeServerThread[] members = members(n, 1);
+        for (FakeServerThread member : members) {
+            room.join(member);
+        }
+        // onClientAdded runs shortly after each join on the room's clock
+        long giveUp = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (room.added.get() < n) {
+            if (System.nanoTime() > giveUp) {
+                throw new IllegalStateException("Only " + room.added.get() + "/" + n + " clients were added");
+            }
+            Thread.sleep(50);
+        }
+        for (FakeServerThread member : members) {
+            room.ready(member);
+        }
+        if (room.phase() != Phase.IN_PROGRESS) {
+            throw new IllegalStateException("Session didn't start, phase is " + room.phase());
+        }
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        Bench.run("gameroom/sendTimerDeadline/n=" + n, 1, () -> {
+            room.deadline(deadline);
+            return members[0].sent;
+        });
+
+        // everyone throws rock so every battle ties and rounds never end the game
+        int picksPerBatch = Math.min(n, MAX_PICKS_PER_BATCH);
+        int[] cursor = { 0 };
+        Bench.run("gameroom/handleTurnAction/n=" + n, picksPerBatch, () -> {
+            for (int i = 0; i < picksPerBatch; i++) {
+                room.pick(members[cursor[0]], Choice.ROCK);
+                cursor[0] = (cursor[0] + 1) % n;
+            }
+            return members[0].sent;
+        });
+        // finish the partial round so the next one starts clean
+        while (cursor[0] != 0) {
+            room.pick(members[cursor[0]], Choice.ROCK);
+            cursor[0] = (cursor[0] + 1) % n;
+        }
+
+        long rounds = Math.max(3, Math.min(200, ROUND_SEND_BUDGET / ((long) n * n)));
+        room.roundEndNanos = 0;
+        room.roundsEnded = 0;
+        for (long r = 0; r < rounds; r++) {
+            if (r == rounds - 1) {
+                room.stopping = true;
+            }
+            for (FakeServerThread member : members) {
+                room.pick(member, Choice.ROCK);
+            }
+        }
+        Bench.record("gameroom/onRoundEnd/n=" + n, (double) room.roundEndNanos / room.roundsEnded, "ns/op");
+    }
+}
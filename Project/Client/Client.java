@@ -5,11 +5,15 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -23,24 +27,36 @@ import Project.Client.Interfaces.IPhaseEvent;
 import Project.Client.Interfaces.IPointsEvent;
 import Project.Client.Interfaces.IReadyEvent;
 import Project.Client.Interfaces.IRoomEvents;
+import Project.Client.Interfaces.IRoundEvents;
 import Project.Client.Interfaces.ITimeEvents;
 import Project.Client.Interfaces.ITurnEvent;
+import Project.Common.Choice;
+import Project.Common.ClockSync;
+import Project.Common.ClockSyncPayload;
 import Project.Common.Command;
+import Project.Common.ConcurrentLongMap;
 import Project.Common.ConnectionPayload;
 import Project.Common.Constants;
+import Project.Common.DictionaryObjectInputStream;
+import Project.Common.DictionaryObjectOutputStream;
 import Project.Common.LoggerUtil;
 import Project.Common.Payload;
 import Project.Common.PayloadType;
 import Project.Common.Phase;
+import Project.Common.PlayerStatus;
 import Project.Common.PointsPayload;
 import Project.Common.ReadyPayload;
 import Project.Common.RoomAction;
 import Project.Common.RoomResultPayload;
+import Project.Common.RoundResultPayload;
+import Project.Common.StatusDeltaPayload;
 import Project.Common.TextFX;
+import Project.Common.TraceBuffer;
 import Project.Common.User;
 import Project.Server.GameRoom;
 import Project.Common.TextFX.Color;
 import Project.Common.TimerPayload;
+import Project.Common.TimerType;
 import Project.Client.Views.PlayView;
 
 /**
@@ -66,9 +82,24 @@ public enum Client implements IReadyEvent {
             .compile("/connect\\s+(\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}:\\d{3,5})");
     final Pattern localhostPattern = Pattern.compile("/connect\\s+(localhost:\\d{3,5})");
     private volatile boolean isRunning = true; // volatile for thread-safe visibility
-    private final ConcurrentHashMap<Long, User> knownClients = new ConcurrentHashMap<Long, User>();
+    private final ConcurrentLongMap<User> knownClients = new ConcurrentLongMap<User>();
     private User myUser = new User();
+    // server clock minus local clock; fallback until the first clock sync reply
+    private volatile long serverClockOffset = 0;
+    private final ClockSync clockSync = new ClockSync(CLOCK_SYNC_WINDOW);
+    private static final int CLOCK_SYNC_WINDOW = 8;
+    private static final long CLOCK_SYNC_BURST_INTERVAL_MS = 100;
+    private static final long CLOCK_SYNC_REFRESH_MS = 15_000;
+    private final ScheduledExecutorService clockSyncScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ClockSync");
+        t.setDaemon(true);
+        return t;
+    });
+    private ScheduledFuture<?> clockSyncTask = null;
+    private int clockSyncSent = 0;
     private Phase currentPhase = Phase.READY;
+    // sampled request spans, written when the connection closes (see TraceReport)
+    private static final String TRACE_FILE = "client-traces.tsv";
 
     public long getClientId() {
         return myUser != null ? myUser.getClientId() : Project.Common.Constants.DEFAULT_CLIENT_ID;
@@ -87,6 +118,7 @@ public enum Client implements IReadyEvent {
     // needs to be private now that the enum logic is handling this
     private Client() {
         LoggerUtil.INSTANCE.info("Client Created");
+        TraceBuffer.INSTANCE.setProcessName("client");
     }
 
     public void registerCallback(IClientEvents e) {
@@ -133,9 +165,9 @@ public enum Client implements IReadyEvent {
         try {
             server = new Socket(address, port);
             // channel to send to server
-            out = new ObjectOutputStream(server.getOutputStream());
+            out = new DictionaryObjectOutputStream(server.getOutputStream());
             // channel to listen to server
-            in = new ObjectInputStream(server.getInputStream());
+            in = new DictionaryObjectInputStream(server.getInputStream());
             LoggerUtil.INSTANCE.info("Client connected");
             // Use CompletableFuture to run listenToServer() in a separate thread
             CompletableFuture.runAsync(this::listenToServer);
@@ -160,9 +192,9 @@ public enum Client implements IReadyEvent {
         try {
             server = new Socket(address, port);
             // channel to send to server
-            out = new ObjectOutputStream(server.getOutputStream());
+            out = new DictionaryObjectOutputStream(server.getOutputStream());
             // channel to listen to server
-            in = new ObjectInputStream(server.getInputStream());
+            in = new DictionaryObjectInputStream(server.getInputStream());
             LoggerUtil.INSTANCE.info("Client connected");
             // Use CompletableFuture to run listenToServer() in a separate thread
             CompletableFuture.runAsync(this::listenToServer);
@@ -306,16 +338,17 @@ public enum Client implements IReadyEvent {
             // make a choice.
             else if (text.startsWith(Command.PICK.command)) {
 
-                String choice = text.replace(Command.PICK.command, "").trim().toLowerCase();
+                Choice choice = Choice.fromWire(text.replace(Command.PICK.command, ""));
 
                 if (myUser.isEliminated()) {
                     LoggerUtil.INSTANCE.warning(TextFX.colorize("You are eliminated and cannot pick.", Color.RED));
                     return true;
                 }
 
-                if (!choice.matches("[rps]")) {
-                    LoggerUtil.INSTANCE
-                            .warning(TextFX.colorize("Invalid pick. Use /pick r, /pick p, or /pick s", Color.RED));
+                if (choice == null || !choice.isAllowed(isExtraOptionsEnabled())) {
+                    LoggerUtil.INSTANCE.warning(TextFX.colorize(isExtraOptionsEnabled()
+                            ? "Invalid pick. Use /pick r, /pick p, /pick s, /pick f, or /pick w"
+                            : "Invalid pick. Use /pick r, /pick p, or /pick s", Color.RED));
                     return true;
                 }
 
@@ -335,6 +368,8 @@ public enum Client implements IReadyEvent {
         rp.setPayloadType(PayloadType.TURN);
         rp.setReady(true); // <- technically not needed as we'll use the payload type as a trigger
         rp.setMessage(text);
+        // the pick buttons send through here; sample them like /pick
+        rp.setTraceId(TraceBuffer.INSTANCE.newTraceId());
         sendToServer(rp);
     }
 
@@ -353,10 +388,11 @@ public enum Client implements IReadyEvent {
         sendToServer(rp);
     }
 
-    private void sendPickChoice(String choice) throws IOException {
+    private void sendPickChoice(Choice choice) throws IOException {
         Payload payload = new Payload();
         payload.setPayloadType(PayloadType.TURN); // You are already using TURN for player actions
-        payload.setMessage(choice); // This will be 'r', 'p', or 's'
+        payload.setMessage(choice.toWire()); // single-letter code, parsed once by the server
+        payload.setTraceId(TraceBuffer.INSTANCE.newTraceId());
         sendToServer(payload);
     }
 
@@ -429,6 +465,7 @@ public enum Client implements IReadyEvent {
         Payload payload = new Payload();
         payload.setMessage(message);
         payload.setPayloadType(PayloadType.MESSAGE);
+        payload.setTraceId(TraceBuffer.INSTANCE.newTraceId());
         sendToServer(payload);
     }
 
@@ -445,10 +482,14 @@ public enum Client implements IReadyEvent {
         sendToServer(payload);
     }
 
-    private void sendToServer(Payload payload) throws IOException {
+    // synchronized as the clock sync thread sends alongside the UI/console
+    private synchronized void sendToServer(Payload payload) throws IOException {
         if (isConnected()) {
+            long start = System.nanoTime();
             out.writeObject(payload);
             out.flush(); // good practice to ensure data is written out immediately
+            TraceBuffer.INSTANCE.record(payload.getTraceId(), TraceBuffer.CLIENT_SEND, start, System.nanoTime(),
+                    getClientId());
         } else {
             LoggerUtil.INSTANCE.warning(
                     "Not connected to server (hint: type `/connect host:port` without the quotes and replace host/port with the necessary info)");
@@ -474,7 +515,11 @@ public enum Client implements IReadyEvent {
             while (isRunning && isConnected()) {
                 Payload fromServer = (Payload) in.readObject(); // blocking read
                 if (fromServer != null) {
+                    long start = System.nanoTime();
                     processPayload(fromServer);
+                    // handled and passed on to the UI
+                    TraceBuffer.INSTANCE.record(fromServer.getTraceId(), TraceBuffer.CLIENT_RENDER, start,
+                            System.nanoTime(), getClientId());
 
                 } else {
                     LoggerUtil.INSTANCE.info("Server disconnected");
@@ -556,17 +601,20 @@ public enum Client implements IReadyEvent {
             case PayloadType.GAME_EVENT:
                 processGameEvent(payload);
                 break;
+            case PayloadType.ROUND_RESULT:
+                processRoundResult(payload);
+                break;
+            case PayloadType.CLOCK_SYNC:
+                processClockSync(payload);
+                break;
+            case PayloadType.STATUS_DELTA:
+                processStatusDelta(payload);
+                break;
             // UCID: gb373 Date: 07/09/2025 Summary: Added PENDING_PICK to handle pending
             // pick actions to the client.
             case PayloadType.PENDING_PICK:
                 if (payload instanceof Payload pp) {
-                    long clientId = pp.getClientId();
-                    boolean isPending = Boolean.parseBoolean(pp.getMessage());
-                    passToUICallback(IPointsEvent.class, e -> {
-                        if (e instanceof IPointsEvent) {
-                            ((IPointsEvent) e).onPendingPick(clientId, isPending);
-                        }
-                    });
+                    applyPending(pp.getClientId(), Boolean.parseBoolean(pp.getMessage()));
                 } else {
                     LoggerUtil.INSTANCE.warning("Received PENDING_PICK payload that is not of type Payload");
                 }
@@ -575,13 +623,7 @@ public enum Client implements IReadyEvent {
             // status updates to the client.
             case PayloadType.ELIMINATED:
                 if (payload instanceof Payload ep) {
-                    long clientId = ep.getClientId();
-                    boolean isEliminated = Boolean.parseBoolean(ep.getMessage());
-                    passToUICallback(IPointsEvent.class, e -> {
-                        if (e instanceof IPointsEvent) {
-                            ((IPointsEvent) e).onEliminationStatus(clientId, isEliminated);
-                        }
-                    });
+                    applyEliminationStatus(ep.getClientId(), Boolean.parseBoolean(ep.getMessage()));
                 } else {
                     LoggerUtil.INSTANCE.warning("Received ELIMINATED payload that is not of type Payload");
                 }
@@ -636,16 +678,9 @@ public enum Client implements IReadyEvent {
                     }
                 });
                 break;
-            case AWAY_UPDATE: {
-                long clientId = payload.getClientId();
-                boolean isAway = Boolean.parseBoolean(payload.getMessage());
-                User user = knownClients.get(clientId);
-                if (user != null) {
-                    user.setAway(isAway);
-                }
-                passToUICallback(IGameEvents.class, e -> e.onAwayStatusChange(clientId, isAway));
+            case AWAY_UPDATE:
+                applyAway(payload.getClientId(), Boolean.parseBoolean(payload.getMessage()));
                 break;
-            }
 
             case AWAY_TOGGLE: {
                 boolean isAwayToggle = Boolean.parseBoolean(payload.getMessage());
@@ -738,8 +773,82 @@ public enum Client implements IReadyEvent {
             return;
         }
         TimerPayload timerPayload = (TimerPayload) payload;
+        TimerType timerType = timerPayload.getTimerType();
+        if (timerPayload.isCancelled()) {
+            passToUICallback(ITimeEvents.class, e -> e.onTimerUpdate(timerType, -1));
+            return;
+        }
+        // single-sample fallback (treats the one-way trip as instantaneous) until
+        // clock sync has an estimate
+        serverClockOffset = timerPayload.getServerTime() - System.currentTimeMillis();
+        long localDeadline = timerPayload.getDeadline() - getServerClockOffset();
+        passToUICallback(ITimeEvents.class, e -> e.onTimerDeadline(timerType, localDeadline));
+    }
 
-        passToUICallback(ITimeEvents.class, e -> e.onTimerUpdate(timerPayload.getTimerType(), timerPayload.getTime()));
+    /**
+     * @return estimated server clock minus local clock in millis
+     */
+    public long getServerClockOffset() {
+        return clockSync.hasEstimate() ? clockSync.getOffset() : serverClockOffset;
+    }
+
+    /**
+     * @return estimated round trip to the server in millis or -1 if unknown
+     */
+    public long getRoundTripTime() {
+        return clockSync.getRoundTripTime();
+    }
+
+    /**
+     * Starts the clock sync exchange: a quick burst of samples right after
+     * CLIENT_ID, then one sample per refresh interval (the estimate uses the
+     * lowest-rtt sample in the window)
+     */
+    private synchronized void startClockSync() {
+        stopClockSync();
+        clockSync.reset();
+        clockSyncSent = 0;
+        scheduleClockSync(0);
+    }
+
+    private synchronized void scheduleClockSync(long delayMs) {
+        clockSyncTask = clockSyncScheduler.schedule(() -> {
+            if (!isConnected()) {
+                return;
+            }
+            ClockSyncPayload sync = new ClockSyncPayload();
+            sync.setClientId(getClientId());
+            sync.setReported(clockSync.getOffset(), clockSync.getRoundTripTime());
+            sync.setT0(System.currentTimeMillis());
+            try {
+                sendToServer(sync);
+            } catch (IOException e) {
+                LoggerUtil.INSTANCE.warning("Clock sync send failed");
+                return;
+            }
+            clockSyncSent++;
+            scheduleClockSync(clockSyncSent < CLOCK_SYNC_WINDOW ? CLOCK_SYNC_BURST_INTERVAL_MS
+                    : CLOCK_SYNC_REFRESH_MS);
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopClockSync() {
+        if (clockSyncTask != null) {
+            clockSyncTask.cancel(false);
+            clockSyncTask = null;
+        }
+    }
+
+    private void processClockSync(Payload payload) {
+        long t3 = System.currentTimeMillis();
+        if (!(payload instanceof ClockSyncPayload)) {
+            error("Invalid payload subclass for processClockSync");
+            return;
+        }
+        ClockSyncPayload sync = (ClockSyncPayload) payload;
+        clockSync.addSample(sync.getT0(), sync.getT1(), sync.getT2(), t3);
+        // record spans on the server's clock so they line up with its own
+        TraceBuffer.INSTANCE.setClockOffsetMillis(clockSync.getOffset());
     }
 
     private void processResetTurn() {
@@ -763,6 +872,101 @@ public enum Client implements IReadyEvent {
         clientSideGameEvent(message);
     }
 
+    /**
+     * Applies a round summary to the known clients (eliminations and points) and
+     * hands it to the UI to render
+     */
+    private void processRoundResult(Payload payload) {
+        if (!(payload instanceof RoundResultPayload)) {
+            error("Invalid payload subclass for processRoundResult");
+            return;
+        }
+        RoundResultPayload result = (RoundResultPayload) payload;
+        for (long clientId : result.getSkipped()) {
+            applyEliminationStatus(clientId, true);
+        }
+        for (long clientId : result.getEliminated()) {
+            applyEliminationStatus(clientId, true);
+        }
+        long[] pointIds = result.getPointIds();
+        int[] points = result.getPoints();
+        for (int i = 0; i < pointIds.length; i++) {
+            long clientId = pointIds[i];
+            int value = points[i];
+            User user = knownClients.get(clientId);
+            if (user != null) {
+                user.setPoints(value);
+            }
+            passToUICallback(IPointsEvent.class, e -> e.onPointsUpdate(clientId, value));
+        }
+        for (String line : result.describe(this::getDisplayNameFromId)) {
+            LoggerUtil.INSTANCE.info(TextFX.colorize(line, Color.GREEN));
+        }
+        passToUICallback(IRoundEvents.class, e -> e.onRoundResult(result));
+    }
+
+    /**
+     * Applies every entry of a STATUS_DELTA through the same handlers the
+     * individual status payloads use
+     */
+    private void processStatusDelta(Payload payload) {
+        if (!(payload instanceof StatusDeltaPayload)) {
+            error("Invalid payload subclass for processStatusDelta");
+            return;
+        }
+        StatusDeltaPayload delta = (StatusDeltaPayload) payload;
+        for (int i = 0; i < delta.getCount(); i++) {
+            long clientId = delta.getClientId(i);
+            boolean isQuiet = delta.isQuiet(i);
+            if (delta.changed(i, PlayerStatus.READY)) {
+                applyReady(clientId, delta.has(i, PlayerStatus.READY), isQuiet);
+            }
+            if (delta.changed(i, PlayerStatus.SPECTATOR)) {
+                updateSpectatorDisplay(clientId, delta.has(i, PlayerStatus.SPECTATOR));
+            }
+            if (delta.changed(i, PlayerStatus.AWAY)) {
+                applyAway(clientId, delta.has(i, PlayerStatus.AWAY));
+            }
+            if (delta.changed(i, PlayerStatus.ELIMINATED)) {
+                applyEliminationStatus(clientId, delta.has(i, PlayerStatus.ELIMINATED));
+            }
+            if (delta.changed(i, PlayerStatus.TOOK_TURN)) {
+                applyTurn(clientId, delta.has(i, PlayerStatus.TOOK_TURN), isQuiet);
+            }
+            if (delta.changed(i, PlayerStatus.PENDING)) {
+                applyPending(clientId, delta.has(i, PlayerStatus.PENDING));
+            }
+        }
+    }
+
+    private void applyPending(long clientId, boolean isPending) {
+        passToUICallback(IPointsEvent.class, e -> {
+            if (e instanceof IPointsEvent) {
+                ((IPointsEvent) e).onPendingPick(clientId, isPending);
+            }
+        });
+    }
+
+    private void applyEliminationStatus(long clientId, boolean isEliminated) {
+        User user = knownClients.get(clientId);
+        if (user != null) {
+            user.setEliminated(isEliminated);
+        }
+        passToUICallback(IPointsEvent.class, e -> {
+            if (e instanceof IPointsEvent) {
+                ((IPointsEvent) e).onEliminationStatus(clientId, isEliminated);
+            }
+        });
+    }
+
+    private void applyAway(long clientId, boolean isAway) {
+        User user = knownClients.get(clientId);
+        if (user != null) {
+            user.setAway(isAway);
+        }
+        passToUICallback(IGameEvents.class, e -> e.onAwayStatusChange(clientId, isAway));
+    }
+
     // UCID: gb373
     // Date: 07/10/2025
     // Summary: Processes the turn action from the client, checking if the player is
@@ -774,14 +978,18 @@ public enum Client implements IReadyEvent {
             return;
         }
         ReadyPayload rp = (ReadyPayload) payload;
-        if (!knownClients.containsKey(rp.getClientId())) {
+        applyTurn(rp.getClientId(), rp.isReady(), payload.getPayloadType() == PayloadType.SYNC_TURN);
+    }
+
+    private void applyTurn(long clientId, boolean tookTurn, boolean isQuiet) {
+        if (!knownClients.containsKey(clientId)) {
             LoggerUtil.INSTANCE.severe(String.format("Received turn status for client id %s who is not known",
-                    rp.getClientId()));
+                    clientId));
             return;
         }
-        User cp = knownClients.get(rp.getClientId());
-        cp.setTookTurn(rp.isReady());
-        if (payload.getPayloadType() != PayloadType.SYNC_TURN) {
+        User cp = knownClients.get(clientId);
+        cp.setTookTurn(tookTurn);
+        if (!isQuiet) {
             String message = String.format("%s %s their turn", cp.getDisplayName(),
                     cp.didTakeTurn() ? "took" : "reset");
             LoggerUtil.INSTANCE.info(message);
@@ -835,17 +1043,21 @@ public enum Client implements IReadyEvent {
             return;
         }
         ReadyPayload rp = (ReadyPayload) payload;
-        if (!knownClients.containsKey(rp.getClientId())) {
+        applyReady(rp.getClientId(), rp.isReady(), isQuiet);
+    }
+
+    private void applyReady(long clientId, boolean isReady, boolean isQuiet) {
+        if (!knownClients.containsKey(clientId)) {
             LoggerUtil.INSTANCE.severe(String.format("Received ready status [%s] for client id %s who is not known",
-                    rp.isReady() ? "ready" : "not ready", rp.getClientId()));
+                    isReady ? "ready" : "not ready", clientId));
             return;
         }
-        User cp = knownClients.get(rp.getClientId());
-        cp.setReady(rp.isReady());
+        User cp = knownClients.get(clientId);
+        cp.setReady(isReady);
         if (!isQuiet) {
             System.out.println(
                     String.format("%s is %s", cp.getDisplayName(),
-                            rp.isReady() ? "ready" : "not ready"));
+                            isReady ? "ready" : "not ready"));
         }
 
         passToUICallback(IReadyEvent.class, e -> e.onReceiveReady(cp.getClientId(), cp.isReady(), isQuiet));
@@ -883,6 +1095,7 @@ public enum Client implements IReadyEvent {
         LoggerUtil.INSTANCE.info(TextFX.colorize("Connected", Color.GREEN));
 
         passToUICallback(IConnectionEvents.class, e -> e.onReceiveClientId(myUser.getClientId()));
+        startClockSync();
     }
 
     private void processDisconnect(Payload payload) {
@@ -1016,6 +1229,14 @@ public enum Client implements IReadyEvent {
      * Closes the server connection and associated resources
      */
     private void closeServerConnection() {
+        stopClockSync();
+        try {
+            if (TraceBuffer.INSTANCE.exportTo(Path.of(TRACE_FILE))) {
+                LoggerUtil.INSTANCE.info("Wrote request traces to " + TRACE_FILE);
+            }
+        } catch (IOException e) {
+            LoggerUtil.INSTANCE.warning("Couldn't write " + TRACE_FILE, e);
+        }
         try {
             if (out != null) {
                 LoggerUtil.INSTANCE.info("Closing output stream");
@@ -1055,11 +1276,12 @@ public enum Client implements IReadyEvent {
         }
     }
 
+    /**
+     * Sends a payload built by a view; shares sendToServer()'s lock with the
+     * clock sync thread
+     */
     public void sendPayload(Payload payload) throws IOException {
-        if (out != null) {
-            out.writeObject(payload);
-            out.flush();
-        }
+        sendToServer(payload);
     }
 
     public void sendToggleExtraOptions(boolean enabled) throws IOException {
@@ -1131,13 +1353,13 @@ public enum Client implements IReadyEvent {
         return choiceCooldownEnabled;
     }
 
-    private String lastChoice = null;
+    private Choice lastChoice = null;
 
-    public void setLastChoice(String choice) {
+    public void setLastChoice(Choice choice) {
         this.lastChoice = choice;
     }
 
-    public String getLastChoice() {
+    public Choice getLastChoice() {
         return lastChoice;
     }
 
@@ -0,0 +1,12 @@
+package Project.Client.Interfaces;
+
+import Project.Common.RoundResultPayload;
+
+public interface IRoundEvents extends IGameEvents {
+    /**
+     * Receives the summary of a resolved round (pairings, eliminations, points)
+     * 
+     * @param result
+     */
+    void onRoundResult(RoundResultPayload result);
+}
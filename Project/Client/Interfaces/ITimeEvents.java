@@ -10,4 +10,13 @@ public interface ITimeEvents extends IGameEvents {
      * @param time      The time (use -1 to reset/cancel/stop)
      */
     void onTimerUpdate(TimerType timerType, int time);
+
+    /**
+     * A timer started or was extended; count down locally until the deadline
+     * 
+     * @param timerType     The specifc timer
+     * @param localDeadline expiry converted to this client's
+     *                      System.currentTimeMillis() clock
+     */
+    void onTimerDeadline(TimerType timerType, long localDeadline);
 }
\ No newline at end of file
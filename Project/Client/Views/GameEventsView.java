@@ -22,16 +22,22 @@ import Project.Client.Client;
 import Project.Client.Interfaces.IMessageEvents;
 import Project.Client.Interfaces.IPhaseEvent;
 import Project.Client.Interfaces.IReadyEvent;
+import Project.Client.Interfaces.IRoundEvents;
 import Project.Client.Interfaces.ITimeEvents;
 import Project.Common.Constants;
 import Project.Common.Phase;
+import Project.Common.RoundResultPayload;
 import Project.Common.TimerType;
 
-public class GameEventsView extends JPanel implements IPhaseEvent, IReadyEvent, IMessageEvents, ITimeEvents {
+public class GameEventsView extends JPanel implements IPhaseEvent, IReadyEvent, IMessageEvents, ITimeEvents, IRoundEvents {
     private final JPanel content;
     private final boolean debugMode = true; // Set this to false to disable debugging styling
     private final JLabel timerText;
     private final GridBagConstraints gbcGlue = new GridBagConstraints();
+    // local countdown driven by the server's deadline (no per-second payloads)
+    private final javax.swing.Timer countdown;
+    private TimerType countdownType = null;
+    private long countdownDeadline = 0;
 
     public GameEventsView() {
         super(new BorderLayout(10, 10));
@@ -62,6 +68,7 @@ public class GameEventsView extends JPanel implements IPhaseEvent, IReadyEvent,
         timerText = new JLabel();
         this.add(timerText, BorderLayout.NORTH);
         timerText.setVisible(false);
+        countdown = new javax.swing.Timer(250, e -> renderCountdown());
         Client.INSTANCE.registerCallback(this);
         // UCID: gb373
         // Date: 07/28/2025
@@ -144,14 +151,51 @@ public class GameEventsView extends JPanel implements IPhaseEvent, IReadyEvent,
         }
     }
 
+    @Override
+    public void onRoundResult(RoundResultPayload result) {
+        // rendered locally from the structured summary
+        for (String line : result.describe(Client.INSTANCE::getDisplayNameFromId)) {
+            addText(line);
+        }
+    }
+
     @Override
     public void onTimerUpdate(TimerType timerType, int time) {
-        if (time >= 0) {
-            timerText.setText(String.format("%s timer: %s", timerType.name(), time));
-        } else {
-            timerText.setText(" ");
+        SwingUtilities.invokeLater(() -> {
+            if (time < 0 && timerType == countdownType) {
+                countdown.stop();
+                countdownType = null;
+            }
+            if (time >= 0) {
+                timerText.setText(String.format("%s timer: %s", timerType.name(), time));
+            } else {
+                timerText.setText(" ");
+            }
+            timerText.setVisible(true);
+        });
+    }
+
+    @Override
+    public void onTimerDeadline(TimerType timerType, long localDeadline) {
+        SwingUtilities.invokeLater(() -> {
+            countdownType = timerType;
+            countdownDeadline = localDeadline;
+            renderCountdown();
+            countdown.restart();
+        });
+    }
+
+    private void renderCountdown() {
+        if (countdownType == null) {
+            countdown.stop();
+            return;
         }
+        long remaining = Math.max(0, (countdownDeadline - System.currentTimeMillis() + 999) / 1000);
+        timerText.setText(String.format("%s timer: %s", countdownType.name(), remaining));
         timerText.setVisible(true);
+        if (remaining == 0) {
+            countdown.stop();
+        }
     }
 
     @Override
@@ -4,6 +4,7 @@ import javax.swing.JPanel;
 import javax.swing.JButton;
 import Project.Client.Client;
 import java.io.IOException;
+import Project.Common.Choice;
 import Project.Common.Phase;
 
 //UCID: gb373
@@ -28,11 +29,11 @@ public class PlayView extends JPanel {
         this.add(fireButton);
         this.add(waterButton);
 
-        rockButton.addActionListener(e -> sendPick("r"));
-        paperButton.addActionListener(e -> sendPick("p"));
-        scissorsButton.addActionListener(e -> sendPick("s"));
-        fireButton.addActionListener(e -> sendPick("f"));
-        waterButton.addActionListener(e -> sendPick("w"));
+        rockButton.addActionListener(e -> sendPick(Choice.ROCK));
+        paperButton.addActionListener(e -> sendPick(Choice.PAPER));
+        scissorsButton.addActionListener(e -> sendPick(Choice.SCISSORS));
+        fireButton.addActionListener(e -> sendPick(Choice.FIRE));
+        waterButton.addActionListener(e -> sendPick(Choice.WATER));
 
         setButtonsVisible(false);
     }
@@ -66,13 +67,13 @@ public class PlayView extends JPanel {
             highlightSelectedButton(Client.INSTANCE.getLastChoice());
         }
     }
-    private void sendPick(String choice) {
+    private void sendPick(Choice choice) {
         try {
             Client.INSTANCE.setLastChoice(choice);
             if (Client.INSTANCE.isChoiceCooldownEnabled()) {
                 highlightSelectedButton(choice);
             }
-            Client.INSTANCE.sendDoTurn(choice);
+            Client.INSTANCE.sendDoTurn(choice.toWire());
         } catch (IOException ex) {
             ex.printStackTrace();
         }
@@ -86,15 +87,15 @@ public class PlayView extends JPanel {
     // Has Extra Options: Fire and Water
     // The cooldown feature is enabled, it will disable the buttons for the
     // selected choice for one turn.
-    private void highlightSelectedButton(String choice) {
+    private void highlightSelectedButton(Choice choice) {
         if (!Client.INSTANCE.isChoiceCooldownEnabled())
             return;
 
-        rockButton.setEnabled(!"r".equals(choice));
-        paperButton.setEnabled(!"p".equals(choice));
-        scissorsButton.setEnabled(!"s".equals(choice));
-        fireButton.setEnabled(!"f".equals(choice));
-        waterButton.setEnabled(!"w".equals(choice));
+        rockButton.setEnabled(choice != Choice.ROCK);
+        paperButton.setEnabled(choice != Choice.PAPER);
+        scissorsButton.setEnabled(choice != Choice.SCISSORS);
+        fireButton.setEnabled(choice != Choice.FIRE);
+        waterButton.setEnabled(choice != Choice.WATER);
     }
 
     public void changePhase(Phase phase) {
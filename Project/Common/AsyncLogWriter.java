@@ -0,0 +1,196 @@
+package Project.Common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import Project.Common.LoggerUtil.OverflowPolicy;
+
+/**
+ * Background writer for LoggerUtil's async mode: log calls only put the record
+ * in an MpscRing, and one daemon thread formats it and hands it to the
+ * handlers, so file and console IO stays off the network threads.
+ * <p>
+ * The handlers belong to this writer rather than to a java.util.logging
+ * Logger, so LogManager's own shutdown hook can't close them while records are
+ * still queued; close() drains the ring first.
+ * </p>
+ */
+final class AsyncLogWriter implements Runnable {
+    // how long an idle writer sleeps before re-checking (offer() also wakes it)
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    // how long a blocked caller waits before retrying a full ring
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final MpscRing<LogRecord> ring;
+    private final Handler[] handlers;
+    // changeable at runtime (LoggerUtil.setOverflowPolicy)
+    private volatile OverflowPolicy policy;
+    private volatile int sampleRate;
+    // SAMPLE starts thinning records below WARNING at this queue size
+    private final int sampleThreshold;
+    private final Thread thread;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private final AtomicLong blocked = new AtomicLong();
+    private final AtomicLong sampleTick = new AtomicLong();
+    private volatile long written = 0;
+    private volatile boolean idle = false;
+    private volatile boolean running = true;
+
+    AsyncLogWriter(Handler[] handlers, int capacity, OverflowPolicy policy, int sampleRate) {
+        this.ring = new MpscRing<>(capacity);
+        this.handlers = handlers;
+        this.policy = policy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.sampleThreshold = ring.capacity() - ring.capacity() / 4;
+        this.thread = new Thread(this, "LoggerUtil-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void setPolicy(OverflowPolicy policy, int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+        this.policy = policy;
+    }
+
+    OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Queues record according to the overflow policy; called on the logging
+     * thread
+     */
+    void offer(LogRecord record) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (policy == OverflowPolicy.SAMPLE && record.getLevel().intValue() < Level.WARNING.intValue()
+                && ring.size() >= sampleThreshold && sampleTick.incrementAndGet() % sampleRate != 0) {
+            sampledOut.incrementAndGet();
+            return;
+        }
+        if (!ring.offer(record)) {
+            if (policy != OverflowPolicy.BLOCK) {
+                dropped.incrementAndGet();
+                return;
+            }
+            blocked.incrementAndGet();
+            do {
+                if (!running) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                LockSupport.unpark(thread);
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+            } while (!ring.offer(record));
+        }
+        enqueued.incrementAndGet();
+        if (idle) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            if (!drain()) {
+                // re-check after raising the flag so an offer() that missed it
+                // is still seen before parking
+                idle = true;
+                if (!drain()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle = false;
+            }
+        }
+    }
+
+    /**
+     * @return true if anything was written
+     */
+    private synchronized boolean drain() {
+        LogRecord record = ring.poll();
+        if (record == null) {
+            return false;
+        }
+        do {
+            publish(record);
+            written++;
+        } while ((record = ring.poll()) != null);
+        for (Handler handler : handlers) {
+            handler.flush();
+        }
+        return true;
+    }
+
+    private void publish(LogRecord record) {
+        for (Handler handler : handlers) {
+            handler.publish(record);
+        }
+    }
+
+    /**
+     * Waits until every record queued before the call has been written
+     */
+    void flush() {
+        long target = enqueued.get();
+        while (written < target && thread.isAlive()) {
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Stops the writer, writes whatever is still queued and closes the
+     * handlers; later records are counted as dropped
+     */
+    void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+        for (Handler handler : handlers) {
+            handler.close();
+        }
+    }
+
+    long getEnqueued() {
+        return enqueued.get();
+    }
+
+    long getWritten() {
+        return written;
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    long getSampledOut() {
+        return sampledOut.get();
+    }
+
+    long getBlocked() {
+        return blocked.get();
+    }
+
+    int getQueued() {
+        return ring.size();
+    }
+}
@@ -0,0 +1,285 @@
+package Project.Common;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.stream.Stream;
+
+/**
+ * Log sink that writes fixed-layout binary records (no text formatting, no
+ * ANSI colors) to memory-mapped files; BinaryLogReader renders or filters them
+ * offline.
+ * <p>
+ * Writing a record is a handful of puts into the mapped buffer: the format
+ * string and source class of a call are written once per file as STRING
+ * records and then referenced by id, and arguments keep their type (a long is
+ * 8 bytes, not its decimal text). Pages are flushed by the OS, so records
+ * written before a crash are still in the file.
+ * </p>
+ * <p>
+ * Files are named &lt;base&gt;-&lt;generation&gt;.blog. Each is pre-sized to
+ * fileSize and a new generation starts when the current one is full; only the
+ * newest fileCount generations are kept. Every file starts with a header and
+ * its own string table, so each can be decoded alone. A zero record length
+ * marks the end of the written data.
+ * </p>
+ */
+public class BinaryLogHandler extends Handler {
+    static final int MAGIC = 0x52505342; // "RPSB"
+    static final byte VERSION = 1;
+    // magic, version, 3 padding bytes, generation, creation time
+    static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+    static final String EXTENSION = ".blog";
+
+    // record kinds
+    static final byte KIND_STRING = 1;
+    static final byte KIND_EVENT = 2;
+
+    // argument tags
+    static final byte ARG_NULL = 'N';
+    static final byte ARG_LONG = 'L';
+    static final byte ARG_DOUBLE = 'D';
+    static final byte ARG_BOOLEAN = 'Z';
+    static final byte ARG_CHAR = 'C';
+    static final byte ARG_STRING = 'S';
+    // the formatted stack trace of the record's Throwable
+    static final byte ARG_THROWN = 'T';
+
+    // event id 0: no format string, the message is the first argument
+    static final int RAW_EVENT = 0;
+    // source id 0: unknown caller
+    static final int NO_SOURCE = 0;
+
+    static final int MIN_FILE_SIZE = 1024 * 1024;
+    // keeps the largest possible record well below MIN_FILE_SIZE
+    static final int MAX_ARGS = 16;
+    static final int MAX_STRING_CHARS = 8192;
+    // interned format strings and sources per file; bounds the HashMap when
+    // callers pass arbitrary formats
+    private static final int MAX_STRINGS = 4096;
+    // length, kind, time, level, thread, event, source, arg count
+    private static final int EVENT_FIXED_SIZE = 4 + 1 + 8 + 4 + 8 + 4 + 4 + 1;
+
+    private final String base;
+    private final int fileSize;
+    private final int fileCount;
+    private final int stackTraceLimit;
+    private final HashMap<String, Integer> strings = new HashMap<>();
+    private MappedByteBuffer buffer;
+    private long generation;
+
+    /**
+     * @param base            path prefix, e.g. "server" for server-1.blog
+     * @param fileSize        bytes per file (at least MIN_FILE_SIZE)
+     * @param fileCount       generations to keep
+     * @param stackTraceLimit stack frames kept per Throwable
+     * @throws IOException if the first file can't be created
+     */
+    public BinaryLogHandler(String base, int fileSize, int fileCount, int stackTraceLimit) throws IOException {
+        this.base = base;
+        this.fileSize = Math.max(MIN_FILE_SIZE, fileSize);
+        this.fileCount = Math.max(1, fileCount);
+        this.stackTraceLimit = stackTraceLimit;
+        // never append to an earlier run's files: continue after the newest
+        this.generation = newestGeneration(Path.of(base));
+        rotate();
+    }
+
+    static Path pathFor(String base, long generation) {
+        return Path.of(base + "-" + generation + EXTENSION);
+    }
+
+    /**
+     * @return the generation number in a file name written by this handler, or
+     *         -1 if it isn't one
+     */
+    static long generationOf(Path file, String prefix) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(prefix + "-") || !name.endsWith(EXTENSION)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length() + 1, name.length() - EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long newestGeneration(Path base) throws IOException {
+        Path dir = base.toAbsolutePath().getParent();
+        String prefix = base.getFileName().toString();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.mapToLong(file -> generationOf(file, prefix)).filter(g -> g >= 0).max().orElse(0);
+        }
+    }
+
+    private void rotate() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        generation++;
+        Path path = pathFor(base, generation);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // the mapping outlives the channel
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        }
+        buffer.putInt(MAGIC).put(VERSION).put((byte) 0).put((byte) 0).put((byte) 0);
+        buffer.putLong(generation).putLong(System.currentTimeMillis());
+        strings.clear();
+        Files.deleteIfExists(pathFor(base, generation - fileCount));
+    }
+
+    @Override
+    public synchronized void publish(LogRecord record) {
+        if (buffer == null || !isLoggable(record)) {
+            return;
+        }
+        try {
+            String format = record.getParameters() != null ? record.getMessage() : null;
+            Object[] args = format != null ? record.getParameters() : new Object[] { record.getMessage() };
+            int argCount = Math.min(args.length, MAX_ARGS);
+            String thrown = record.getThrown() != null
+                    ? LoggerUtil.CustomFormatter.getFormattedStackTrace(record.getThrown(), stackTraceLimit)
+                    : null;
+
+            int needed = EVENT_FIXED_SIZE + stringSize(format) + stringSize(record.getSourceClassName())
+                    + stringSize(thrown);
+            for (int i = 0; i < argCount; i++) {
+                needed += 1 + argSize(args[i]);
+            }
+            // keep room for the zero end marker; a full string table also
+            // starts a new file (this record may add two entries)
+            if (needed > buffer.remaining() - 4 || strings.size() > MAX_STRINGS - 2) {
+                rotate();
+            }
+
+            int eventId = format != null ? intern(format) : RAW_EVENT;
+            int sourceId = record.getSourceClassName() != null ? intern(record.getSourceClassName()) : NO_SOURCE;
+            Instant time = record.getInstant();
+            int start = buffer.position();
+            buffer.putInt(0).put(KIND_EVENT);
+            buffer.putLong(time.getEpochSecond() * 1_000_000_000L + time.getNano());
+            buffer.putInt(record.getLevel().intValue());
+            buffer.putLong(record.getLongThreadID());
+            buffer.putInt(eventId).putInt(sourceId);
+            buffer.put((byte) (argCount + (thrown != null ? 1 : 0)));
+            for (int i = 0; i < argCount; i++) {
+                putArg(args[i]);
+            }
+            if (thrown != null) {
+                buffer.put(ARG_THROWN);
+                putString(thrown);
+            }
+            buffer.putInt(start, buffer.position() - start);
+        } catch (Exception e) {
+            reportError("Couldn't write binary log record", e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    /**
+     * @return the id of s in this file's string table (writing it the first
+     *         time)
+     */
+    private int intern(String s) {
+        Integer id = strings.get(s);
+        if (id != null) {
+            return id;
+        }
+        // ids start at 1 so 0 can mean RAW_EVENT / NO_SOURCE
+        int newId = strings.size() + 1;
+        strings.put(s, newId);
+        int start = buffer.position();
+        buffer.putInt(0).put(KIND_STRING).putInt(newId);
+        putString(s);
+        buffer.putInt(start, buffer.position() - start);
+        return newId;
+    }
+
+    private static int stringSize(String s) {
+        // a STRING record (length, kind, id) plus the worst-case UTF-8 bytes
+        return s == null ? 0 : 4 + 1 + 4 + 4 + Math.min(s.length(), MAX_STRING_CHARS) * 3;
+    }
+
+    private static int argSize(Object arg) {
+        if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte
+                || arg instanceof Double || arg instanceof Float) {
+            return 8;
+        }
+        if (arg == null || arg instanceof Boolean) {
+            return 1;
+        }
+        if (arg instanceof Character) {
+            return 2;
+        }
+        return 4 + Math.min(String.valueOf(arg).length(), MAX_STRING_CHARS) * 3;
+    }
+
+    private void putArg(Object arg) {
+        if (arg == null) {
+            buffer.put(ARG_NULL);
+        } else if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            buffer.put(ARG_LONG).putLong(((Number) arg).longValue());
+        } else if (arg instanceof Double || arg instanceof Float) {
+            buffer.put(ARG_DOUBLE).putDouble(((Number) arg).doubleValue());
+        } else if (arg instanceof Boolean b) {
+            buffer.put(ARG_BOOLEAN).put((byte) (b ? 1 : 0));
+        } else if (arg instanceof Character c) {
+            buffer.put(ARG_CHAR).putChar(c);
+        } else {
+            buffer.put(ARG_STRING);
+            putString(String.valueOf(arg));
+        }
+    }
+
+    /**
+     * Writes a byte count and UTF-8 bytes; ASCII is copied straight into the
+     * buffer without an intermediate array
+     */
+    private void putString(String s) {
+        int length = Math.min(s.length(), MAX_STRING_CHARS);
+        int lengthAt = buffer.position();
+        buffer.putInt(0);
+        int i = 0;
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            buffer.put((byte) c);
+        }
+        if (i < length) {
+            buffer.put(s.substring(i, length).getBytes(StandardCharsets.UTF_8));
+        }
+        buffer.putInt(lengthAt, buffer.position() - lengthAt - 4);
+    }
+
+    /**
+     * No-op: written records are already in the OS page cache, and forcing
+     * them to disk on every batch would cost a sync per flush. Files are
+     * forced when they rotate and on close().
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public synchronized void close() {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+    }
+}
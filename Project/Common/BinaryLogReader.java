@@ -0,0 +1,267 @@
+package Project.Common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Offline decoder for BinaryLogHandler files: prints the records as text or
+ * counts them per event, optionally filtered.
+ * <p>
+ * Run: java Project.Common.BinaryLogReader server [more files or prefixes]
+ * </p>
+ * A path is either a single .blog file or the prefix the handler was given
+ * (all of its generations, oldest first). Options (all optional):
+ * --level=WARNING (minimum) --thread=42 --source=GameRoom (substring)
+ * --grep=text (substring of the message) --color (keep ANSI codes) --stats
+ * (count per event instead of printing)
+ */
+public class BinaryLogReader {
+    private static final Pattern ANSI = Pattern.compile("\u001B\\[[0-9;]*m");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    public static class Config {
+        public final List<Path> paths = new ArrayList<>();
+        public Level level = Level.ALL;
+        public long thread = -1;
+        public String source = null;
+        public String grep = null;
+        public boolean color = false;
+        public boolean stats = false;
+
+        public static Config parse(String[] args) {
+            Config c = new Config();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    c.paths.add(Path.of(arg));
+                    continue;
+                }
+                String[] kv = arg.substring(2).split("=", 2);
+                switch (kv[0]) {
+                    case "color" -> c.color = true;
+                    case "stats" -> c.stats = true;
+                    default -> {
+                        if (kv.length != 2) {
+                            throw new IllegalArgumentException("Expected --key=value but got " + arg);
+                        }
+                        switch (kv[0]) {
+                            case "level" -> c.level = Level.parse(kv[1].toUpperCase());
+                            case "thread" -> c.thread = Long.parseLong(kv[1]);
+                            case "source" -> c.source = kv[1];
+                            case "grep" -> c.grep = kv[1];
+                            default -> throw new IllegalArgumentException("Unknown option " + kv[0]);
+                        }
+                    }
+                }
+            }
+            if (c.paths.isEmpty()) {
+                throw new IllegalArgumentException("Expected at least one .blog file or prefix");
+            }
+            return c;
+        }
+    }
+
+    /**
+     * One decoded record
+     */
+    public static final class Entry {
+        public final long epochNanos;
+        public final Level level;
+        public final long threadId;
+        public final int eventId;
+        // null for RAW_EVENT records (the message is args[0])
+        public final String format;
+        public final String source;
+        public final Object[] args;
+        public final String thrown;
+
+        Entry(long epochNanos, Level level, long threadId, int eventId, String format, String source,
+                Object[] args, String thrown) {
+            this.epochNanos = epochNanos;
+            this.level = level;
+            this.threadId = threadId;
+            this.eventId = eventId;
+            this.format = format;
+            this.source = source;
+            this.args = args;
+            this.thrown = thrown;
+        }
+
+        public String message() {
+            if (format == null) {
+                return args.length > 0 ? String.valueOf(args[0]) : "";
+            }
+            return LoggerUtil.formatParameters(format, args);
+        }
+
+        @Override
+        public String toString() {
+            Instant time = Instant.ofEpochSecond(0, epochNanos);
+            return String.format("%s [%s] %s (thread %d): %s%s", TIME.format(time),
+                    source != null ? source : "unknown", level.getName(), threadId, message(),
+                    thrown != null ? "\n" + thrown : "");
+        }
+    }
+
+    /**
+     * @return the files for a path: itself if it's a file, otherwise every
+     *         generation written with it as the prefix, oldest first
+     */
+    static List<Path> resolve(Path path) throws IOException {
+        if (Files.isRegularFile(path)) {
+            return List.of(path);
+        }
+        Path dir = path.toAbsolutePath().getParent();
+        String prefix = path.getFileName().toString();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> BinaryLogHandler.generationOf(file, prefix) >= 0)
+                    .sorted(Comparator.comparingLong(file -> BinaryLogHandler.generationOf(file, prefix)))
+                    .toList();
+        }
+    }
+
+    /**
+     * Decodes every record in file, in the order written
+     *
+     * @param file
+     * @param sink receives each record
+     * @throws IOException if the file can't be read or isn't a binary log
+     */
+    public static void read(Path file, Consumer<Entry> sink) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.remaining() < BinaryLogHandler.HEADER_SIZE || in.getInt() != BinaryLogHandler.MAGIC) {
+            throw new IOException(file + " isn't a binary log");
+        }
+        byte version = in.get();
+        if (version != BinaryLogHandler.VERSION) {
+            throw new IOException(file + " has unsupported version " + version);
+        }
+        in.position(BinaryLogHandler.HEADER_SIZE);
+        Map<Integer, String> strings = new HashMap<>();
+        while (in.remaining() >= 4) {
+            int start = in.position();
+            int length = in.getInt();
+            if (length <= 0 || length > in.remaining() + 4) {
+                // end of the written data (or a record cut off by a crash)
+                break;
+            }
+            byte kind = in.get();
+            if (kind == BinaryLogHandler.KIND_STRING) {
+                int id = in.getInt();
+                strings.put(id, getString(in));
+            } else if (kind == BinaryLogHandler.KIND_EVENT) {
+                sink.accept(readEvent(in, strings));
+            }
+            in.position(start + length);
+        }
+    }
+
+    private static Entry readEvent(ByteBuffer in, Map<Integer, String> strings) {
+        long epochNanos = in.getLong();
+        Level level = Level.parse(Integer.toString(in.getInt()));
+        long threadId = in.getLong();
+        int eventId = in.getInt();
+        int sourceId = in.getInt();
+        int count = in.get() & 0xFF;
+        List<Object> args = new ArrayList<>(count);
+        String thrown = null;
+        for (int i = 0; i < count; i++) {
+            byte tag = in.get();
+            switch (tag) {
+                case BinaryLogHandler.ARG_NULL -> args.add(null);
+                case BinaryLogHandler.ARG_LONG -> args.add(in.getLong());
+                case BinaryLogHandler.ARG_DOUBLE -> args.add(in.getDouble());
+                case BinaryLogHandler.ARG_BOOLEAN -> args.add(in.get() != 0);
+                case BinaryLogHandler.ARG_CHAR -> args.add(in.getChar());
+                case BinaryLogHandler.ARG_STRING -> args.add(getString(in));
+                case BinaryLogHandler.ARG_THROWN -> thrown = getString(in);
+                default -> throw new IllegalStateException("Unknown argument tag " + tag);
+            }
+        }
+        String format = eventId == BinaryLogHandler.RAW_EVENT ? null : strings.get(eventId);
+        String source = sourceId == BinaryLogHandler.NO_SOURCE ? null : strings.get(sourceId);
+        return new Entry(epochNanos, level, threadId, eventId, format, source, args.toArray(), thrown);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static boolean matches(Config config, Entry entry) {
+        if (entry.level.intValue() < config.level.intValue()) {
+            return false;
+        }
+        if (config.thread >= 0 && entry.threadId != config.thread) {
+            return false;
+        }
+        if (config.source != null && (entry.source == null || !entry.source.contains(config.source))) {
+            return false;
+        }
+        return config.grep == null || entry.message().contains(config.grep);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Config config = Config.parse(args);
+        // event key (format, or the message for raw events) -> count
+        TreeMap<String, long[]> counts = new TreeMap<>();
+        long[] total = new long[1];
+        for (Path path : config.paths) {
+            List<Path> files = resolve(path);
+            if (files.isEmpty()) {
+                System.err.println("No binary log files for " + path);
+            }
+            for (Path file : files) {
+                read(file, entry -> {
+                    if (!matches(config, entry)) {
+                        return;
+                    }
+                    total[0]++;
+                    if (config.stats) {
+                        String key = entry.level.getName() + " "
+                                + (entry.format != null ? entry.format : "(raw) " + entry.message());
+                        counts.computeIfAbsent(config.color ? key : strip(key), k -> new long[1])[0]++;
+                    } else {
+                        String line = entry.toString();
+                        System.out.println(config.color ? line : strip(line));
+                    }
+                });
+            }
+        }
+        if (config.stats) {
+            counts.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                    .forEach(e -> System.out.println(String.format("%10d  %s", e.getValue()[0], e.getKey())));
+            System.out.println(String.format("%10d  total", total[0]));
+        }
+    }
+
+    private static String strip(String s) {
+        return s.indexOf('\u001B') < 0 ? s : ANSI.matcher(s).replaceAll("");
+    }
+}
@@ -0,0 +1,156 @@
+package Project.Common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Shared, frozen payloads for messages with no per-send content (or only a
+ * boolean). Sends reuse these instead of allocating a new payload each time.
+ * <p>
+ * Each connection's ObjectOutputStream writes an instance in full once and
+ * then only as a back-reference handle until its next reset(), so a shared
+ * instance is serialized at most once per reset window per connection. That
+ * only works if the instance never changes after it's first sent (the
+ * receiver would keep seeing the old values), so everything here is frozen.
+ * </p>
+ * <p>
+ * Run main() to check every cached payload is frozen, rejects its setters, and
+ * still encodes to the bytes captured when it was built.
+ * </p>
+ */
+public final class CachedPayloads {
+
+    private static final List<Payload> ALL = new ArrayList<>();
+    private static final List<byte[]> ENCODED = new ArrayList<>();
+
+    public static final ReadyPayload RESET_READY = register(resetReady());
+    public static final ReadyPayload RESET_TURN = register(resetTurn());
+    public static final Payload TURN_CONFIRMED = register(simple(PayloadType.TURN_CONFIRMED, null));
+
+    private static final EnumMap<Phase, Payload> PHASES = new EnumMap<>(Phase.class);
+    private static final Payload[] HOST_STATUS = flag(PayloadType.HOST_STATUS);
+    private static final Payload[] EXTRA_OPTIONS_ENABLED = flag(PayloadType.EXTRA_OPTIONS_ENABLED);
+    private static final Payload[] CHOICE_COOLDOWN_TOGGLE = flag(PayloadType.CHOICE_COOLDOWN_TOGGLE);
+
+    static {
+        for (Phase phase : Phase.values()) {
+            PHASES.put(phase, register(simple(PayloadType.PHASE, phase.name())));
+        }
+    }
+
+    private CachedPayloads() {
+    }
+
+    public static Payload phase(Phase phase) {
+        return PHASES.get(phase);
+    }
+
+    public static Payload hostStatus(boolean isHost) {
+        return HOST_STATUS[isHost ? 1 : 0];
+    }
+
+    public static Payload extraOptionsEnabled(boolean enabled) {
+        return EXTRA_OPTIONS_ENABLED[enabled ? 1 : 0];
+    }
+
+    public static Payload choiceCooldownToggle(boolean enabled) {
+        return CHOICE_COOLDOWN_TOGGLE[enabled ? 1 : 0];
+    }
+
+    /**
+     * @return every cached payload
+     */
+    public static List<Payload> all() {
+        return Collections.unmodifiableList(ALL);
+    }
+
+    private static ReadyPayload resetReady() {
+        ReadyPayload rp = new ReadyPayload();
+        rp.setPayloadType(PayloadType.RESET_READY);
+        return rp;
+    }
+
+    private static ReadyPayload resetTurn() {
+        ReadyPayload rp = new ReadyPayload();
+        rp.setPayloadType(PayloadType.RESET_TURN);
+        return rp;
+    }
+
+    private static Payload simple(PayloadType type, String message) {
+        Payload p = new Payload();
+        p.setPayloadType(type);
+        p.setMessage(message);
+        return p;
+    }
+
+    private static Payload[] flag(PayloadType type) {
+        return new Payload[] {
+                register(simple(type, Boolean.toString(false))),
+                register(simple(type, Boolean.toString(true)))
+        };
+    }
+
+    private static <T extends Payload> T register(T payload) {
+        payload.freeze();
+        ALL.add(payload);
+        ENCODED.add(encode(payload));
+        return payload;
+    }
+
+    private static byte[] encode(Payload payload) {
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(payload);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't encode " + payload, e);
+        }
+    }
+
+    /**
+     * Guards the cache: fails (exit 1) if any payload isn't frozen, accepts a
+     * setter call, or no longer encodes to its original bytes
+     */
+    public static void main(String[] args) {
+        int failures = 0;
+        for (int i = 0; i < ALL.size(); i++) {
+            Payload p = ALL.get(i);
+            if (!p.isFrozen()) {
+                System.out.println("FAIL: not frozen " + p);
+                failures++;
+            }
+            failures += expectRejected(p, "setPayloadType", () -> p.setPayloadType(PayloadType.MESSAGE));
+            failures += expectRejected(p, "setClientId", () -> p.setClientId(-2));
+            failures += expectRejected(p, "setMessage", () -> p.setMessage("changed"));
+            failures += expectRejected(p, "setNumberValue", () -> p.setNumberValue(-2));
+            if (p instanceof ReadyPayload rp) {
+                failures += expectRejected(p, "setReady", () -> rp.setReady(!rp.isReady()));
+            }
+            if (!Arrays.equals(ENCODED.get(i), encode(p))) {
+                System.out.println("FAIL: encoding changed for " + p);
+                failures++;
+            }
+        }
+        System.out.println(ALL.size() + " cached payloads checked, " + failures + " failure(s)");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int expectRejected(Payload p, String setter, Runnable call) {
+        try {
+            call.run();
+            System.out.println("FAIL: " + setter + " modified " + p);
+            return 1;
+        } catch (IllegalStateException expected) {
+            return 0;
+        }
+    }
+}
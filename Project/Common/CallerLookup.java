@@ -0,0 +1,62 @@
+package Project.Common;
+
+import java.lang.StackWalker.Option;
+import java.lang.StackWalker.StackFrame;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Finds the class that called into LoggerUtil, for the "[source]" part of each
+ * log line.
+ * <p>
+ * Thread.getStackTrace() builds every frame of the stack (with method names and
+ * line numbers) on each call. Here a StackWalker streams frames lazily and
+ * stops at the first one outside the logging classes, usually within a few
+ * frames, and never walks past MAX_FRAMES. Whether a class is a logging class
+ * (and its source name) is decided once per class and cached in a ClassValue,
+ * so a call site that logs repeatedly does no string matching.
+ * </p>
+ */
+public final class CallerLookup {
+    // a caller is normally 3-5 frames up; give up rather than walk a deep stack
+    static final int MAX_FRAMES = 16;
+    // sizes the walker's first batch of frames
+    private static final int EXPECTED_FRAMES = 6;
+    private static final StackWalker WALKER = StackWalker.getInstance(Set.of(Option.RETAIN_CLASS_REFERENCE),
+            EXPECTED_FRAMES);
+    private static final String LOGGER_PACKAGE = LoggerUtil.class.getPackageName() + ".";
+
+    // null for classes that are part of the logging path and should be skipped
+    private static final ClassValue<String> SOURCE_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            String name = type.getName();
+            boolean logging = name.startsWith("java.util.logging.") || name.startsWith(LOGGER_PACKAGE)
+                    || type == Thread.class;
+            return logging ? null : name;
+        }
+    };
+
+    private CallerLookup() {
+    }
+
+    /**
+     * @return the name of the nearest calling class outside the logging
+     *         classes, or null if there isn't one within MAX_FRAMES
+     */
+    public static String callerClassName() {
+        return WALKER.walk(CallerLookup::firstSource);
+    }
+
+    private static String firstSource(Stream<StackFrame> frames) {
+        Iterator<StackFrame> it = frames.iterator();
+        for (int i = 0; i < MAX_FRAMES && it.hasNext(); i++) {
+            String name = SOURCE_NAMES.get(it.next().getDeclaringClass());
+            if (name != null) {
+                return name;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,127 @@
+package Project.Common;
+
+/**
+ * A player's pick for a round.
+ * <p>
+ * Travels on the wire as its single-letter code (i.e., "r") and is parsed once
+ * on receipt. Outcomes come from a precomputed bitmask per choice so resolving
+ * a battle is two array reads and a bit test (no String comparisons).
+ * </p>
+ */
+public enum Choice {
+    ROCK('r'),
+    PAPER('p'),
+    SCISSORS('s'),
+    FIRE('f', true),
+    WATER('w', true);
+
+    private static final Choice[] VALUES = values();
+    private static final Choice[] BY_CODE = new Choice[128];
+    // BEATS[a] has bit b set when a beats b
+    private static final int[] BEATS = new int[VALUES.length];
+    static {
+        for (Choice c : VALUES) {
+            BY_CODE[c.code] = c;
+            BY_CODE[Character.toUpperCase(c.code)] = c;
+        }
+        beats(ROCK, SCISSORS, FIRE);
+        beats(PAPER, ROCK, WATER);
+        beats(SCISSORS, PAPER, WATER);
+        beats(FIRE, PAPER, SCISSORS);
+        beats(WATER, FIRE, ROCK);
+    }
+
+    private static void beats(Choice winner, Choice... losers) {
+        for (Choice loser : losers) {
+            BEATS[winner.ordinal()] |= 1 << loser.ordinal();
+        }
+    }
+
+    public final char code;
+    /**
+     * Only allowed when the room has extra options enabled
+     */
+    public final boolean isExtra;
+
+    private Choice(char code) {
+        this(code, false);
+    }
+
+    private Choice(char code, boolean isExtra) {
+        this.code = code;
+        this.isExtra = isExtra;
+    }
+
+    /**
+     * The standard options are a subset of the extra-options rules (RPS outcomes
+     * are identical in both), so one table serves either ruleset.
+     *
+     * @param other
+     * @return true if this choice beats the other
+     */
+    public boolean beats(Choice other) {
+        return (BEATS[ordinal()] & (1 << other.ordinal())) != 0;
+    }
+
+    /**
+     * @param extraOptionsEnabled the room's current ruleset
+     * @return true if this choice can be picked under the ruleset
+     */
+    public boolean isAllowed(boolean extraOptionsEnabled) {
+        return extraOptionsEnabled || !isExtra;
+    }
+
+    /**
+     * Compact form for primitive storage; 0 is reserved for "no choice"
+     *
+     * @return ordinal + 1
+     */
+    public byte toByte() {
+        return (byte) (ordinal() + 1);
+    }
+
+    /**
+     * @param b value from toByte()
+     * @return the choice or null for 0 (no choice)
+     */
+    public static Choice fromByte(byte b) {
+        return b <= 0 || b > VALUES.length ? null : VALUES[b - 1];
+    }
+
+    /**
+     * @param code single letter (case-insensitive)
+     * @return the choice or null if the code isn't recognized
+     */
+    public static Choice fromCode(char code) {
+        return code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * Parses the wire message without allocating (tolerates surrounding
+     * whitespace)
+     *
+     * @param message
+     * @return the choice or null if the message isn't exactly one valid code
+     */
+    public static Choice fromWire(String message) {
+        if (message == null) {
+            return null;
+        }
+        int start = 0;
+        int end = message.length();
+        while (start < end && Character.isWhitespace(message.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(message.charAt(end - 1))) {
+            end--;
+        }
+        return end - start == 1 ? fromCode(message.charAt(start)) : null;
+    }
+
+    /**
+     * @return the single-letter code sent to the server
+     */
+    public String toWire() {
+        return String.valueOf(code);
+    }
+}
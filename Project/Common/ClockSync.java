@@ -0,0 +1,107 @@
+package Project.Common;
+
+/**
+ * NTP-style estimate of the offset between this process's clock and a peer's.
+ * <p>
+ * Each sample is a request/response exchange with four timestamps: t0 (request
+ * sent, local), t1 (request received, peer), t2 (response sent, peer) and t3
+ * (response received, local). The network round trip is
+ * (t3 - t0) - (t2 - t1) and the offset is ((t1 - t0) + (t2 - t3)) / 2.
+ * </p>
+ * <p>
+ * The estimate comes from the lowest round-trip sample in a sliding window,
+ * since that exchange had the least queuing delay and therefore the least
+ * asymmetry error. Thread-safe.
+ * </p>
+ */
+public class ClockSync {
+    private final long[] offsets;
+    private final long[] roundTrips;
+    private int count = 0;
+    private int next = 0;
+    private long offset = 0;
+    private long roundTripTime = -1;
+
+    /**
+     * @param window number of most recent samples to choose the estimate from
+     */
+    public ClockSync(int window) {
+        offsets = new long[window];
+        roundTrips = new long[window];
+    }
+
+    /**
+     * Records one exchange (all values in epoch millis)
+     *
+     * @param t0 request sent (local clock)
+     * @param t1 request received (peer clock)
+     * @param t2 response sent (peer clock)
+     * @param t3 response received (local clock)
+     */
+    public synchronized void addSample(long t0, long t1, long t2, long t3) {
+        long rtt = Math.max(0, (t3 - t0) - (t2 - t1));
+        offsets[next] = ((t1 - t0) + (t2 - t3)) / 2;
+        roundTrips[next] = rtt;
+        next = (next + 1) % offsets.length;
+        count = Math.min(count + 1, offsets.length);
+
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (roundTrips[i] < roundTrips[best]) {
+                best = i;
+            }
+        }
+        offset = offsets[best];
+        roundTripTime = roundTrips[best];
+    }
+
+    /**
+     * @return true once at least one sample was recorded
+     */
+    public synchronized boolean hasEstimate() {
+        return count > 0;
+    }
+
+    /**
+     * @return peer clock minus local clock in millis (0 before any sample)
+     */
+    public synchronized long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return round trip of the sample the offset came from, or -1 before any
+     *         sample
+     */
+    public synchronized long getRoundTripTime() {
+        return roundTripTime;
+    }
+
+    /**
+     * @param peerTime epoch millis on the peer's clock
+     * @return the same instant on the local clock
+     */
+    public long toLocalTime(long peerTime) {
+        return peerTime - getOffset();
+    }
+
+    /**
+     * @param localTime epoch millis on the local clock
+     * @return the same instant on the peer's clock
+     */
+    public long toPeerTime(long localTime) {
+        return localTime + getOffset();
+    }
+
+    public synchronized void reset() {
+        count = 0;
+        next = 0;
+        offset = 0;
+        roundTripTime = -1;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ClockSync[offset=%dms rtt=%dms samples=%d]", offset, roundTripTime, count);
+    }
+}
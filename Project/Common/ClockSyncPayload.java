@@ -0,0 +1,78 @@
+package Project.Common;
+
+/**
+ * One clock sync exchange (see ClockSync).
+ * <p>
+ * The client fills t0 and its current estimate; the server stamps t1 on
+ * receipt and t2 just before echoing it back. Reporting the estimate on each
+ * request lets the server know the client's offset without an extra message.
+ * </p>
+ */
+public class ClockSyncPayload extends Payload {
+    private long t0;
+    private long t1;
+    private long t2;
+    // client's current estimate (server clock minus client clock); rtt -1 if none
+    private long reportedOffset;
+    private long reportedRoundTrip = -1;
+
+    public ClockSyncPayload() {
+        setPayloadType(PayloadType.CLOCK_SYNC);
+    }
+
+    /**
+     * @return request sent (client clock)
+     */
+    public long getT0() {
+        return t0;
+    }
+
+    public void setT0(long t0) {
+        this.t0 = t0;
+    }
+
+    /**
+     * @return request received (server clock)
+     */
+    public long getT1() {
+        return t1;
+    }
+
+    public void setT1(long t1) {
+        this.t1 = t1;
+    }
+
+    /**
+     * @return response sent (server clock)
+     */
+    public long getT2() {
+        return t2;
+    }
+
+    public void setT2(long t2) {
+        this.t2 = t2;
+    }
+
+    public long getReportedOffset() {
+        return reportedOffset;
+    }
+
+    public long getReportedRoundTrip() {
+        return reportedRoundTrip;
+    }
+
+    /**
+     * @param offset    server clock minus client clock in millis
+     * @param roundTrip round trip in millis or -1 if not yet estimated
+     */
+    public void setReported(long offset, long roundTrip) {
+        this.reportedOffset = offset;
+        this.reportedRoundTrip = roundTrip;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + String.format(" t0=%d t1=%d t2=%d offset=%d rtt=%d", t0, t1, t2, reportedOffset,
+                reportedRoundTrip);
+    }
+}
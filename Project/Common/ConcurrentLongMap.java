@@ -0,0 +1,333 @@
+package Project.Common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe map keyed by primitive longs (client ids) using open addressing.
+ * <p>
+ * Lookups never box the key. Reads are optimistic (no locking unless they race
+ * a writer) and writes are serialized by a StampedLock.
+ * </p>
+ * <p>
+ * Iteration (forEach, removeIf, values, stream) runs over an immutable snapshot
+ * so callbacks may safely add/remove entries (i.e., disconnect a client while
+ * relaying to the room). The snapshot is cached until the next modification so
+ * repeated broadcasts don't allocate.
+ * </p>
+ * Null values aren't supported (null marks an empty slot).
+ *
+ * @param <V> the value type
+ */
+public class ConcurrentLongMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Keys and values are swapped in together on resize so a reader never pairs
+     * arrays of different lengths
+     */
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+        final int mask;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Table table;
+    private volatile int size = 0;
+    // cached iteration snapshot; null when stale
+    private volatile Snapshot<V> snapshot = null;
+
+    private static final class Snapshot<V> {
+        final long[] keys;
+        final List<V> values;
+
+        Snapshot(long[] keys, List<V> values) {
+            this.keys = keys;
+            this.values = values;
+        }
+    }
+
+    public ConcurrentLongMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of entries to size the table for before resizing
+     */
+    public ConcurrentLongMap(int expectedSize) {
+        table = new Table(tableSizeFor(Math.max(expectedSize, 2) * 2));
+    }
+
+    private static int tableSizeFor(int n) {
+        int cap = Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+        return Math.max(cap, DEFAULT_CAPACITY);
+    }
+
+    private static int indexFor(long key, int mask) {
+        long h = key * GOLDEN;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Probes the table for the key
+     *
+     * @return slot index or -1 if not found
+     */
+    private static int find(Table t, long key) {
+        int i = indexFor(key, t.mask);
+        // bounded so a racy optimistic read can't spin forever
+        for (int probes = 0; probes <= t.mask; probes++) {
+            if (t.values[i] == null) {
+                return -1;
+            }
+            if (t.keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & t.mask;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        Table t = table;
+        int i = find(t, key);
+        Object value = i < 0 ? null : t.values[i];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                t = table;
+                i = find(t, key);
+                value = i < 0 ? null : t.values[i];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return (V) value;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates the value with the key
+     *
+     * @return the previous value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("ConcurrentLongMap doesn't support null values");
+        }
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            int i = indexFor(key, t.mask);
+            while (t.values[i] != null) {
+                if (t.keys[i] == key) {
+                    Object old = t.values[i];
+                    t.values[i] = value;
+                    snapshot = null;
+                    return (V) old;
+                }
+                i = (i + 1) & t.mask;
+            }
+            t.keys[i] = key;
+            t.values[i] = value;
+            size++;
+            snapshot = null;
+            // keep load factor at or below 0.5 so probe chains stay short
+            if (size * 2 > t.keys.length) {
+                resize(t.keys.length * 2);
+            }
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the mapping for the key
+     *
+     * @return the removed value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            int i = find(t, key);
+            if (i < 0) {
+                return null;
+            }
+            Object old = t.values[i];
+            deleteSlot(t, i);
+            size--;
+            snapshot = null;
+            return (V) old;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Backward-shift deletion (no tombstones) so lookups stay short after churn
+     */
+    private static void deleteSlot(Table t, int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & t.mask;
+            if (t.values[i] == null) {
+                break;
+            }
+            int home = indexFor(t.keys[i], t.mask);
+            // move the entry back if the hole sits between its home slot and i
+            boolean shift = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+            if (shift) {
+                t.keys[hole] = t.keys[i];
+                t.values[hole] = t.values[i];
+                hole = i;
+            }
+        }
+        t.values[hole] = null;
+        t.keys[hole] = 0;
+    }
+
+    private void resize(int capacity) {
+        Table old = table;
+        Table next = new Table(capacity);
+        for (int j = 0; j < old.keys.length; j++) {
+            if (old.values[j] != null) {
+                int i = indexFor(old.keys[j], next.mask);
+                while (next.values[i] != null) {
+                    i = (i + 1) & next.mask;
+                }
+                next.keys[i] = old.keys[j];
+                next.values[i] = old.values[j];
+            }
+        }
+        table = next;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new Table(DEFAULT_CAPACITY);
+            size = 0;
+            snapshot = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Snapshot<V> snapshot() {
+        Snapshot<V> s = snapshot;
+        if (s != null) {
+            return s;
+        }
+        long stamp = lock.readLock();
+        try {
+            Table t = table;
+            long[] keys = new long[size];
+            List<V> values = new ArrayList<>(size);
+            for (int j = 0, n = 0; j < t.keys.length; j++) {
+                if (t.values[j] != null) {
+                    keys[n++] = t.keys[j];
+                    values.add((V) t.values[j]);
+                }
+            }
+            s = new Snapshot<>(keys, Collections.unmodifiableList(values));
+            snapshot = s;
+            return s;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Read-only view of the current values; use removeIf() on the map to remove
+     * while iterating
+     *
+     * @return snapshot of the values at the time of the call
+     */
+    public List<V> values() {
+        return snapshot().values;
+    }
+
+    public Stream<V> stream() {
+        return values().stream();
+    }
+
+    public void forEach(Consumer<? super V> action) {
+        List<V> values = values();
+        for (int i = 0, n = values.size(); i < n; i++) {
+            action.accept(values.get(i));
+        }
+    }
+
+    /**
+     * Removes every entry whose value matches the filter.
+     * Safe to call when the filter itself modifies the map.
+     *
+     * @param filter
+     * @return true if any entries were removed
+     */
+    public boolean removeIf(Predicate<? super V> filter) {
+        Snapshot<V> s = snapshot();
+        boolean removed = false;
+        for (int i = 0, n = s.keys.length; i < n; i++) {
+            V value = s.values.get(i);
+            if (filter.test(value)) {
+                // only remove if the mapping wasn't replaced during the callback
+                long stamp = lock.writeLock();
+                try {
+                    Table t = table;
+                    int slot = find(t, s.keys[i]);
+                    if (slot >= 0 && t.values[slot] == value) {
+                        deleteSlot(t, slot);
+                        size--;
+                        snapshot = null;
+                        removed = true;
+                    }
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Approximate retained bytes for the table arrays (excluding values).
+     * Used by the benchmark to compare per-entry footprint.
+     */
+    public long tableBytes() {
+        Table t = table;
+        // long[] + Object[] (compressed oops) + array headers
+        return 16L + t.keys.length * 8L + 16L + t.values.length * 4L;
+    }
+}
@@ -0,0 +1,54 @@
+package Project.Common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+
+/**
+ * Reading end of DictionaryObjectOutputStream: turns id tokens back into the
+ * strings they stand for and learns new strings in the same order the writer
+ * added them.
+ */
+public class DictionaryObjectInputStream extends ObjectInputStream {
+    private final StringDictionary dictionary;
+
+    public DictionaryObjectInputStream(InputStream in) throws IOException {
+        this(in, StringDictionary.DEFAULT_CAPACITY);
+    }
+
+    public DictionaryObjectInputStream(InputStream in, int capacity) throws IOException {
+        super(in);
+        dictionary = new StringDictionary(capacity);
+        enableResolveObject(true);
+    }
+
+    @Override
+    protected Object resolveObject(Object obj) throws IOException {
+        if (!(obj instanceof String s) || s.isEmpty()) {
+            return obj;
+        }
+        char first = s.charAt(0);
+        if (first == StringDictionary.REF) {
+            try {
+                return dictionary.resolve(StringDictionary.parseToken(s));
+            } catch (IllegalStateException e) {
+                throw new StreamCorruptedException(e.getMessage());
+            }
+        }
+        if (first == StringDictionary.ESCAPE) {
+            return s.substring(1);
+        }
+        if (StringDictionary.isEligible(s)) {
+            dictionary.define(s);
+        }
+        return s;
+    }
+
+    /**
+     * @return strings currently in the dictionary
+     */
+    public int dictionarySize() {
+        return dictionary.size();
+    }
+}
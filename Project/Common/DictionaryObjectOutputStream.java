@@ -0,0 +1,57 @@
+package Project.Common;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * ObjectOutputStream that sends repeated strings (room names, client and
+ * display names) as a short id once the connection has seen them.
+ * <p>
+ * The stream's own handle table already dedupes the same String instance
+ * between resets, but names are usually rebuilt per payload (e.g.
+ * getDisplayName()) and the handle table is cleared by every reset(). The
+ * dictionary survives resets and matches by value. The reading end must be a
+ * DictionaryObjectInputStream with the same capacity.
+ * </p>
+ */
+public class DictionaryObjectOutputStream extends ObjectOutputStream {
+    private final StringDictionary dictionary;
+
+    public DictionaryObjectOutputStream(OutputStream out) throws IOException {
+        this(out, StringDictionary.DEFAULT_CAPACITY);
+    }
+
+    public DictionaryObjectOutputStream(OutputStream out, int capacity) throws IOException {
+        super(out);
+        dictionary = new StringDictionary(capacity);
+        enableReplaceObject(true);
+    }
+
+    @Override
+    protected Object replaceObject(Object obj) throws IOException {
+        if (!(obj instanceof String s)) {
+            return obj;
+        }
+        if (StringDictionary.needsEscape(s)) {
+            return StringDictionary.ESCAPE + s;
+        }
+        if (!StringDictionary.isEligible(s)) {
+            return s;
+        }
+        int id = dictionary.lookup(s);
+        if (id >= 0) {
+            return StringDictionary.token(id);
+        }
+        // first time on this connection: send it whole, both ends add it
+        dictionary.define(s);
+        return s;
+    }
+
+    /**
+     * @return strings currently in the dictionary
+     */
+    public int dictionarySize() {
+        return dictionary.size();
+    }
+}
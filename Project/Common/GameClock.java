@@ -0,0 +1,48 @@
+package Project.Common;
+
+/**
+ * Source of time and delayed callbacks for game timers.
+ * <p>
+ * SystemClock is wall-clock time, fired by a shared daemon scheduler with each
+ * callback on its own thread; VirtualClock only moves when advanced and runs
+ * callbacks on the advancing thread, so simulations are fast and their
+ * ordering is reproducible.
+ * </p>
+ */
+public interface GameClock {
+
+    /**
+     * Handle to a scheduled callback
+     */
+    interface Task {
+        /**
+         * Stops the callback from running (again); safe to call more than once
+         */
+        void cancel();
+    }
+
+    /**
+     * @return current time in epoch millis (virtual time for a VirtualClock)
+     */
+    long currentTimeMillis();
+
+    /**
+     * Runs the task once after the delay
+     *
+     * @param task
+     * @param delayMillis
+     * @return handle used to cancel it
+     */
+    Task schedule(Runnable task, long delayMillis);
+
+    /**
+     * Runs the task after the initial delay and then every period until
+     * cancelled
+     *
+     * @param task
+     * @param initialDelayMillis
+     * @param periodMillis
+     * @return handle used to cancel it
+     */
+    Task scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis);
+}
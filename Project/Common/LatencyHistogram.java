@@ -0,0 +1,140 @@
+package Project.Common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of durations (recorded in microseconds).
+ * <p>
+ * Values below 64us get their own bucket; above that each power of two is split
+ * into 32 linear sub-buckets, so any reported percentile is within ~3% of the
+ * true value while the whole range (up to Long.MAX_VALUE) fits in ~2k buckets.
+ * Recording is a couple of shifts and one atomic increment, so it's cheap
+ * enough to call from hot paths on many threads.
+ * </p>
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS; // 64
+    private static final int HALF_SUB = SUB_COUNT >> 1; // 32
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * HALF_SUB + SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    static int bucketFor(long value) {
+        if (value < SUB_COUNT) {
+            return (int) Math.max(value, 0);
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS + 1;
+        return shift * HALF_SUB + (int) (value >>> shift);
+    }
+
+    /**
+     * @return the smallest value that maps to the bucket
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / HALF_SUB - 1;
+        long mantissa = bucket - (long) shift * HALF_SUB;
+        return mantissa << shift;
+    }
+
+    /**
+     * @param nanos elapsed nanoseconds (i.e., a System.nanoTime() difference)
+     */
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000);
+    }
+
+    public void recordMicros(long micros) {
+        counts.incrementAndGet(bucketFor(micros));
+        total.increment();
+        sum.add(micros);
+        max.accumulate(micros);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public double meanMicros() {
+        long n = total.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    public long maxMicros() {
+        return max.get();
+    }
+
+    public long sumMicros() {
+        return sum.sum();
+    }
+
+    /**
+     * Inclusive, like a Prometheus "le" bucket. Below 64us buckets are 1us wide
+     * so the count is exact; above that micros's whole bucket counts, which may
+     * include values up to ~3% above it.
+     *
+     * @return how many recorded values are at most micros
+     */
+    public long countAtMost(long micros) {
+        long n = 0;
+        int end = Math.min(bucketFor(micros) + 1, BUCKETS);
+        for (int i = 0; i < end; i++) {
+            n += counts.get(i);
+        }
+        return n;
+    }
+
+    /**
+     * @param quantile between 0 and 1 (i.e., 0.99)
+     * @return the value at the quantile in microseconds (bucket midpoint), 0 if
+     *         empty
+     */
+    public long percentileMicros(double quantile) {
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(rank, 1)) {
+                long low = lowerBound(i);
+                long high = i + 1 < BUCKETS ? lowerBound(i + 1) : low;
+                return Math.min(low + (high - low) / 2, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * @return count, p50/p99/p999 and max formatted in milliseconds
+     */
+    public String summary() {
+        return String.format("n=%d p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms", count(),
+                percentileMicros(0.50) / 1000.0, percentileMicros(0.99) / 1000.0, percentileMicros(0.999) / 1000.0,
+                maxMicros() / 1000.0);
+    }
+}
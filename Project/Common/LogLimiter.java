@@ -0,0 +1,150 @@
+package Project.Common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-category sampling and per-key rate limiting for high-volume log lines
+ * (i.e., one line per payload), so they can stay on at production volume.
+ * <p>
+ * A category can keep 1 in N records, allow at most M records per second per
+ * key (a client id or room), or both; categories without a rule always log.
+ * Suppressed records are counted, and every summary interval the next limited
+ * call returns a summary line of what was suppressed so the log still shows
+ * how much was left out.
+ * </p>
+ */
+final class LogLimiter {
+
+    /**
+     * One key's current one-second window, packed as (second << 32 | count) so
+     * a record costs one CAS
+     */
+    private static final class Window {
+        final AtomicLong state = new AtomicLong();
+    }
+
+    private static final class Category {
+        final String name;
+        final int sampleOneIn;
+        final int perSecond;
+        final AtomicLong sampleTick = new AtomicLong();
+        final ConcurrentLongMap<Window> windows = new ConcurrentLongMap<>();
+        final LongAdder sampledOut = new LongAdder();
+        final LongAdder rateLimited = new LongAdder();
+
+        Category(String name, int sampleOneIn, int perSecond) {
+            this.name = name;
+            this.sampleOneIn = sampleOneIn;
+            this.perSecond = perSecond;
+        }
+
+        Window window(long key) {
+            Window window = windows.get(key);
+            if (window == null) {
+                synchronized (this) {
+                    window = windows.get(key);
+                    if (window == null) {
+                        window = new Window();
+                        windows.put(key, window);
+                    }
+                }
+            }
+            return window;
+        }
+    }
+
+    private final Map<String, Category> categories = new LinkedHashMap<>();
+    private final int summarySeconds;
+    private final long summaryNanos;
+    private final AtomicLong nextSummary;
+
+    /**
+     * @param sampling       category -> keep 1 in this many records
+     * @param rateLimits     category -> max records per second per key
+     * @param summarySeconds how often suppressed counts are reported
+     */
+    LogLimiter(Map<String, Integer> sampling, Map<String, Integer> rateLimits, int summarySeconds) {
+        LinkedHashMap<String, int[]> rules = new LinkedHashMap<>();
+        sampling.forEach((name, oneIn) -> rules.computeIfAbsent(name, k -> new int[] { 1, 0 })[0] = oneIn);
+        rateLimits.forEach((name, perSecond) -> rules.computeIfAbsent(name, k -> new int[] { 1, 0 })[1] = perSecond);
+        rules.forEach((name, rule) -> categories.put(name, new Category(name, Math.max(1, rule[0]), rule[1])));
+        this.summarySeconds = Math.max(1, summarySeconds);
+        this.summaryNanos = TimeUnit.SECONDS.toNanos(this.summarySeconds);
+        this.nextSummary = new AtomicLong(System.nanoTime() + summaryNanos);
+    }
+
+    /**
+     * Counts one record of category for key against the rules; call once per
+     * record
+     *
+     * @return true if the record should be written
+     */
+    boolean allow(String category, long key) {
+        Category c = categories.get(category);
+        if (c == null) {
+            return true;
+        }
+        if (c.sampleOneIn > 1 && c.sampleTick.getAndIncrement() % c.sampleOneIn != 0) {
+            c.sampledOut.increment();
+            return false;
+        }
+        if (c.perSecond > 0 && !acquire(c.window(key), c.perSecond)) {
+            c.rateLimited.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean acquire(Window window, int perSecond) {
+        long second = System.nanoTime() / 1_000_000_000L;
+        for (;;) {
+            long state = window.state.get();
+            long count = state >>> 32 == second ? (int) state : 0;
+            if (count >= perSecond) {
+                return false;
+            }
+            if (window.state.compareAndSet(state, (second << 32) | (count + 1))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return a summary of what was suppressed since the last one if the
+     *         interval has passed (only one caller gets it), otherwise null
+     */
+    String summaryIfDue() {
+        long due = nextSummary.get();
+        long now = System.nanoTime();
+        if (now - due < 0 || !nextSummary.compareAndSet(due, now + summaryNanos)) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        long second = now / 1_000_000_000L;
+        for (Category c : categories.values()) {
+            long sampled = c.sampledOut.sumThenReset();
+            long limited = c.rateLimited.sumThenReset();
+            // drop windows of keys that haven't logged this second (i.e.,
+            // disconnected clients) so the map doesn't grow forever
+            c.windows.removeIf(window -> window.state.get() >>> 32 < second);
+            if (sampled + limited == 0) {
+                continue;
+            }
+            sb.append(sb.length() == 0 ? "Suppressed log records in the last " + summarySeconds + "s: " : "; ");
+            sb.append(c.name).append(' ').append(sampled + limited).append(" (");
+            if (c.sampleOneIn > 1) {
+                sb.append(sampled).append(" sampled at 1/").append(c.sampleOneIn);
+            }
+            if (c.perSecond > 0) {
+                sb.append(c.sampleOneIn > 1 ? ", " : "").append(limited).append(" over ").append(c.perSecond)
+                        .append("/s per key");
+            }
+            sb.append(')');
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+}
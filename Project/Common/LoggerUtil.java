@@ -3,10 +3,19 @@ package Project.Common;
 
 import java.io.IOException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.IllegalFormatException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.FileHandler;
 import java.util.logging.Formatter;
+import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
@@ -15,13 +24,48 @@ import java.util.logging.Logger;
  * Utility class for logging messages to a log file.
  * This class provides methods to log messages at various levels and ensures
  * thread-safe logging to an appropriate log file.
+ * <p>
+ * With LoggerConfig.setAsync(true) log calls only queue the record in a bounded
+ * ring and a background thread formats and writes it; the OverflowPolicy
+ * decides what happens when the ring is full.
+ * </p>
+ * <p>
+ * For hot paths use the Supplier or format overloads (or check isLoggable()
+ * first): the message is only built if some handler will write it.
+ * </p>
+ * <p>
+ * Lines logged once per payload can be given a category (see
+ * LoggerConfig.setCategorySampling and setCategoryRateLimit) and logged through
+ * the category overloads or shouldLog(); suppressed records are summarized
+ * periodically.
+ * </p>
  */
 public enum LoggerUtil {
     INSTANCE;
 
     private Logger logger;
     private LoggerConfig config;
-    private boolean isConfigured = false;
+    private volatile boolean isConfigured = false;
+    // lowest level any handler accepts; records below it are never built
+    private volatile int minLevel = Level.ALL.intValue();
+    // null unless the config asked for async logging
+    private AsyncLogWriter asyncWriter;
+    // null unless the config has category sampling or rate limits; replaced
+    // when the rules change at runtime
+    private volatile LogLimiter limiter;
+    // kept so levels can be changed at runtime (binaryHandler is null if off)
+    private Handler fileHandler;
+    private Handler consoleHandler;
+    private Handler binaryHandler;
+
+    /**
+     * What an async log call does when the ring buffer is full
+     */
+    public enum OverflowPolicy {
+        DROP, // discard the record and count it
+        BLOCK, // wait for the writer to make room
+        SAMPLE // once the ring is 3/4 full, keep only 1 in sampleRate records below WARNING; drop when full
+    }
 
     LoggerUtil() {
     }
@@ -41,7 +85,7 @@ public enum LoggerUtil {
      * This class formats the log messages to include the date, log level, source,
      * and message.
      */
-    private static class CustomFormatter extends Formatter {
+    static class CustomFormatter extends Formatter {
         private static final String PATTERN = "MM/dd/yyyy HH:mm:ss";
         private static final String RESET = "\u001B[0m";
         private static final String RED = "\u001B[31m";
@@ -56,11 +100,12 @@ public enum LoggerUtil {
         public String format(LogRecord record) {
             SimpleDateFormat dateFormat = new SimpleDateFormat(PATTERN);
             String date = dateFormat.format(new Date(record.getMillis()));
-            String callingClass = getCallingClassName();
-            String source = callingClass != null ? callingClass
-                    : record.getSourceClassName() != null ? record.getSourceClassName() : "unknown";
+            // set by LoggerUtil on the calling thread (this may run on the async writer)
+            String source = record.getSourceClassName() != null ? record.getSourceClassName() : "unknown";
 
-            String message = formatMessage(record);
+            String message = record.getParameters() != null
+                    ? formatParameters(record.getMessage(), record.getParameters())
+                    : formatMessage(record);
             if (message == null)
                 message = "null";
             String level = getColoredLevel(record.getLevel());
@@ -73,26 +118,6 @@ public enum LoggerUtil {
             return String.format("%s [%s] (%s):\n> %s%s\n", date, source, level, message, throwable);
         }
 
-        /**
-         * Determines the name of the class that called the logging method.
-         * 
-         * @return the name of the calling class
-         */
-        private static String getCallingClassName() {
-            String loggerUtilPackage = LoggerUtil.class.getPackage().getName();
-            StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-            for (StackTraceElement element : stackTrace) {
-                String className = element.getClassName();
-                // Skip all classes in the logging framework and the package of LoggerUtil
-                if (!className.startsWith("java.util.logging") &&
-                        !className.startsWith(loggerUtilPackage) &&
-                        !className.equals(Thread.class.getName())) {
-                    return className;
-                }
-            }
-            return null;
-        }
-
         /**
          * Returns a colored log level string based on the severity.
          * 
@@ -129,7 +154,7 @@ public enum LoggerUtil {
          * @param maxElements the maximum number of stack trace elements to show
          * @return the formatted stack trace as a string
          */
-        private static String getFormattedStackTrace(Throwable throwable, int maxElements) {
+        static String getFormattedStackTrace(Throwable throwable, int maxElements) {
             StringBuilder sb = new StringBuilder();
 
             // Add the exception class name and message
@@ -191,22 +216,43 @@ public enum LoggerUtil {
             String logPattern = config.getLogLocation().replace(".log", "-%g.log");
             // FileHandler writes log messages to a specified file, with support for
             // rotating log files
-            FileHandler fileHandler = new FileHandler(
+            fileHandler = new FileHandler(
                     logPattern,
                     config.getFileSizeLimit(),
                     config.getFileCount(),
                     true);
             fileHandler.setFormatter(new CustomFormatter());
             fileHandler.setLevel(config.getFileLogLevel());
-            logger.addHandler(fileHandler);
 
             // ConsoleHandler prints log messages to the console
-            ConsoleHandler consoleHandler = new ConsoleHandler();
+            consoleHandler = new ConsoleHandler();
             consoleHandler.setFormatter(new CustomFormatter());
             consoleHandler.setLevel(config.getConsoleLogLevel());
-            logger.addHandler(consoleHandler);
+
+            List<Handler> handlers = new ArrayList<>(List.of(fileHandler, consoleHandler));
+            // optional structured copy of the file log (see BinaryLogReader)
+            if (config.getBinaryLogLocation() != null) {
+                binaryHandler = new BinaryLogHandler(config.getBinaryLogLocation(),
+                        config.getBinaryFileSize(), config.getBinaryFileCount(), config.getStackTraceLimit());
+                binaryHandler.setLevel(config.getFileLogLevel());
+                handlers.add(binaryHandler);
+            }
+
+            if (config.isAsync()) {
+                asyncWriter = new AsyncLogWriter(handlers.toArray(new Handler[0]),
+                        config.getAsyncCapacity(), config.getOverflowPolicy(), config.getSampleRate());
+                // write out whatever is still queued when the JVM exits
+                Runtime.getRuntime().addShutdownHook(new Thread(asyncWriter::close, "LoggerUtil-shutdown"));
+            } else {
+                for (Handler handler : handlers) {
+                    logger.addHandler(handler);
+                }
+            }
+
+            rebuildLimiter();
 
             logger.setLevel(Level.ALL);
+            minLevel = Math.min(config.getFileLogLevel().intValue(), config.getConsoleLogLevel().intValue());
             isConfigured = true;
         } catch (IOException e) {
             e.printStackTrace();
@@ -220,9 +266,7 @@ public enum LoggerUtil {
      * @param message the log message
      */
     public void log(Level level, String message) {
-        if (!isConfigured)
-            setupLogger();
-        logger.log(level, message);
+        publish(level, message, null);
     }
 
     /**
@@ -235,27 +279,24 @@ public enum LoggerUtil {
      * @param message the Object to log
      */
     public void log(Level level, Object message) {
-        if (!isConfigured) {
-            setupLogger();
-        }
-
         if (message instanceof String) {
-            logger.log(level, (String) message);
+            publish(level, (String) message, null);
 
         } else if (message instanceof Throwable) {
             Throwable t = (Throwable) message;
             String msg = (t.getMessage() != null) ? t.getMessage() : t.getClass().getName();
-            logger.log(level, msg, t);
+            publish(level, msg, t);
 
         } else if (message != null) {
+            // toString() runs here, not on the async writer, so it sees the object as it is now
             try {
-                logger.log(level, message.toString());
+                publish(level, message.toString(), null);
             } catch (Exception ex) {
-                logger.log(level, "Error during toString(): " + ex.getMessage(), ex);
+                publish(level, "Error during toString(): " + ex.getMessage(), ex);
             }
 
         } else {
-            logger.log(level, "null");
+            publish(level, "null", null);
         }
     }
 
@@ -267,9 +308,309 @@ public enum LoggerUtil {
      * @param throwable the exception to log
      */
     public void log(Level level, String message, Throwable throwable) {
+        publish(level, message, throwable);
+    }
+
+    /**
+     * Builds the record on the calling thread (time, thread and calling class)
+     * and writes it, or queues it for the async writer.
+     */
+    private void publish(Level level, String message, Throwable throwable) {
+        publish(level, message, null, throwable);
+    }
+
+    /**
+     * @param parameters String.format arguments for message, or null if message
+     *                   is already the final text; kept unformatted so the
+     *                   binary sink can store them by type
+     */
+    private void publish(Level level, String message, Object[] parameters, Throwable throwable) {
+        if (!isLoggable(level)) {
+            return;
+        }
+        LogRecord record = new LogRecord(level, message);
+        record.setParameters(parameters);
+        record.setLoggerName(logger.getName());
+        if (config.isCaptureCaller()) {
+            String caller = CallerLookup.callerClassName();
+            record.setSourceClassName(caller != null ? caller : LoggerUtil.class.getName());
+        } else {
+            record.setSourceClassName(null);
+        }
+        record.setThrown(throwable);
+        if (asyncWriter != null) {
+            asyncWriter.offer(record);
+        } else {
+            logger.log(record);
+        }
+    }
+
+    /**
+     * Cheap check to guard building an expensive message
+     * 
+     * @param level the level the message would be logged at
+     * @return false if no handler would write a message at this level
+     */
+    public boolean isLoggable(Level level) {
         if (!isConfigured)
             setupLogger();
-        logger.log(level, message, throwable);
+        int value = level.intValue();
+        return value >= minLevel && value != Level.OFF.intValue();
+    }
+
+    /**
+     * Logs a message built only if the level is loggable.
+     * 
+     * @param level   the level of the log message
+     * @param message supplies the log message
+     */
+    public void log(Level level, Supplier<String> message) {
+        if (isLoggable(level)) {
+            publish(level, message.get(), null);
+        }
+    }
+
+    /**
+     * Logs a String.format message, formatted only if the level is loggable.
+     * Note: a single Throwable argument selects log(Level, String, Throwable).
+     * 
+     * @param level  the level of the log message
+     * @param format the format string
+     * @param args   the format arguments
+     */
+    public void log(Level level, String format, Object... args) {
+        if (isLoggable(level)) {
+            publish(level, format, snapshot(args), null);
+        }
+    }
+
+    /**
+     * Keeps immutable arguments as they are and replaces anything else with
+     * its toString() now, since the record may be formatted later on the async
+     * writer
+     */
+    private static Object[] snapshot(Object[] args) {
+        Object[] copy = args.clone();
+        for (int i = 0; i < copy.length; i++) {
+            Object arg = copy[i];
+            if (arg != null && !(arg instanceof String || arg instanceof Long || arg instanceof Integer
+                    || arg instanceof Short || arg instanceof Byte || arg instanceof Double
+                    || arg instanceof Float || arg instanceof Boolean || arg instanceof Character)) {
+                copy[i] = String.valueOf(arg);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * String.format that never throws: a bad format falls back to the format
+     * followed by the arguments
+     */
+    static String formatParameters(String format, Object[] args) {
+        try {
+            return String.format(format, args);
+        } catch (IllegalFormatException e) {
+            return format + " " + Arrays.toString(args);
+        }
+    }
+
+    /**
+     * Checks level and the category's sampling and rate limit for one record;
+     * call once per record (it counts towards the limits) and only build the
+     * message if it returns true. Also emits the suppressed-records summary
+     * when it's due.
+     * 
+     * @param category the category configured in LoggerConfig
+     * @param key      what the rate limit is per (i.e., a client id)
+     * @param level    the level the message would be logged at
+     * @return true if the record should be logged
+     */
+    public boolean shouldLog(String category, long key, Level level) {
+        if (!isLoggable(level)) {
+            return false;
+        }
+        // read once: setCategorySampling() may swap it meanwhile
+        LogLimiter limiter = this.limiter;
+        if (limiter == null) {
+            return true;
+        }
+        boolean allowed = limiter.allow(category, key);
+        String summary = limiter.summaryIfDue();
+        if (summary != null) {
+            publish(level, summary, null);
+        }
+        return allowed;
+    }
+
+    /**
+     * Logs a message of a sampled/rate-limited category, built only if it
+     * passes shouldLog().
+     * 
+     * @param category the category configured in LoggerConfig
+     * @param key      what the rate limit is per (i.e., a client id)
+     * @param level    the level of the log message
+     * @param message  supplies the log message
+     */
+    public void log(String category, long key, Level level, Supplier<String> message) {
+        if (shouldLog(category, key, level)) {
+            publish(level, message.get(), null);
+        }
+    }
+
+    /**
+     * Logs a String.format message of a sampled/rate-limited category,
+     * formatted only if it passes shouldLog().
+     * 
+     * @param category the category configured in LoggerConfig
+     * @param key      what the rate limit is per (i.e., a client id)
+     * @param level    the level of the log message
+     * @param format   the format string
+     * @param args     the format arguments
+     */
+    public void log(String category, long key, Level level, String format, Object... args) {
+        if (shouldLog(category, key, level)) {
+            publish(level, format, snapshot(args), null);
+        }
+    }
+
+    /**
+     * Waits until every queued record has been written (no-op unless async)
+     */
+    public void flush() {
+        if (asyncWriter != null) {
+            asyncWriter.flush();
+        }
+    }
+
+    /**
+     * @return true if log calls are handed to the background writer
+     */
+    public boolean isAsync() {
+        return asyncWriter != null;
+    }
+
+    /**
+     * @return records discarded because the ring was full (or the writer had
+     *         stopped)
+     */
+    public long getDroppedCount() {
+        return asyncWriter != null ? asyncWriter.getDropped() : 0;
+    }
+
+    /**
+     * @return records skipped by the SAMPLE policy
+     */
+    public long getSampledOutCount() {
+        return asyncWriter != null ? asyncWriter.getSampledOut() : 0;
+    }
+
+    /**
+     * @return log calls that had to wait for room under the BLOCK policy
+     */
+    public long getBlockedCount() {
+        return asyncWriter != null ? asyncWriter.getBlocked() : 0;
+    }
+
+    /**
+     * @return records queued but not yet written
+     */
+    public int getQueuedCount() {
+        return asyncWriter != null ? asyncWriter.getQueued() : 0;
+    }
+
+    private void rebuildLimiter() {
+        limiter = config.getCategorySampling().isEmpty() && config.getCategoryRateLimits().isEmpty() ? null
+                : new LogLimiter(config.getCategorySampling(), config.getCategoryRateLimits(),
+                        config.getSuppressedSummarySeconds());
+    }
+
+    /**
+     * Changes the handler levels of a running logger (the binary log follows
+     * the file level)
+     * 
+     * @param fileLevel    level of the file (and binary) log
+     * @param consoleLevel level of the console
+     */
+    public synchronized void setLevels(Level fileLevel, Level consoleLevel) {
+        if (!isConfigured)
+            setupLogger();
+        config.setFileLogLevel(fileLevel);
+        config.setConsoleLogLevel(consoleLevel);
+        fileHandler.setLevel(fileLevel);
+        consoleHandler.setLevel(consoleLevel);
+        if (binaryHandler != null) {
+            binaryHandler.setLevel(fileLevel);
+        }
+        minLevel = Math.min(fileLevel.intValue(), consoleLevel.intValue());
+    }
+
+    public synchronized Level getFileLogLevel() {
+        return config != null ? config.getFileLogLevel() : Level.ALL;
+    }
+
+    public synchronized Level getConsoleLogLevel() {
+        return config != null ? config.getConsoleLogLevel() : Level.ALL;
+    }
+
+    /**
+     * Changes a category's sampling at runtime; suppressed counts not yet
+     * summarized are discarded
+     * 
+     * @param oneIn keep 1 in this many records (1 keeps all)
+     */
+    public synchronized void setCategorySampling(String category, int oneIn) {
+        if (!isConfigured)
+            setupLogger();
+        config.setCategorySampling(category, oneIn);
+        rebuildLimiter();
+    }
+
+    /**
+     * Changes a category's rate limit at runtime; suppressed counts not yet
+     * summarized are discarded
+     * 
+     * @param perSecond max records per second per key (0 for no limit)
+     */
+    public synchronized void setCategoryRateLimit(String category, int perSecond) {
+        if (!isConfigured)
+            setupLogger();
+        config.setCategoryRateLimit(category, perSecond);
+        rebuildLimiter();
+    }
+
+    /**
+     * @return category -> "1/N, M/s" for every category with a rule
+     */
+    public synchronized Map<String, String> getCategoryRules() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        if (config != null) {
+            config.getCategorySampling().forEach((name, oneIn) -> rules.put(name, "1/" + oneIn));
+            config.getCategoryRateLimits().forEach((name, perSecond) -> rules.merge(name,
+                    perSecond + "/s per key", (a, b) -> a + ", " + b));
+        }
+        return rules;
+    }
+
+    /**
+     * Changes what async log calls do when the ring is full (no-op unless
+     * async); the ring's capacity is fixed when the logger starts
+     * 
+     * @param policy     the new overflow policy
+     * @param sampleRate SAMPLE keeps 1 in this many records
+     */
+    public synchronized void setOverflowPolicy(OverflowPolicy policy, int sampleRate) {
+        if (asyncWriter != null) {
+            config.setOverflowPolicy(policy);
+            config.setSampleRate(sampleRate);
+            asyncWriter.setPolicy(policy, sampleRate);
+        }
+    }
+
+    /**
+     * @return the async overflow policy, or null if not async
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return asyncWriter != null ? asyncWriter.getPolicy() : null;
     }
 
     /**
@@ -290,6 +631,25 @@ public enum LoggerUtil {
         log(Level.INFO, message);
     }
 
+    /**
+     * Logs an informational message built only if INFO is loggable.
+     * 
+     * @param message supplies the log message
+     */
+    public void info(Supplier<String> message) {
+        log(Level.INFO, message);
+    }
+
+    /**
+     * Logs an informational message formatted only if INFO is loggable.
+     * 
+     * @param format the format string
+     * @param args   the format arguments
+     */
+    public void info(String format, Object... args) {
+        log(Level.INFO, format, args);
+    }
+
     /**
      * Logs an exception with an INFO level.
      *
@@ -318,6 +678,25 @@ public enum LoggerUtil {
         log(Level.WARNING, message);
     }
 
+    /**
+     * Logs a warning message built only if WARNING is loggable.
+     * 
+     * @param message supplies the log message
+     */
+    public void warning(Supplier<String> message) {
+        log(Level.WARNING, message);
+    }
+
+    /**
+     * Logs a warning message formatted only if WARNING is loggable.
+     * 
+     * @param format the format string
+     * @param args   the format arguments
+     */
+    public void warning(String format, Object... args) {
+        log(Level.WARNING, format, args);
+    }
+
     /**
      * Logs an exception with a WARNING level.
      *
@@ -346,6 +725,25 @@ public enum LoggerUtil {
         log(Level.SEVERE, message);
     }
 
+    /**
+     * Logs a severe error message built only if SEVERE is loggable.
+     * 
+     * @param message supplies the log message
+     */
+    public void severe(Supplier<String> message) {
+        log(Level.SEVERE, message);
+    }
+
+    /**
+     * Logs a severe error message formatted only if SEVERE is loggable.
+     * 
+     * @param format the format string
+     * @param args   the format arguments
+     */
+    public void severe(String format, Object... args) {
+        log(Level.SEVERE, format, args);
+    }
+
     /**
      * Logs an exception with a SEVERE level.
      *
@@ -374,6 +772,25 @@ public enum LoggerUtil {
         log(Level.FINE, message);
     }
 
+    /**
+     * Logs a fine-grained informational message built only if FINE is loggable.
+     * 
+     * @param message supplies the log message
+     */
+    public void fine(Supplier<String> message) {
+        log(Level.FINE, message);
+    }
+
+    /**
+     * Logs a fine-grained informational message formatted only if FINE is loggable.
+     * 
+     * @param format the format string
+     * @param args   the format arguments
+     */
+    public void fine(String format, Object... args) {
+        log(Level.FINE, format, args);
+    }
+
     /**
      * Logs a finer-grained informational message.
      * 
@@ -422,6 +839,17 @@ public enum LoggerUtil {
         private Level fileLogLevel = Level.ALL; // default log level for file
         private Level consoleLogLevel = Level.ALL; // default log level for console
         private int stackTraceLimit = 10; // default maximum number of stack trace elements
+        private boolean async = false; // write from a background thread
+        private int asyncCapacity = 8192; // ring buffer size for async mode
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK; // full ring behavior
+        private int sampleRate = 10; // SAMPLE keeps 1 in this many records
+        private boolean captureCaller = true; // look up the calling class for each record
+        private String binaryLogLocation = null; // path prefix for binary log files; null = off
+        private int binaryFileSize = 16 * 1024 * 1024; // 16MB per binary log file
+        private int binaryFileCount = 8; // binary log generations kept
+        private final Map<String, Integer> categorySampling = new LinkedHashMap<>(); // category -> 1 in N kept
+        private final Map<String, Integer> categoryRateLimits = new LinkedHashMap<>(); // category -> max/s per key
+        private int suppressedSummarySeconds = 10; // how often suppressed counts are logged
 
         // Getters and Setters for each property
 
@@ -532,10 +960,216 @@ public enum LoggerUtil {
         public void setStackTraceLimit(int stackTraceLimit) {
             this.stackTraceLimit = stackTraceLimit;
         }
+
+        /**
+         * Gets whether log calls are written by a background thread.
+         * 
+         * @return true for async logging
+         */
+        public boolean isAsync() {
+            return async;
+        }
+
+        /**
+         * Sets whether log calls are written by a background thread.
+         * 
+         * @param async true to queue records instead of writing them inline
+         */
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+
+        /**
+         * Gets the ring buffer size used in async mode.
+         * 
+         * @return the maximum number of queued records
+         */
+        public int getAsyncCapacity() {
+            return asyncCapacity;
+        }
+
+        /**
+         * Sets the ring buffer size used in async mode (rounded up to a power of
+         * two).
+         * 
+         * @param asyncCapacity the maximum number of queued records
+         */
+        public void setAsyncCapacity(int asyncCapacity) {
+            this.asyncCapacity = asyncCapacity;
+        }
+
+        /**
+         * Gets what async log calls do when the ring is full.
+         * 
+         * @return the overflow policy
+         */
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        /**
+         * Sets what async log calls do when the ring is full.
+         * 
+         * @param overflowPolicy the overflow policy
+         */
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        /**
+         * Gets the SAMPLE policy's rate.
+         * 
+         * @return 1 in this many records below WARNING is kept under pressure
+         */
+        public int getSampleRate() {
+            return sampleRate;
+        }
+
+        /**
+         * Sets the SAMPLE policy's rate.
+         * 
+         * @param sampleRate keep 1 in this many records below WARNING under
+         *                   pressure
+         */
+        public void setSampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        /**
+         * Gets whether each record looks up its calling class.
+         * 
+         * @return true to show the caller as the log line's source
+         */
+        public boolean isCaptureCaller() {
+            return captureCaller;
+        }
+
+        /**
+         * Sets whether each record looks up its calling class; when off the
+         * source shows as "unknown" and no stack frames are walked.
+         * 
+         * @param captureCaller true to show the caller as the log line's source
+         */
+        public void setCaptureCaller(boolean captureCaller) {
+            this.captureCaller = captureCaller;
+        }
+
+        /**
+         * Gets the path prefix of the binary log files.
+         * 
+         * @return the prefix, or null if the binary log is off
+         */
+        public String getBinaryLogLocation() {
+            return binaryLogLocation;
+        }
+
+        /**
+         * Sets the path prefix of the binary log files (i.e., "server" writes
+         * server-1.blog, server-2.blog, ...); null turns the binary log off.
+         * It logs at the file log level.
+         * 
+         * @param binaryLogLocation the prefix, or null
+         */
+        public void setBinaryLogLocation(String binaryLogLocation) {
+            this.binaryLogLocation = binaryLogLocation;
+        }
+
+        /**
+         * Gets the size of each binary log file.
+         * 
+         * @return bytes per file
+         */
+        public int getBinaryFileSize() {
+            return binaryFileSize;
+        }
+
+        /**
+         * Sets the size of each binary log file (at least 1MB).
+         * 
+         * @param binaryFileSize bytes per file
+         */
+        public void setBinaryFileSize(int binaryFileSize) {
+            this.binaryFileSize = binaryFileSize;
+        }
+
+        /**
+         * Gets the number of binary log files kept.
+         * 
+         * @return the number of files
+         */
+        public int getBinaryFileCount() {
+            return binaryFileCount;
+        }
+
+        /**
+         * Sets the number of binary log files kept.
+         * 
+         * @param binaryFileCount the number of files
+         */
+        public void setBinaryFileCount(int binaryFileCount) {
+            this.binaryFileCount = binaryFileCount;
+        }
+
+        /**
+         * Gets the sampling rate of each category.
+         * 
+         * @return category -> 1 in this many records is kept
+         */
+        public Map<String, Integer> getCategorySampling() {
+            return Collections.unmodifiableMap(categorySampling);
+        }
+
+        /**
+         * Keeps only 1 in oneIn records of a category.
+         * 
+         * @param category the category name passed to shouldLog()/log()
+         * @param oneIn    keep 1 in this many records (1 keeps all)
+         */
+        public void setCategorySampling(String category, int oneIn) {
+            categorySampling.put(category, oneIn);
+        }
+
+        /**
+         * Gets the rate limit of each category.
+         * 
+         * @return category -> max records per second per key
+         */
+        public Map<String, Integer> getCategoryRateLimits() {
+            return Collections.unmodifiableMap(categoryRateLimits);
+        }
+
+        /**
+         * Allows at most perSecond records of a category per second for each
+         * key (i.e., per client).
+         * 
+         * @param category  the category name passed to shouldLog()/log()
+         * @param perSecond max records per second per key (0 for no limit)
+         */
+        public void setCategoryRateLimit(String category, int perSecond) {
+            categoryRateLimits.put(category, perSecond);
+        }
+
+        /**
+         * Gets how often suppressed record counts are logged.
+         * 
+         * @return the interval in seconds
+         */
+        public int getSuppressedSummarySeconds() {
+            return suppressedSummarySeconds;
+        }
+
+        /**
+         * Sets how often suppressed record counts are logged.
+         * 
+         * @param suppressedSummarySeconds the interval in seconds
+         */
+        public void setSuppressedSummarySeconds(int suppressedSummarySeconds) {
+            this.suppressedSummarySeconds = suppressedSummarySeconds;
+        }
     }
 
     /**
-     * Example usage
+     * Example usage (pass --async to run it through the async writer)
      * 
      * @param args
      */
@@ -547,6 +1181,7 @@ public enum LoggerUtil {
         config.setLogLocation("example.log"); // Log file location
         config.setFileLogLevel(Level.ALL); // Log level for file
         config.setConsoleLogLevel(Level.ALL); // Log level for console
+        config.setAsync(args.length > 0 && args[0].equals("--async"));
 
         // Set the logger configuration
         LoggerUtil.INSTANCE.setConfig(config);
@@ -604,6 +1239,10 @@ public enum LoggerUtil {
         } catch (StackOverflowError e) {
             LoggerUtil.INSTANCE.severe("A StackOverflowError occurred!", e);
         }
+        LoggerUtil.INSTANCE.flush();
+        if (LoggerUtil.INSTANCE.isAsync()) {
+            System.out.println("Async writer dropped " + LoggerUtil.INSTANCE.getDroppedCount() + " record(s)");
+        }
     }
 
     private static void recursiveMethod(int depth) {
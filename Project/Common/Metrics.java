@@ -0,0 +1,226 @@
+package Project.Common;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * In-process metrics registry: counters, gauges and latency histograms that
+ * can be written in the Prometheus text exposition format.
+ * <p>
+ * Registering is meant to happen once (i.e., in static fields); the returned
+ * Counter/Gauge/LatencyHistogram is then updated directly, so recording costs
+ * one LongAdder or atomic update and never touches the registry. Registering
+ * the same name and labels again returns the existing instance.
+ * </p>
+ * <p>
+ * Histograms are LatencyHistograms (recorded in microseconds) and are exposed
+ * in seconds with power-of-two buckets from 16us to ~16.8s.
+ * </p>
+ */
+public enum Metrics {
+    INSTANCE;
+
+    // histogram bucket bounds in microseconds: 2^4 .. 2^24
+    private static final int FIRST_BUCKET_SHIFT = 4;
+    private static final int LAST_BUCKET_SHIFT = 24;
+
+    /**
+     * Monotonic count (i.e., payloads received)
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * Value that goes up and down (i.e., open connections)
+     */
+    public static final class Gauge {
+        private final AtomicLong value = new AtomicLong();
+
+        public void increment() {
+            value.incrementAndGet();
+        }
+
+        public void decrement() {
+            value.decrementAndGet();
+        }
+
+        public void set(long newValue) {
+            value.set(newValue);
+        }
+
+        public long get() {
+            return value.get();
+        }
+    }
+
+    private enum Type {
+        COUNTER, GAUGE, HISTOGRAM
+    }
+
+    /**
+     * All series sharing a name; values are Counter, Gauge, LatencyHistogram or
+     * LongSupplier, keyed by their rendered label set ("" for none)
+     */
+    private static final class Family {
+        final String name;
+        final String help;
+        final Type type;
+        final LinkedHashMap<String, Object> series = new LinkedHashMap<>();
+        // label name -> (label value -> value), read at scrape time
+        String dynamicLabel;
+        Supplier<Map<String, ? extends Number>> dynamicValues;
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    private final LinkedHashMap<String, Family> families = new LinkedHashMap<>();
+
+    public Counter counter(String name, String help) {
+        return counter(name, help, null, null);
+    }
+
+    /**
+     * @param label      label name (i.e., "type"), or null
+     * @param labelValue this series' value for the label
+     */
+    public Counter counter(String name, String help, String label, String labelValue) {
+        return register(name, help, Type.COUNTER, labels(label, labelValue), Counter::new);
+    }
+
+    public Gauge gauge(String name, String help) {
+        return register(name, help, Type.GAUGE, "", Gauge::new);
+    }
+
+    /**
+     * Gauge read from value when scraped (i.e., a collection's size)
+     */
+    public void gauge(String name, String help, LongSupplier value) {
+        register(name, help, Type.GAUGE, "", () -> value);
+    }
+
+    /**
+     * Gauge with one series per entry of the map values returns when scraped,
+     * for label values that come and go (i.e., members per room)
+     */
+    public synchronized void gaugeFamily(String name, String help, String label,
+            Supplier<Map<String, ? extends Number>> values) {
+        Family family = family(name, help, Type.GAUGE);
+        family.dynamicLabel = label;
+        family.dynamicValues = values;
+    }
+
+    public LatencyHistogram histogram(String name, String help) {
+        return register(name, help, Type.HISTOGRAM, "", LatencyHistogram::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> T register(String name, String help, Type type, String labels, Supplier<T> factory) {
+        return (T) family(name, help, type).series.computeIfAbsent(labels, k -> factory.get());
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, k -> new Family(name, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException(name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    private static String labels(String label, String value) {
+        return label == null ? "" : label + "=\"" + escape(value) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Writes every metric in the Prometheus text format (version 0.0.4)
+     */
+    public synchronized void writePrometheus(Appendable out) throws IOException {
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ')
+                    .append(family.type.name().toLowerCase(Locale.ROOT)).append('\n');
+            for (Map.Entry<String, Object> series : family.series.entrySet()) {
+                Object value = series.getValue();
+                if (value instanceof LatencyHistogram histogram) {
+                    writeHistogram(out, family.name, histogram);
+                } else {
+                    long number = value instanceof Counter counter ? counter.get()
+                            : value instanceof Gauge gauge ? gauge.get()
+                                    : ((LongSupplier) value).getAsLong();
+                    writeSample(out, family.name, series.getKey(), Long.toString(number));
+                }
+            }
+            if (family.dynamicValues != null) {
+                for (Map.Entry<String, ? extends Number> entry : family.dynamicValues.get().entrySet()) {
+                    writeSample(out, family.name, labels(family.dynamicLabel, entry.getKey()),
+                            entry.getValue().toString());
+                }
+            }
+        }
+    }
+
+    private static void writeSample(Appendable out, String name, String labels, String value) throws IOException {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static void writeHistogram(Appendable out, String name, LatencyHistogram histogram)
+            throws IOException {
+        // read the count first so no bucket can exceed it
+        long count = histogram.count();
+        for (int shift = FIRST_BUCKET_SHIFT; shift <= LAST_BUCKET_SHIFT; shift++) {
+            long bound = 1L << shift;
+            String le = String.format(Locale.ROOT, "le=\"%s\"", seconds(bound));
+            writeSample(out, name + "_bucket", le, Long.toString(Math.min(histogram.countAtMost(bound), count)));
+        }
+        writeSample(out, name + "_bucket", "le=\"+Inf\"", Long.toString(count));
+        writeSample(out, name + "_sum", "", seconds(histogram.sumMicros()));
+        writeSample(out, name + "_count", "", Long.toString(count));
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1e6);
+    }
+
+    /**
+     * @return the registry rendered in the Prometheus text format
+     */
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            writePrometheus(sb);
+        } catch (IOException e) {
+            // StringBuilder doesn't throw
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,102 @@
+package Project.Common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ * <p>
+ * Each slot carries a sequence number: a producer claims a position with one
+ * CAS on the tail and publishes its element by advancing the slot's sequence,
+ * and the consumer frees the slot by advancing it a full lap. A full ring makes
+ * offer() return false instead of waiting, so the caller decides what to do
+ * with the element.
+ * </p>
+ *
+ * @param <E> the element type
+ */
+final class MpscRing<E> {
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // only the consumer writes head; producers read it for size()
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    MpscRing(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 2 and 2^30");
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.elements = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return approximate number of queued elements
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    /**
+     * Safe to call from any thread
+     *
+     * @return false if the ring is full
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        int slot;
+        for (;;) {
+            slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // the consumer hasn't freed this slot from the previous lap
+                return false;
+            } else {
+                // another producer claimed it first
+                position = tail.get();
+            }
+        }
+        elements.lazySet(slot, element);
+        sequences.set(slot, position + 1);
+        return true;
+    }
+
+    /**
+     * Consumer thread only
+     *
+     * @return the oldest element, or null if none is published yet
+     */
+    E poll() {
+        long position = head.get();
+        int slot = (int) position & mask;
+        if (sequences.get(slot) != position + 1) {
+            return null;
+        }
+        E element = elements.get(slot);
+        elements.lazySet(slot, null);
+        sequences.set(slot, position + capacity);
+        head.lazySet(position + 1);
+        return element;
+    }
+}
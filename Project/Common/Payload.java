@@ -12,6 +12,36 @@ public class Payload implements Serializable {
     private long clientId;
     private String message;
     private int numberValue;
+    // sampled end-to-end trace this payload belongs to (see TraceBuffer); 0 if
+    // untraced
+    private long traceId;
+    // set on shared instances (see CachedPayloads); not sent, so receivers get a
+    // normal mutable copy
+    private transient boolean frozen = false;
+
+    /**
+     * Makes this payload read-only; every setter throws afterwards. Used for
+     * instances shared across sends and connections.
+     *
+     * @return this payload
+     */
+    public Payload freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Subclass setters call this before changing state
+     */
+    protected void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Cached payload can't be modified: " + this);
+        }
+    }
 
     /**
      * @return the payloadType
@@ -24,6 +54,7 @@ public class Payload implements Serializable {
      * @param payloadType the payloadType to set
      */
     public void setPayloadType(PayloadType payloadType) {
+        checkNotFrozen();
         this.payloadType = payloadType;
     }
 
@@ -38,6 +69,7 @@ public class Payload implements Serializable {
      * @param clientId the clientId to set
      */
     public void setClientId(long clientId) {
+        checkNotFrozen();
         this.clientId = clientId;
     }
 
@@ -52,6 +84,7 @@ public class Payload implements Serializable {
      * @param message the message to set
      */
     public void setMessage(String message) {
+        checkNotFrozen();
         this.message = message;
     }
 
@@ -60,9 +93,19 @@ public class Payload implements Serializable {
     }
 
     public void setNumberValue(int numberValue) {
+        checkNotFrozen();
         this.numberValue = numberValue;
     }
 
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public void setTraceId(long traceId) {
+        checkNotFrozen();
+        this.traceId = traceId;
+    }
+
     @Override
     public String toString() {
         return String.format("Payload[%s] Client Id [%d] Message: [%s]",
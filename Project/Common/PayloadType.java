@@ -40,4 +40,7 @@ public enum PayloadType {
        AWAY_UPDATE, // used to update a player's away status
        AWAY_TOGGLE, // used to toggle a player's away status
        SPECTATOR_STATUS, // used to update a player's spectator status
+       ROUND_RESULT, // pairings, outcomes, eliminations and points of a resolved round
+       CLOCK_SYNC, // client/server timestamp exchange used to estimate clock offset and rtt
+       STATUS_DELTA, // batched per-player status flag changes (see PlayerStatus)
 }
\ No newline at end of file
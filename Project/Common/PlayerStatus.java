@@ -0,0 +1,23 @@
+package Project.Common;
+
+/**
+ * Per-player status bits shared by the server's PlayerTable and
+ * StatusDeltaPayload.
+ */
+public final class PlayerStatus {
+    public static final byte READY = 1;
+    public static final byte TOOK_TURN = 1 << 1;
+    public static final byte ELIMINATED = 1 << 2;
+    public static final byte AWAY = 1 << 3;
+    public static final byte SPECTATOR = 1 << 4;
+    // still has to pick this round (derived on the server, not stored)
+    public static final byte PENDING = 1 << 5;
+    // not a status: set in a delta entry's changed mask when every change in it
+    // is a silent sync (what SYNC_READY/SYNC_TURN used to be)
+    public static final byte QUIET = 1 << 6;
+
+    public static final byte ALL = READY | TOOK_TURN | ELIMINATED | AWAY | SPECTATOR | PENDING;
+
+    private PlayerStatus() {
+    }
+}
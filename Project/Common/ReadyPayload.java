@@ -12,6 +12,7 @@ public class ReadyPayload extends Payload {
     }
 
     public void setReady(boolean isReady) {
+        checkNotFrozen();
         this.isReady = isReady;
     }
 
@@ -0,0 +1,198 @@
+package Project.Common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Everything that happened when a round resolved, sent once per recipient.
+ * <p>
+ * Replaces the per-pairing/per-elimination GAME_EVENT strings and ELIMINATED
+ * broadcasts; the client renders the human-readable lines itself (see
+ * describe()).
+ * </p>
+ * Pairings are stored as parallel arrays; choices use Choice.toByte().
+ */
+public class RoundResultPayload extends Payload {
+    public static final byte A_WON = 1;
+    public static final byte B_WON = 2;
+    public static final byte TIE = 0;
+
+    private int round;
+    private long[] pairA = new long[0];
+    private long[] pairB = new long[0];
+    private byte[] choiceA = new byte[0];
+    private byte[] choiceB = new byte[0];
+    private byte[] outcomes = new byte[0];
+    // eliminated for not picking (before battles)
+    private long[] skipped = new long[0];
+    // eliminated by losing a battle
+    private long[] eliminated = new long[0];
+    // updated point totals for everyone who battled
+    private long[] pointIds = new long[0];
+    private int[] points = new int[0];
+    private int survivors;
+    private boolean gameOver;
+    private long winnerId = Constants.DEFAULT_CLIENT_ID;
+
+    public RoundResultPayload() {
+        setPayloadType(PayloadType.ROUND_RESULT);
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public void setRound(int round) {
+        this.round = round;
+    }
+
+    /**
+     * Sets the battles in the order they were resolved; all arrays must have the
+     * same length
+     *
+     * @param pairA    first player of each battle
+     * @param choiceA  first player's choice (Choice.toByte())
+     * @param pairB    second player of each battle
+     * @param choiceB  second player's choice (Choice.toByte())
+     * @param outcomes A_WON, B_WON or TIE per battle
+     */
+    public void setPairings(long[] pairA, byte[] choiceA, long[] pairB, byte[] choiceB, byte[] outcomes) {
+        this.pairA = pairA;
+        this.choiceA = choiceA;
+        this.pairB = pairB;
+        this.choiceB = choiceB;
+        this.outcomes = outcomes;
+    }
+
+    public int getPairingCount() {
+        return outcomes.length;
+    }
+
+    public long getPairA(int i) {
+        return pairA[i];
+    }
+
+    public long getPairB(int i) {
+        return pairB[i];
+    }
+
+    public Choice getChoiceA(int i) {
+        return Choice.fromByte(choiceA[i]);
+    }
+
+    public Choice getChoiceB(int i) {
+        return Choice.fromByte(choiceB[i]);
+    }
+
+    public byte getOutcome(int i) {
+        return outcomes[i];
+    }
+
+    /**
+     * @return ids eliminated for not picking
+     */
+    public long[] getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(long[] skipped) {
+        this.skipped = skipped;
+    }
+
+    /**
+     * @return ids eliminated by losing a battle
+     */
+    public long[] getEliminated() {
+        return eliminated;
+    }
+
+    public void setEliminated(long[] eliminated) {
+        this.eliminated = eliminated;
+    }
+
+    /**
+     * @param pointIds client ids whose totals are included
+     * @param points   the matching point totals
+     */
+    public void setPoints(long[] pointIds, int[] points) {
+        this.pointIds = pointIds;
+        this.points = points;
+    }
+
+    public long[] getPointIds() {
+        return pointIds;
+    }
+
+    public int[] getPoints() {
+        return points;
+    }
+
+    public int getSurvivors() {
+        return survivors;
+    }
+
+    public void setSurvivors(int survivors) {
+        this.survivors = survivors;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * @param winnerId the last survivor or DEFAULT_CLIENT_ID for a tie
+     */
+    public void setGameOver(long winnerId) {
+        this.gameOver = true;
+        this.winnerId = winnerId;
+    }
+
+    public long getWinnerId() {
+        return winnerId;
+    }
+
+    /**
+     * Renders the result as the lines the server used to broadcast individually
+     *
+     * @param displayName resolves a client id to a display name
+     * @return the lines in order
+     */
+    public List<String> describe(LongFunction<String> displayName) {
+        List<String> lines = new ArrayList<>(skipped.length + outcomes.length + eliminated.length + 2);
+        for (long id : skipped) {
+            lines.add(displayName.apply(id) + " was eliminated for not picking.");
+        }
+        for (int i = 0; i < outcomes.length; i++) {
+            String a = displayName.apply(pairA[i]) + " (" + getChoiceA(i).code + ")";
+            String b = displayName.apply(pairB[i]) + " (" + getChoiceB(i).code + ")";
+            switch (outcomes[i]) {
+                case A_WON:
+                    lines.add(a + " beat " + b);
+                    break;
+                case B_WON:
+                    lines.add(b + " beat " + a);
+                    break;
+                default:
+                    lines.add(a + " tied with " + b);
+                    break;
+            }
+        }
+        for (long id : eliminated) {
+            lines.add(displayName.apply(id) + " was eliminated.");
+        }
+        lines.add("Survivors remaining: " + survivors);
+        if (gameOver) {
+            lines.add(winnerId != Constants.DEFAULT_CLIENT_ID
+                    ? "Game Over! Winner: " + displayName.apply(winnerId)
+                    : "Game Over! It's a tie!");
+        }
+        return lines;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + String.format(" round=%d pairings=%d skipped=%d eliminated=%d survivors=%d", round,
+                outcomes.length, skipped.length, eliminated.length, survivors);
+    }
+}
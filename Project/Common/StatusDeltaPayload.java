@@ -0,0 +1,92 @@
+package Project.Common;
+
+/**
+ * Any number of player status changes in one payload: for each entry, which
+ * PlayerStatus bits changed and their new values.
+ * <p>
+ * Replaces the READY/SYNC_READY, TURN/SYNC_TURN, PENDING_PICK, ELIMINATED,
+ * AWAY_UPDATE and SPECTATOR_STATUS payloads that were sent one per change per
+ * member; a room merges everything one event changed into a single delta per
+ * recipient. Entries are stored as parallel arrays.
+ * </p>
+ */
+public class StatusDeltaPayload extends Payload {
+    private long[] clientIds = new long[0];
+    private byte[] changed = new byte[0];
+    private byte[] flags = new byte[0];
+
+    public StatusDeltaPayload() {
+        setPayloadType(PayloadType.STATUS_DELTA);
+    }
+
+    /**
+     * All arrays must have the same length
+     *
+     * @param clientIds whose status changed
+     * @param changed   PlayerStatus bits that changed per entry (plus QUIET)
+     * @param flags     new values of the changed bits per entry
+     */
+    public void setEntries(long[] clientIds, byte[] changed, byte[] flags) {
+        checkNotFrozen();
+        this.clientIds = clientIds;
+        this.changed = changed;
+        this.flags = flags;
+    }
+
+    public int getCount() {
+        return clientIds.length;
+    }
+
+    public long getClientId(int i) {
+        return clientIds[i];
+    }
+
+    /**
+     * @param i
+     * @param bit a PlayerStatus bit
+     * @return true if entry i carries a new value for the bit
+     */
+    public boolean changed(int i, byte bit) {
+        return (changed[i] & bit) != 0;
+    }
+
+    /**
+     * @param i
+     * @param bit a PlayerStatus bit
+     * @return the bit's new value in entry i (only meaningful if changed)
+     */
+    public boolean has(int i, byte bit) {
+        return (flags[i] & bit) != 0;
+    }
+
+    public boolean isQuiet(int i) {
+        return (changed[i] & PlayerStatus.QUIET) != 0;
+    }
+
+    /**
+     * @param clientId
+     * @param bit
+     * @return true if an entry for clientId sets the bit on
+     */
+    public boolean isSet(long clientId, byte bit) {
+        for (int i = 0; i < clientIds.length; i++) {
+            if (clientIds[i] == clientId && changed(i, bit)) {
+                return has(i, bit);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(super.toString()).append(" entries [");
+        for (int i = 0; i < clientIds.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(clientIds[i]).append(':').append(Integer.toBinaryString(changed[i] & 0xFF)).append('/')
+                    .append(Integer.toBinaryString(flags[i] & 0xFF));
+        }
+        return sb.append(']').toString();
+    }
+}
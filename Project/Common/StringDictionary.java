@@ -0,0 +1,116 @@
+package Project.Common;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded string-to-id table shared by DictionaryObjectOutputStream and
+ * DictionaryObjectInputStream.
+ * <p>
+ * Nothing extra goes on the wire to set up an entry: both ends see the same
+ * strings in the same order, so the first time an eligible string crosses a
+ * connection each side gives it the next id, and after that it travels as a
+ * short reference token. Both sides also touch entries in the same order, so
+ * when the table is full they evict the same least recently used entry and
+ * reuse its id.
+ * </p>
+ */
+final class StringDictionary {
+    // a reference token is REF followed by the id in base-127 digits (chars
+    // 1..127 are one byte each in the stream's modified UTF-8)
+    static final char REF = '\u001F';
+    // prefixed to real strings that happen to start with REF or ESCAPE
+    static final char ESCAPE = '\u001E';
+    private static final int DIGIT_BASE = 127;
+
+    // a token is 2-3 chars, so shorter strings wouldn't get any smaller
+    static final int MIN_LENGTH = 6;
+    // long chat text rarely repeats; keep it from pushing names out
+    static final int MAX_LENGTH = 64;
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    // access order: the eldest entry is the least recently used
+    private final LinkedHashMap<String, Integer> ids;
+    private final String[] byId;
+
+    StringDictionary(int capacity) {
+        if (capacity < 1 || capacity > DIGIT_BASE * DIGIT_BASE) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + DIGIT_BASE * DIGIT_BASE);
+        }
+        this.capacity = capacity;
+        this.ids = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true);
+        this.byId = new String[capacity];
+    }
+
+    static boolean isEligible(String s) {
+        int length = s.length();
+        return length >= MIN_LENGTH && length <= MAX_LENGTH;
+    }
+
+    static boolean needsEscape(String s) {
+        if (s.isEmpty()) {
+            return false;
+        }
+        char first = s.charAt(0);
+        return first == REF || first == ESCAPE;
+    }
+
+    /**
+     * @return the id for s (marking it used), or -1 if it isn't in the table
+     */
+    int lookup(String s) {
+        Integer id = ids.get(s);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return the string for id (marking it used)
+     */
+    String resolve(int id) {
+        String s = id >= 0 && id < capacity ? byId[id] : null;
+        if (s == null) {
+            throw new IllegalStateException("Unknown string dictionary id " + id);
+        }
+        ids.get(s);
+        return s;
+    }
+
+    /**
+     * Adds s, evicting the least recently used entry when full
+     */
+    void define(String s) {
+        int id = ids.size();
+        if (id == capacity) {
+            Iterator<Map.Entry<String, Integer>> eldest = ids.entrySet().iterator();
+            id = eldest.next().getValue();
+            eldest.remove();
+        }
+        ids.put(s, id);
+        byId[id] = s;
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    /**
+     * @return a new token instance every time: a shared one could be written as
+     *         a back-reference, which the reader resolves without touching its
+     *         table, and the two ends' LRU order would drift apart
+     */
+    static String token(int id) {
+        return id < DIGIT_BASE - 1
+                ? new String(new char[] { REF, (char) (id + 1) })
+                : new String(new char[] { REF, (char) (id / DIGIT_BASE + 1), (char) (id % DIGIT_BASE + 1) });
+    }
+
+    static int parseToken(String token) {
+        int id = 0;
+        for (int i = 1; i < token.length(); i++) {
+            id = id * DIGIT_BASE + (token.charAt(i) - 1);
+        }
+        return id;
+    }
+}
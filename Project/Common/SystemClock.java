@@ -0,0 +1,119 @@
+package Project.Common;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wall-clock GameClock. Every timer shares one small pool of daemon threads
+ * instead of each TimedEvent starting (and possibly leaking) its own
+ * java.util.Timer thread.
+ * <p>
+ * The pool only fires timers: each callback then runs on its own daemon thread
+ * (reused once idle). Callbacks take room locks and write to sockets, which
+ * have no write timeout, so a client that stopped reading stalls only its own
+ * room's timers, as it did with a thread per timer.
+ * </p>
+ */
+public enum SystemClock implements GameClock {
+    INSTANCE;
+
+    // idle callback threads are kept this long for the next timer
+    private static final long CALLBACK_KEEP_ALIVE_SECONDS = 60;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ThreadPoolExecutor callbacks;
+
+    SystemClock() {
+        // -Dgame.clockThreads sets how many threads fire timers (resizable at
+        // runtime with setCorePoolSize, e.g. over JMX)
+        int threads = Math.max(1, Integer.getInteger("game.clockThreads", 2));
+        AtomicInteger count = new AtomicInteger();
+        scheduler = new ScheduledThreadPoolExecutor(threads, r -> {
+            Thread t = new Thread(r, "game-clock-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // cancelled round timers shouldn't sit in the queue until they'd have fired
+        scheduler.setRemoveOnCancelPolicy(true);
+        AtomicInteger callbackCount = new AtomicInteger();
+        callbacks = new ThreadPoolExecutor(0, Integer.MAX_VALUE, CALLBACK_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+                    Thread t = new Thread(r, "game-clock-callback-" + callbackCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public Task schedule(Runnable task, long delayMillis) {
+        Runnable guarded = guard(task);
+        return wrap(scheduler.schedule(() -> callbacks.execute(guarded), delayMillis, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public Task scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis) {
+        Runnable guarded = guard(task);
+        // a run still going when the next is due skips it, like the executor
+        // never overlapping a periodic task with itself
+        AtomicBoolean running = new AtomicBoolean();
+        return wrap(scheduler.scheduleAtFixedRate(() -> {
+            if (running.compareAndSet(false, true)) {
+                callbacks.execute(() -> {
+                    try {
+                        guarded.run();
+                    } finally {
+                        running.set(false);
+                    }
+                });
+            }
+        }, initialDelayMillis, periodMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * @return threads that fire timers
+     */
+    public int getCorePoolSize() {
+        return scheduler.getCorePoolSize();
+    }
+
+    /**
+     * @param threads threads that fire timers (at least 1)
+     */
+    public void setCorePoolSize(int threads) {
+        scheduler.setCorePoolSize(Math.max(1, threads));
+    }
+
+    /**
+     * @return timer callbacks running right now (a stuck room's stay counted)
+     */
+    public int getActiveCallbacks() {
+        return callbacks.getActiveCount();
+    }
+
+    private static Task wrap(ScheduledFuture<?> future) {
+        return () -> future.cancel(false);
+    }
+
+    /**
+     * Logs a failing callback instead of letting it vanish in the executor
+     */
+    private static Runnable guard(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                LoggerUtil.INSTANCE.severe("Timer callback failed", e);
+            }
+        };
+    }
+}
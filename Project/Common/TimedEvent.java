@@ -2,20 +2,21 @@ package Project.Common;
 
 /* Originally based off of https://gist.github.com/MattToegel/c55747f26c5092d6362678d5b1729ec6 */
 
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.function.Consumer;
+import java.util.concurrent.CountDownLatch;
 
 /**
- * Simple countdown timer demo of java.util.Timer facility.
+ * Simple countdown timer on a GameClock (wall-clock SystemClock unless one is
+ * passed in). Only the expiry is scheduled; the remaining time is derived from
+ * the deadline when asked for.
  * Formerly called Countdown
  */
 
 public class TimedEvent {
-    private int secondsRemaining;
-    private Runnable expireCallback = null;
-    private Consumer<Integer> tickCallback = null;
-    final private Timer timer;
+    // clock epoch millis when the expire callback is due
+    private volatile long deadline;
+    private volatile Runnable expireCallback = null;
+    final private GameClock clock;
+    private GameClock.Task timer;
 
     /**
      * Create a TimedEvent to trigger the passed in callback after a set duration
@@ -24,45 +25,57 @@ public class TimedEvent {
      * @param callback
      */
     public TimedEvent(int durationInSeconds, Runnable callback) {
-        this(durationInSeconds);
+        this(durationInSeconds, callback, SystemClock.INSTANCE);
+    }
+
+    /**
+     * Create a TimedEvent on the given clock to trigger the passed in callback
+     * after a set duration
+     * 
+     * @param durationInSeconds
+     * @param callback
+     * @param clock
+     */
+    public TimedEvent(int durationInSeconds, Runnable callback, GameClock clock) {
+        this(durationInSeconds, clock);
         this.expireCallback = callback;
     }
 
     /**
      * Create a TimedEvent to trigger after a set duration.
-     * Note: Requires expireCallback and/or tickCallback to be set otherwise it'll
-     * do nothing
+     * Note: Requires expireCallback to be set otherwise it'll do nothing
      * 
      * @param durationInSeconds
      */
     public TimedEvent(int durationInSeconds) {
-        timer = new Timer();
-        secondsRemaining = durationInSeconds;
-        timer.scheduleAtFixedRate(new TimerTask() {
-            public void run() {
-                secondsRemaining--;
-                if (tickCallback != null) {
-                    tickCallback.accept(secondsRemaining);
-                }
-                if (secondsRemaining <= 0) {
-                    timer.cancel();
-                    secondsRemaining = 0;
-                    if (expireCallback != null) {
-                        expireCallback.run();
-                    }
-                }
-            }
-        }, 1000, 1000);
+        this(durationInSeconds, SystemClock.INSTANCE);
     }
 
     /**
-     * Set a method to be called every timer tick; it'll receive the current time of
-     * the timer.
+     * Create a TimedEvent on the given clock to trigger after a set duration.
+     * Note: Requires expireCallback to be set otherwise it'll do nothing
      * 
-     * @param callback
+     * @param durationInSeconds
+     * @param clock
      */
-    public void setTickCallback(Consumer<Integer> callback) {
-        tickCallback = callback;
+    public TimedEvent(int durationInSeconds, GameClock clock) {
+        this.clock = clock;
+        schedule(durationInSeconds);
+    }
+
+    private synchronized void schedule(int durationInSeconds) {
+        if (timer != null) {
+            timer.cancel();
+        }
+        deadline = clock.currentTimeMillis() + durationInSeconds * 1000L;
+        timer = clock.schedule(this::expire, durationInSeconds * 1000L);
+    }
+
+    private void expire() {
+        Runnable onExpire = expireCallback;
+        if (onExpire != null) {
+            onExpire.run();
+        }
     }
 
     /**
@@ -77,21 +90,32 @@ public class TimedEvent {
     /**
      * Removes all callback references and cancels the timer
      */
-    public void cancel() {
+    public synchronized void cancel() {
         expireCallback = null;
-        tickCallback = null;
         timer.cancel();
     }
 
     /**
-     * Used to override the remaining countdown durationInSeconds
+     * Used to override the remaining countdown durationInSeconds (reschedules
+     * the expiry)
      */
     public void setDurationInSeconds(int d) {
-        secondsRemaining = d;
+        schedule(d);
+    }
+
+    /**
+     * @return epoch millis (on this timer's clock) when the timer expires
+     */
+    public long getDeadline() {
+        return deadline;
     }
 
+    /**
+     * @return whole seconds until the deadline, 0 once it has passed
+     */
     public int getRemainingTime() {
-        return secondsRemaining;
+        long millis = deadline - clock.currentTimeMillis();
+        return millis <= 0 ? 0 : (int) ((millis + 999) / 1000);
     }
 
     /**
@@ -99,12 +123,14 @@ public class TimedEvent {
      * 
      * @param args
      */
-    public static void main(String args[]) {
-        TimedEvent cd = new TimedEvent(30, () -> {
+    public static void main(String args[]) throws InterruptedException {
+        // the clock's threads are daemons, so wait for the callback before exiting
+        CountDownLatch expired = new CountDownLatch(1);
+        TimedEvent cd = new TimedEvent(3, () -> {
             System.out.println("Time expired");
+            expired.countDown();
         });
-        cd.setTickCallback((tick) -> {
-            System.out.println("Tick: " + tick);
-        });
+        System.out.println("Expires in " + cd.getRemainingTime() + "s");
+        expired.await();
     }
 }
\ No newline at end of file
@@ -1,13 +1,28 @@
 package Project.Common;
 
+/**
+ * Announces (or cancels) a countdown.
+ * <p>
+ * Sent once per timer start/extension rather than every second: the client
+ * converts the absolute deadline to its own clock using serverTime and runs
+ * the countdown locally.
+ * </p>
+ */
 public class TimerPayload extends Payload {
     private int time;
     private TimerType timerType;
+    // server epoch millis when the timer expires; -1 when cancelled
+    private long deadline = -1;
+    // server epoch millis when this payload was created
+    private long serverTime;
 
     public TimerPayload() {
         setPayloadType(PayloadType.TIME);
     }
 
+    /**
+     * @return whole seconds remaining when sent (-1 when cancelled)
+     */
     public int getTime() {
         return time;
     }
@@ -23,4 +38,37 @@ public class TimerPayload extends Payload {
     public void setTime(int time) {
         this.time = time;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return the server-clock expiry in epoch millis or -1 if cancelled
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Sets the expiry (and the derived seconds remaining) relative to the
+     * current server time
+     *
+     * @param deadline   server epoch millis or -1 to cancel
+     * @param serverTime server epoch millis now
+     */
+    public void setDeadline(long deadline, long serverTime) {
+        this.deadline = deadline;
+        this.serverTime = serverTime;
+        this.time = deadline < 0 ? -1 : (int) Math.max(0, (deadline - serverTime + 999) / 1000);
+    }
+
+    public long getServerTime() {
+        return serverTime;
+    }
+
+    public boolean isCancelled() {
+        return deadline < 0;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + String.format(" timer=%s deadline=%d serverTime=%d", timerType, deadline, serverTime);
+    }
+}
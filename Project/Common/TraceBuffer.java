@@ -0,0 +1,191 @@
+package Project.Common;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Process-local buffer of timed spans for sampled requests (end-to-end
+ * tracing).
+ * <p>
+ * A client gives 1 in sampleOneIn of its picks and chat messages a random
+ * trace id (Payload.setTraceId). The server makes that id the current trace of
+ * the thread handling the payload, and every payload that thread sends while
+ * handling it is stamped with the id, so the hop back to each client carries
+ * it too. Every hop records a span (name, start, duration) here; TraceReport
+ * merges the exports of the server and its clients into per-trace timelines.
+ * </p>
+ * <p>
+ * Span times are epoch microseconds on the server's clock: a client sets its
+ * ClockSync offset with setClockOffsetMillis() so its spans line up with the
+ * server's. The buffer is a fixed ring; the oldest spans are overwritten.
+ * Untraced payloads cost one ThreadLocal read per hop.
+ * </p>
+ */
+public enum TraceBuffer {
+    INSTANCE;
+
+    public static final String CLIENT_SEND = "client.send";
+    public static final String SERVER_PROCESS = "server.process";
+    public static final String SERVER_VALIDATE = "server.validate";
+    public static final String SERVER_BROADCAST = "server.broadcast";
+    public static final String SERVER_SEND = "server.send";
+    public static final String CLIENT_RENDER = "client.render";
+
+    // no trace (Payload's default)
+    public static final long NONE = 0;
+    private static final int CAPACITY = 16384;
+    static final String HEADER = "#traceId\tspan\tstartMicros\tdurationMicros\tclientId\tprocess";
+
+    // epoch micros at nanoTime NANO_BASE; nanoTime deltas keep spans monotonic
+    private static final long NANO_BASE = System.nanoTime();
+    private static final long EPOCH_MICROS_BASE = System.currentTimeMillis() * 1000;
+
+    private final long[] traceIds = new long[CAPACITY];
+    private final String[] names = new String[CAPACITY];
+    private final long[] starts = new long[CAPACITY];
+    private final long[] durations = new long[CAPACITY];
+    private final long[] clientIds = new long[CAPACITY];
+    private long written = 0;
+
+    private final ThreadLocal<long[]> current = ThreadLocal.withInitial(() -> new long[1]);
+    // -Dtrace.sampleOneIn=0 turns tracing off
+    private volatile int sampleOneIn = Integer.getInteger("trace.sampleOneIn", 100);
+    private volatile long clockOffsetMicros = 0;
+    private volatile String processName = "pid-" + ProcessHandle.current().pid();
+
+    public void setSampleOneIn(int sampleOneIn) {
+        this.sampleOneIn = sampleOneIn;
+    }
+
+    /**
+     * @param offset server clock minus local clock (ClockSync.getOffset())
+     */
+    public void setClockOffsetMillis(long offset) {
+        this.clockOffsetMicros = offset * 1000;
+    }
+
+    /**
+     * @param processName written with every exported span (i.e., "server")
+     */
+    public void setProcessName(String processName) {
+        this.processName = processName;
+    }
+
+    /**
+     * @return a new trace id for 1 in sampleOneIn calls, otherwise NONE
+     */
+    public long newTraceId() {
+        int oneIn = sampleOneIn;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (oneIn <= 0 || (oneIn > 1 && random.nextInt(oneIn) != 0)) {
+            return NONE;
+        }
+        long id;
+        do {
+            id = random.nextLong() & Long.MAX_VALUE;
+        } while (id == NONE);
+        return id;
+    }
+
+    /**
+     * @return the trace the calling thread is handling, or NONE
+     */
+    public long current() {
+        return current.get()[0];
+    }
+
+    /**
+     * Makes traceId the calling thread's current trace (NONE to clear it)
+     */
+    public void setCurrent(long traceId) {
+        current.get()[0] = traceId;
+    }
+
+    /**
+     * Stamps payload with the current trace unless it already has one or is
+     * frozen (shared payloads are stamped before they're frozen)
+     */
+    public void stamp(Payload payload) {
+        long traceId = current();
+        if (traceId != NONE && payload.getTraceId() == NONE && !payload.isFrozen()) {
+            payload.setTraceId(traceId);
+        }
+    }
+
+    /**
+     * Records a span of the current trace ending now; no-op if the thread
+     * isn't handling a traced payload
+     *
+     * @param startNanos System.nanoTime() when the span started
+     */
+    public void span(String name, long startNanos, long clientId) {
+        long traceId = current();
+        if (traceId != NONE) {
+            record(traceId, name, startNanos, System.nanoTime(), clientId);
+        }
+    }
+
+    /**
+     * Records a span; no-op for NONE
+     *
+     * @param startNanos System.nanoTime() when the span started
+     * @param endNanos   System.nanoTime() when it ended
+     */
+    public void record(long traceId, String name, long startNanos, long endNanos, long clientId) {
+        if (traceId == NONE) {
+            return;
+        }
+        long start = EPOCH_MICROS_BASE + (startNanos - NANO_BASE) / 1000 + clockOffsetMicros;
+        synchronized (this) {
+            int i = (int) (written++ % CAPACITY);
+            traceIds[i] = traceId;
+            names[i] = name;
+            starts[i] = start;
+            durations[i] = Math.max(0, (endNanos - startNanos) / 1000);
+            clientIds[i] = clientId;
+        }
+    }
+
+    /**
+     * @return spans currently buffered
+     */
+    public synchronized int size() {
+        return (int) Math.min(written, CAPACITY);
+    }
+
+    /**
+     * Writes the buffered spans, oldest first, as tab-separated lines (see
+     * HEADER); the format TraceReport reads
+     */
+    public void export(Appendable out) throws IOException {
+        String process = processName;
+        StringBuilder sb = new StringBuilder(HEADER).append('\n');
+        synchronized (this) {
+            for (long n = Math.max(0, written - CAPACITY); n < written; n++) {
+                int i = (int) (n % CAPACITY);
+                sb.append(Long.toHexString(traceIds[i])).append('\t').append(names[i]).append('\t')
+                        .append(starts[i]).append('\t').append(durations[i]).append('\t')
+                        .append(clientIds[i]).append('\t').append(process).append('\n');
+            }
+        }
+        out.append(sb);
+    }
+
+    /**
+     * Writes export() to file if any spans were recorded
+     *
+     * @return true if the file was written
+     */
+    public boolean exportTo(Path file) throws IOException {
+        if (size() == 0) {
+            return false;
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            export(writer);
+        }
+        return true;
+    }
+}
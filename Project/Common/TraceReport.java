@@ -0,0 +1,224 @@
+package Project.Common;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges TraceBuffer exports (the server's and its clients') into per-request
+ * timelines and a per-stage latency breakdown: pick/message sent, received and
+ * validated by the server, broadcast, and rendered by the clients.
+ * <p>
+ * Run: java Project.Common.TraceReport server-traces.tsv client-traces.tsv
+ * </p>
+ * Options (all optional): --timelines=5 (how many of the slowest traces to
+ * print in full) --trace=3f2a... (print only this trace)
+ * <p>
+ * Client spans are on the server's clock (ClockSync offset), so cross-process
+ * stages are only as accurate as that estimate; a stage that comes out
+ * negative counts as 0.
+ * </p>
+ */
+public class TraceReport {
+
+    public static class Config {
+        public final List<Path> files = new ArrayList<>();
+        public int timelines = 5;
+        public long trace = TraceBuffer.NONE;
+
+        public static Config parse(String[] args) {
+            Config c = new Config();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    c.files.add(Path.of(arg));
+                    continue;
+                }
+                String[] kv = arg.substring(2).split("=", 2);
+                if (kv.length != 2) {
+                    throw new IllegalArgumentException("Expected --key=value but got " + arg);
+                }
+                switch (kv[0]) {
+                    case "timelines" -> c.timelines = Integer.parseInt(kv[1]);
+                    case "trace" -> c.trace = Long.parseUnsignedLong(kv[1], 16);
+                    default -> throw new IllegalArgumentException("Unknown option " + kv[0]);
+                }
+            }
+            if (c.files.isEmpty()) {
+                throw new IllegalArgumentException("Expected at least one trace export");
+            }
+            return c;
+        }
+    }
+
+    /**
+     * One exported span
+     */
+    public static final class Span {
+        public final long traceId;
+        public final String name;
+        public final long startMicros;
+        public final long durationMicros;
+        public final long clientId;
+        public final String process;
+
+        Span(long traceId, String name, long startMicros, long durationMicros, long clientId, String process) {
+            this.traceId = traceId;
+            this.name = name;
+            this.startMicros = startMicros;
+            this.durationMicros = durationMicros;
+            this.clientId = clientId;
+            this.process = process;
+        }
+
+        long endMicros() {
+            return startMicros + durationMicros;
+        }
+    }
+
+    /**
+     * Per-trace stage, computed from the trace's spans (Long.MIN_VALUE if the
+     * spans it needs weren't recorded)
+     */
+    private enum Stage {
+        SEND("client send"),
+        TO_SERVER("client -> server"),
+        VALIDATE("server validate"),
+        BROADCAST("server broadcast"),
+        PROCESS("server process (total)"),
+        TO_RENDER("server -> first render"),
+        FIRST_RENDER("end to end, first render"),
+        LAST_RENDER("end to end, last render");
+
+        final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Reads a TraceBuffer export; comment lines and malformed lines are skipped
+     */
+    public static List<Span> read(Path file) throws IOException {
+        List<Span> spans = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] f = line.split("\t");
+            if (f.length < 6) {
+                continue;
+            }
+            try {
+                spans.add(new Span(Long.parseUnsignedLong(f[0], 16), f[1], Long.parseLong(f[2]),
+                        Long.parseLong(f[3]), Long.parseLong(f[4]), f[5]));
+            } catch (NumberFormatException e) {
+                // not a span line
+            }
+        }
+        return spans;
+    }
+
+    private static Span first(List<Span> spans, String name) {
+        for (Span span : spans) {
+            if (span.name.equals(name)) {
+                return span;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param spans one trace's spans, sorted by start
+     */
+    private static long stage(Stage stage, List<Span> spans) {
+        Span send = first(spans, TraceBuffer.CLIENT_SEND);
+        Span process = first(spans, TraceBuffer.SERVER_PROCESS);
+        long firstRender = Long.MAX_VALUE;
+        long lastRender = Long.MIN_VALUE;
+        for (Span span : spans) {
+            if (span.name.equals(TraceBuffer.CLIENT_RENDER)) {
+                firstRender = Math.min(firstRender, span.endMicros());
+                lastRender = Math.max(lastRender, span.endMicros());
+            }
+        }
+        boolean rendered = lastRender != Long.MIN_VALUE;
+        return switch (stage) {
+            case SEND -> send != null ? send.durationMicros : Long.MIN_VALUE;
+            case TO_SERVER -> send != null && process != null ? process.startMicros - send.startMicros
+                    : Long.MIN_VALUE;
+            case VALIDATE -> duration(first(spans, TraceBuffer.SERVER_VALIDATE));
+            case BROADCAST -> duration(first(spans, TraceBuffer.SERVER_BROADCAST));
+            case PROCESS -> duration(process);
+            case TO_RENDER -> process != null && rendered ? firstRender - process.endMicros() : Long.MIN_VALUE;
+            case FIRST_RENDER -> send != null && rendered ? firstRender - send.startMicros : Long.MIN_VALUE;
+            case LAST_RENDER -> send != null && rendered ? lastRender - send.startMicros : Long.MIN_VALUE;
+        };
+    }
+
+    private static long duration(Span span) {
+        return span != null ? span.durationMicros : Long.MIN_VALUE;
+    }
+
+    private static void printTimeline(long traceId, List<Span> spans) {
+        long origin = spans.get(0).startMicros;
+        long end = spans.stream().mapToLong(Span::endMicros).max().orElse(origin);
+        System.out.println(String.format("trace %s: %d spans over %.3fms", Long.toHexString(traceId), spans.size(),
+                (end - origin) / 1000.0));
+        for (Span span : spans) {
+            System.out.println(String.format("  +%9.3fms %-17s %9.3fms  client %-6d %s",
+                    (span.startMicros - origin) / 1000.0, span.name, span.durationMicros / 1000.0, span.clientId,
+                    span.process));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Config config = Config.parse(args);
+        Map<Long, List<Span>> traces = new LinkedHashMap<>();
+        int spanCount = 0;
+        for (Path file : config.files) {
+            for (Span span : read(file)) {
+                if (config.trace == TraceBuffer.NONE || span.traceId == config.trace) {
+                    traces.computeIfAbsent(span.traceId, k -> new ArrayList<>()).add(span);
+                    spanCount++;
+                }
+            }
+        }
+        traces.values().forEach(spans -> spans.sort(Comparator.comparingLong(span -> span.startMicros)));
+        System.out.println(String.format("%d traces, %d spans from %d files", traces.size(), spanCount,
+                config.files.size()));
+        if (traces.isEmpty()) {
+            return;
+        }
+        if (config.trace != TraceBuffer.NONE) {
+            traces.forEach(TraceReport::printTimeline);
+            return;
+        }
+
+        System.out.println("Stage breakdown per trace:");
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (List<Span> spans : traces.values()) {
+                long micros = stage(stage, spans);
+                if (micros != Long.MIN_VALUE) {
+                    histogram.recordMicros(Math.max(0, micros));
+                }
+            }
+            System.out.println(String.format("  %-26s %s", stage.label, histogram.summary()));
+        }
+
+        if (config.timelines > 0) {
+            System.out.println(String.format("Slowest %d traces (end to end, last render):", config.timelines));
+            traces.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(stage(Stage.LAST_RENDER, b.getValue()),
+                            stage(Stage.LAST_RENDER, a.getValue())))
+                    .limit(config.timelines)
+                    .forEach(e -> printTimeline(e.getKey(), e.getValue()));
+        }
+    }
+}
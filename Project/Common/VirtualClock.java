@@ -0,0 +1,141 @@
+package Project.Common;
+
+import java.util.PriorityQueue;
+
+/**
+ * GameClock for simulations: time only moves when advance()/runNext() is
+ * called, and due callbacks run on that calling thread in (due time,
+ * scheduling order) order. A 30 second round timer costs nothing to wait out
+ * and the same inputs always produce the same sequence of events.
+ */
+public class VirtualClock implements GameClock {
+
+    private static class ScheduledTask implements Task, Comparable<ScheduledTask> {
+        final Runnable task;
+        final long periodMillis;
+        final long seq;
+        long due;
+        volatile boolean cancelled = false;
+
+        ScheduledTask(Runnable task, long due, long periodMillis, long seq) {
+            this.task = task;
+            this.due = due;
+            this.periodMillis = periodMillis;
+            this.seq = seq;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            int byDue = Long.compare(due, other.due);
+            return byDue != 0 ? byDue : Long.compare(seq, other.seq);
+        }
+    }
+
+    private final PriorityQueue<ScheduledTask> queue = new PriorityQueue<>();
+    private long now;
+    private long nextSeq = 0;
+    private long tasksRun = 0;
+
+    /**
+     * @param startMillis the virtual epoch millis to start at
+     */
+    public VirtualClock(long startMillis) {
+        this.now = startMillis;
+    }
+
+    @Override
+    public synchronized long currentTimeMillis() {
+        return now;
+    }
+
+    @Override
+    public synchronized Task schedule(Runnable task, long delayMillis) {
+        return enqueue(task, delayMillis, 0);
+    }
+
+    @Override
+    public synchronized Task scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        return enqueue(task, initialDelayMillis, periodMillis);
+    }
+
+    private ScheduledTask enqueue(Runnable task, long delayMillis, long periodMillis) {
+        ScheduledTask scheduled = new ScheduledTask(task, now + Math.max(0, delayMillis), periodMillis, nextSeq++);
+        queue.add(scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Moves time forward, running every callback that comes due on the way
+     * (including ones scheduled by those callbacks)
+     *
+     * @param millis
+     */
+    public void advance(long millis) {
+        long target;
+        synchronized (this) {
+            target = now + millis;
+        }
+        while (runNext(target)) {
+            // keep going until nothing is due before the target
+        }
+        synchronized (this) {
+            now = Math.max(now, target);
+        }
+    }
+
+    /**
+     * Jumps straight to the next pending callback and runs it
+     *
+     * @return false if nothing is scheduled
+     */
+    public boolean runNext() {
+        return runNext(Long.MAX_VALUE);
+    }
+
+    private boolean runNext(long limit) {
+        ScheduledTask next;
+        synchronized (this) {
+            next = queue.peek();
+            while (next != null && next.cancelled) {
+                queue.poll();
+                next = queue.peek();
+            }
+            if (next == null || next.due > limit) {
+                return false;
+            }
+            queue.poll();
+            now = Math.max(now, next.due);
+            if (next.periodMillis > 0) {
+                next.due += next.periodMillis;
+                queue.add(next);
+            }
+            tasksRun++;
+        }
+        // outside the lock: callbacks take room locks and schedule more tasks
+        next.task.run();
+        return true;
+    }
+
+    /**
+     * @return callbacks still scheduled (cancelled ones may be counted until
+     *         they reach the front of the queue)
+     */
+    public synchronized int pending() {
+        return queue.size();
+    }
+
+    /**
+     * @return callbacks run so far
+     */
+    public synchronized long getTasksRun() {
+        return tasksRun;
+    }
+}
@@ -0,0 +1,379 @@
+package Project.LoadTest;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import Project.Common.Choice;
+import Project.Common.ConnectionPayload;
+import Project.Common.Constants;
+import Project.Common.DictionaryObjectInputStream;
+import Project.Common.DictionaryObjectOutputStream;
+import Project.Common.Payload;
+import Project.Common.PayloadType;
+import Project.Common.Phase;
+import Project.Common.PlayerStatus;
+import Project.Common.ReadyPayload;
+import Project.Common.RoundResultPayload;
+import Project.Common.StatusDeltaPayload;
+import Project.Common.TraceBuffer;
+
+/**
+ * One headless simulated player speaking the same wire protocol as Client.
+ * <p>
+ * Lifecycle: connect, create-or-join its GameRoom, ready up once the room is
+ * full, pick a random choice at a random point inside the round window
+ * whenever it's pending, ready again after each game and chat at a fixed rate.
+ * The socket is read on a virtual thread; timed actions run on the shared
+ * scheduler.
+ * </p>
+ */
+public class BotClient {
+    private static final String ECHO_MARKER = "lt#";
+    // unanswered chat messages older than this are counted as failures
+    private static final long ECHO_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final int index;
+    private final String roomName;
+    private final LoadGenerator.Config config;
+    private final LoadStats stats;
+    private final ScheduledExecutorService scheduler;
+
+    private Socket socket;
+    private ObjectOutputStream out;
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private volatile boolean running = false;
+    private long myId = Constants.DEFAULT_CLIENT_ID;
+
+    // state below is only touched by the reader thread
+    private final Set<Long> members = new HashSet<>();
+    private boolean joined = false;
+    private boolean readySent = false;
+    private boolean inGame = false;
+    private long joinStart = 0;
+
+    private volatile boolean canChat = false;
+    private volatile long pickStart = 0;
+    private long nextSeq = 0;
+    private final Map<Long, Long> pendingEchoes = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> chatTask = null;
+    private volatile int gamesCompleted = 0;
+
+    public BotClient(int index, String roomName, LoadGenerator.Config config, LoadStats stats,
+            ScheduledExecutorService scheduler) {
+        this.index = index;
+        this.roomName = roomName;
+        this.config = config;
+        this.stats = stats;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Opens the connection, sends the name and starts the reader
+     *
+     * @throws IOException
+     */
+    public void connect() throws IOException {
+        socket = new Socket(config.host, config.port);
+        socket.setTcpNoDelay(true);
+        out = new DictionaryObjectOutputStream(socket.getOutputStream());
+        ObjectInputStream in = new DictionaryObjectInputStream(socket.getInputStream());
+        running = true;
+        stats.connected.increment();
+        Thread.ofVirtual().name("bot-" + index).start(() -> listen(in));
+
+        ConnectionPayload hello = new ConnectionPayload();
+        hello.setPayloadType(PayloadType.CLIENT_CONNECT);
+        hello.setClientName("bot" + index);
+        send(hello);
+    }
+
+    public void close() {
+        running = false;
+        if (chatTask != null) {
+            chatTask.cancel(false);
+        }
+        try {
+            Payload bye = new Payload();
+            bye.setPayloadType(PayloadType.DISCONNECT);
+            send(bye);
+        } catch (IOException e) {
+            // already gone
+        }
+        try {
+            socket.close();
+        } catch (IOException | NullPointerException e) {
+            // already closed
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return number of games this bot has seen end (ROUND_RESULT with a winner
+     *         or a wipeout)
+     */
+    public int getGamesCompleted() {
+        return gamesCompleted;
+    }
+
+    /**
+     * Goes back to the lobby without disconnecting
+     */
+    public void leaveRoom() {
+        Payload p = new Payload();
+        p.setPayloadType(PayloadType.ROOM_LEAVE);
+        trySend(p);
+    }
+
+    private void send(Payload payload) throws IOException {
+        // a lock rather than synchronized: a virtual thread blocked in a socket
+        // write inside synchronized pins its carrier, and with few carriers every
+        // bot can end up stuck behind a server that's waiting on them
+        sendLock.lock();
+        try {
+            long start = System.nanoTime();
+            out.writeObject(payload);
+            out.flush();
+            TraceBuffer.INSTANCE.record(payload.getTraceId(), TraceBuffer.CLIENT_SEND, start, System.nanoTime(), myId);
+            stats.payloadsSent.increment();
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    private void trySend(Payload payload) {
+        try {
+            send(payload);
+        } catch (IOException e) {
+            if (running) {
+                stats.failures.increment();
+                close();
+            }
+        }
+    }
+
+    private void listen(ObjectInputStream in) {
+        try (in) {
+            while (running) {
+                Payload payload = (Payload) in.readObject();
+                stats.payloadsReceived.increment();
+                long start = System.nanoTime();
+                process(payload);
+                TraceBuffer.INSTANCE.record(payload.getTraceId(), TraceBuffer.CLIENT_RENDER, start, System.nanoTime(),
+                        myId);
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            if (running) {
+                stats.failures.increment();
+            }
+        } finally {
+            running = false;
+            stats.disconnected.increment();
+            if (chatTask != null) {
+                chatTask.cancel(false);
+            }
+        }
+    }
+
+    private void process(Payload payload) {
+        switch (payload.getPayloadType()) {
+            case CLIENT_ID:
+                myId = payload.getClientId();
+                joinStart = System.nanoTime();
+                sendRoomAction(PayloadType.ROOM_CREATE);
+                break;
+            case MESSAGE:
+                onMessage(payload);
+                break;
+            case ROOM_JOIN:
+            case SYNC_CLIENT:
+                onMember(payload, true);
+                break;
+            case ROOM_LEAVE:
+                onMember(payload, false);
+                break;
+            case PHASE:
+                if (Phase.IN_PROGRESS.name().equals(payload.getMessage())) {
+                    inGame = true;
+                } else if (Phase.READY.name().equals(payload.getMessage()) && inGame && joined) {
+                    // game over; queue up for the next one (a READY phase sync on
+                    // join isn't, and re-readying then would demote us mid-game)
+                    inGame = false;
+                    readySent = false;
+                    maybeReady();
+                }
+                break;
+            case STATUS_DELTA:
+                onStatus((StatusDeltaPayload) payload);
+                break;
+            case TURN_CONFIRMED:
+                long started = pickStart;
+                if (started != 0) {
+                    stats.pick.recordNanos(System.nanoTime() - started);
+                    stats.picks.increment();
+                    pickStart = 0;
+                }
+                break;
+            case ROUND_RESULT:
+                if (index % config.roomSize == 0) {
+                    // count each room's round once
+                    stats.roundResults.increment();
+                }
+                if (((RoundResultPayload) payload).isGameOver()) {
+                    gamesCompleted++;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onStatus(StatusDeltaPayload delta) {
+        for (int i = 0; i < delta.getCount(); i++) {
+            if (delta.getClientId(i) != myId) {
+                continue;
+            }
+            if (delta.changed(i, PlayerStatus.SPECTATOR)) {
+                canChat = !delta.has(i, PlayerStatus.SPECTATOR);
+            }
+            if (delta.changed(i, PlayerStatus.PENDING) && delta.has(i, PlayerStatus.PENDING)) {
+                schedulePick();
+            }
+        }
+    }
+
+    private void sendRoomAction(PayloadType type) {
+        Payload p = new Payload();
+        p.setPayloadType(type);
+        p.setMessage(roomName);
+        trySend(p);
+    }
+
+    private void onMessage(Payload payload) {
+        String message = payload.getMessage();
+        if (message == null) {
+            return;
+        }
+        if (payload.getClientId() == Constants.DEFAULT_CLIENT_ID && !joined && message.endsWith("already exists")) {
+            // another bot created it first
+            sendRoomAction(PayloadType.ROOM_JOIN);
+            return;
+        }
+        if (payload.getClientId() != myId) {
+            return;
+        }
+        int marker = message.lastIndexOf(ECHO_MARKER);
+        if (marker < 0) {
+            return;
+        }
+        try {
+            long seq = Long.parseLong(message.substring(marker + ECHO_MARKER.length()));
+            Long sentAt = pendingEchoes.remove(seq);
+            if (sentAt != null) {
+                stats.echo.recordNanos(System.nanoTime() - sentAt);
+                stats.messages.increment();
+            }
+        } catch (NumberFormatException e) {
+            // not one of ours
+        }
+    }
+
+    private void onMember(Payload payload, boolean present) {
+        long id = payload.getClientId();
+        if (id == Constants.DEFAULT_CLIENT_ID) {
+            members.clear();
+            return;
+        }
+        if (!roomName.equalsIgnoreCase(payload.getMessage())) {
+            return;
+        }
+        if (present) {
+            members.add(id);
+            if (id == myId && !joined) {
+                joined = true;
+                stats.join.recordNanos(System.nanoTime() - joinStart);
+                startChat();
+            }
+        } else {
+            members.remove(id);
+        }
+        maybeReady();
+    }
+
+    /**
+     * Readies once every bot assigned to the room has joined so games start with
+     * a full table
+     */
+    private void maybeReady() {
+        if (joined && !readySent && members.size() >= config.roomSize) {
+            readySent = true;
+            ReadyPayload rp = new ReadyPayload();
+            rp.setPayloadType(PayloadType.READY);
+            rp.setClientId(myId);
+            rp.setReady(true);
+            rp.setMessage("false"); // doesn't want to spectate
+            trySend(rp);
+        }
+    }
+
+    private void schedulePick() {
+        long delay = ThreadLocalRandom.current().nextLong(Math.max(config.pickWindowMs, 1));
+        scheduler.schedule(() -> {
+            if (!running) {
+                return;
+            }
+            Choice[] options = Choice.values();
+            // stay within the standard ruleset so picks are always valid
+            Choice choice = options[ThreadLocalRandom.current().nextInt(3)];
+            Payload p = new Payload();
+            p.setPayloadType(PayloadType.TURN);
+            p.setMessage(choice.toWire());
+            p.setTraceId(TraceBuffer.INSTANCE.newTraceId());
+            pickStart = System.nanoTime();
+            trySend(p);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void startChat() {
+        if (config.chatPerSecond <= 0) {
+            return;
+        }
+        long periodMicros = (long) (1_000_000 / config.chatPerSecond);
+        long initialDelay = ThreadLocalRandom.current().nextLong(periodMicros);
+        chatTask = scheduler.scheduleAtFixedRate(this::chat, initialDelay, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    private void chat() {
+        if (!running || !canChat) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Iterator<Long> it = pendingEchoes.values().iterator(); it.hasNext();) {
+            if (now - it.next() > ECHO_TIMEOUT_NANOS) {
+                it.remove();
+                stats.failures.increment();
+            }
+        }
+        long seq = nextSeq++;
+        pendingEchoes.put(seq, now);
+        Payload p = new Payload();
+        p.setPayloadType(PayloadType.MESSAGE);
+        p.setMessage(ECHO_MARKER + seq);
+        p.setTraceId(TraceBuffer.INSTANCE.newTraceId());
+        trySend(p);
+    }
+}
@@ -0,0 +1,150 @@
+package Project.LoadTest;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import Project.Common.TraceBuffer;
+
+/**
+ * Headless load generator: opens N bot connections to a local server and
+ * reports throughput and join/pick/echo latency percentiles.
+ * <p>
+ * Run (server already listening):
+ * java Project.LoadTest.LoadGenerator --bots=1000 --roomSize=4 --duration=60
+ * </p>
+ * Options (all optional): --host=localhost --port=3000 --bots=100
+ * --roomSize=4 --duration=30 (seconds) --chatPerSecond=0.5 (per bot)
+ * --pickWindowMs=2000 --connectPerSecond=500 --reportEvery=5 (seconds)
+ * --traces=loadtest-traces.tsv (writes the bots' sampled request spans for
+ * TraceReport; pass -Dtrace.sampleOneIn to change the sampling)
+ */
+public class LoadGenerator {
+
+    public static class Config {
+        public String host = "localhost";
+        public int port = 3000;
+        public int bots = 100;
+        public int roomSize = 4;
+        public int durationSeconds = 30;
+        public double chatPerSecond = 0.5;
+        public long pickWindowMs = 2000;
+        public int connectPerSecond = 500;
+        public int reportEverySeconds = 5;
+        public String traces = null;
+
+        public static Config parse(String[] args) {
+            Config c = new Config();
+            for (String arg : args) {
+                String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+                if (kv.length != 2) {
+                    throw new IllegalArgumentException("Expected --key=value but got " + arg);
+                }
+                switch (kv[0]) {
+                    case "host" -> c.host = kv[1];
+                    case "port" -> c.port = Integer.parseInt(kv[1]);
+                    case "bots" -> c.bots = Integer.parseInt(kv[1]);
+                    case "roomSize" -> c.roomSize = Math.max(2, Integer.parseInt(kv[1]));
+                    case "duration" -> c.durationSeconds = Integer.parseInt(kv[1]);
+                    case "chatPerSecond" -> c.chatPerSecond = Double.parseDouble(kv[1]);
+                    case "pickWindowMs" -> c.pickWindowMs = Long.parseLong(kv[1]);
+                    case "connectPerSecond" -> c.connectPerSecond = Math.max(1, Integer.parseInt(kv[1]));
+                    case "reportEvery" -> c.reportEverySeconds = Math.max(1, Integer.parseInt(kv[1]));
+                    case "traces" -> c.traces = kv[1];
+                    default -> throw new IllegalArgumentException("Unknown option " + kv[0]);
+                }
+            }
+            return c;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "host=%s port=%d bots=%d roomSize=%d duration=%ds chatPerSecond=%.2f pickWindowMs=%d connectPerSecond=%d",
+                    host, port, bots, roomSize, durationSeconds, chatPerSecond, pickWindowMs, connectPerSecond);
+        }
+    }
+
+    private final Config config;
+    private final LoadStats stats = new LoadStats();
+    private final List<BotClient> bots = new ArrayList<>();
+    private final ScheduledExecutorService scheduler;
+
+    public LoadGenerator(Config config) throws Exception {
+        if (!InetAddress.getByName(config.host).isLoopbackAddress()) {
+            // never point this at a shared/remote server
+            throw new IllegalArgumentException("Load tests only run against a local server, got " + config.host);
+        }
+        this.config = config;
+        TraceBuffer.INSTANCE.setProcessName("loadtest");
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+                r -> {
+                    Thread t = new Thread(r, "LoadGenerator");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public LoadStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Connects every bot (rate limited), runs for the configured duration and
+     * disconnects
+     *
+     * @return the final report
+     */
+    public String run() throws InterruptedException {
+        System.out.println("Load test: " + config);
+        long start = System.nanoTime();
+        scheduler.scheduleAtFixedRate(() -> System.out.println(stats.interval()), config.reportEverySeconds,
+                config.reportEverySeconds, TimeUnit.SECONDS);
+
+        long connectIntervalNanos = 1_000_000_000L / config.connectPerSecond;
+        for (int i = 0; i < config.bots; i++) {
+            String room = String.format("lt-%d-%d", ProcessHandle.current().pid(), i / config.roomSize);
+            BotClient bot = new BotClient(i, room, config, stats, scheduler);
+            try {
+                bot.connect();
+                bots.add(bot);
+            } catch (Exception e) {
+                stats.failures.increment();
+            }
+            long due = start + (i + 1) * connectIntervalNanos;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+
+        long end = start + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+        long remaining = end - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        String report = stats.report(seconds);
+
+        bots.forEach(BotClient::close);
+        scheduler.shutdownNow();
+        if (config.traces != null) {
+            try {
+                TraceBuffer.INSTANCE.exportTo(Path.of(config.traces));
+            } catch (IOException e) {
+                System.err.println("Couldn't write " + config.traces + ": " + e.getMessage());
+            }
+        }
+        return report;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadGenerator generator = new LoadGenerator(Config.parse(args));
+        System.out.println(generator.run());
+    }
+}
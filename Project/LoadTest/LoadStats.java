@@ -0,0 +1,65 @@
+package Project.LoadTest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import Project.Common.LatencyHistogram;
+
+/**
+ * Counters and latency histograms shared by every bot in a load run
+ */
+public class LoadStats {
+    // send of ROOM_CREATE/ROOM_JOIN until our own ROOM_JOIN comes back
+    public final LatencyHistogram join = new LatencyHistogram();
+    // send of TURN until TURN_CONFIRMED
+    public final LatencyHistogram pick = new LatencyHistogram();
+    // send of MESSAGE until the room relays it back to the sender
+    public final LatencyHistogram echo = new LatencyHistogram();
+
+    public final LongAdder connected = new LongAdder();
+    public final LongAdder disconnected = new LongAdder();
+    public final LongAdder failures = new LongAdder();
+    public final LongAdder payloadsSent = new LongAdder();
+    public final LongAdder payloadsReceived = new LongAdder();
+    public final LongAdder picks = new LongAdder();
+    public final LongAdder messages = new LongAdder();
+    public final LongAdder roundResults = new LongAdder();
+
+    private long lastReportNanos = System.nanoTime();
+    private long lastSent = 0;
+    private long lastReceived = 0;
+
+    /**
+     * @return one line of rates since the previous call
+     */
+    public synchronized String interval() {
+        long now = System.nanoTime();
+        double seconds = Math.max((now - lastReportNanos) / 1e9, 1e-9);
+        long sent = payloadsSent.sum();
+        long received = payloadsReceived.sum();
+        String line = String.format("connected=%d failures=%d sent=%.0f/s received=%.0f/s picks=%d messages=%d",
+                connected.sum() - disconnected.sum(), failures.sum(), (sent - lastSent) / seconds,
+                (received - lastReceived) / seconds, picks.sum(), messages.sum());
+        lastReportNanos = now;
+        lastSent = sent;
+        lastReceived = received;
+        return line;
+    }
+
+    /**
+     * @param seconds length of the run
+     * @return multi-line final report
+     */
+    public String report(double seconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Duration:   %.1fs%n", seconds));
+        sb.append(String.format("Throughput: sent %.0f payloads/s, received %.0f payloads/s%n",
+                payloadsSent.sum() / seconds, payloadsReceived.sum() / seconds));
+        sb.append(String.format("            picks %.1f/s, messages %.1f/s, round results %d%n",
+                picks.sum() / seconds, messages.sum() / seconds, roundResults.sum()));
+        sb.append(String.format("Join:       %s%n", join.summary()));
+        sb.append(String.format("Pick:       %s%n", pick.summary()));
+        sb.append(String.format("Echo:       %s%n", echo.summary()));
+        sb.append(String.format("Failures:   %d", failures.sum()));
+        return sb.toString();
+    }
+}
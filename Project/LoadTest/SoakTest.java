@@ -0,0 +1,365 @@
+package Project.LoadTest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import Project.Common.LoggerUtil;
+import Project.Server.Server;
+
+/**
+ * Long-running leak check: starts a Server in this JVM and cycles groups of
+ * bots through connect, join, play one game, leave and disconnect until the
+ * duration is up.
+ * <p>
+ * Between batches (with no bots connected) it samples heap after GC, live
+ * platform thread count and the Server's room count. At the end a least
+ * squares trend is fitted to each series (after a warmup) and the run fails
+ * with exit code 1 if the projected growth over the run exceeds its threshold.
+ * It also fails if no room finished a game, or if too many room cycles
+ * (a group of bots playing one game) didn't.
+ * </p>
+ * <p>
+ * Run: java Project.LoadTest.SoakTest --duration=7200
+ * </p>
+ * Options (all optional): --port=3200 --duration=600 (seconds) --groups=8
+ * (rooms played in parallel per batch) --roomSize=2 --pickWindowMs=50
+ * --gameTimeout=120 (seconds) --sampleEvery=10 (seconds) --warmup=0.2
+ * (fraction of samples ignored) --maxHeapGrowth=20 (percent)
+ * --maxThreadGrowth=4 --maxRoomGrowth=0 --maxFailedCycles=5 (percent of
+ * room cycles without a finished game)
+ */
+public class SoakTest {
+
+    public static class Config {
+        public int port = 3200;
+        public int durationSeconds = 600;
+        public int groups = 8;
+        public int roomSize = 2;
+        public long pickWindowMs = 50;
+        public int gameTimeoutSeconds = 120;
+        public int sampleEverySeconds = 10;
+        public double warmup = 0.2;
+        public double maxHeapGrowthPercent = 20;
+        public double maxThreadGrowth = 4;
+        public double maxRoomGrowth = 0;
+        public double maxFailedCyclesPercent = 5;
+
+        public static Config parse(String[] args) {
+            Config c = new Config();
+            for (String arg : args) {
+                String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+                if (kv.length != 2) {
+                    throw new IllegalArgumentException("Expected --key=value but got " + arg);
+                }
+                switch (kv[0]) {
+                    case "port" -> c.port = Integer.parseInt(kv[1]);
+                    case "duration" -> c.durationSeconds = Integer.parseInt(kv[1]);
+                    case "groups" -> c.groups = Math.max(1, Integer.parseInt(kv[1]));
+                    case "roomSize" -> c.roomSize = Math.max(2, Integer.parseInt(kv[1]));
+                    case "pickWindowMs" -> c.pickWindowMs = Long.parseLong(kv[1]);
+                    case "gameTimeout" -> c.gameTimeoutSeconds = Integer.parseInt(kv[1]);
+                    case "sampleEvery" -> c.sampleEverySeconds = Math.max(1, Integer.parseInt(kv[1]));
+                    case "warmup" -> c.warmup = Double.parseDouble(kv[1]);
+                    case "maxHeapGrowth" -> c.maxHeapGrowthPercent = Double.parseDouble(kv[1]);
+                    case "maxThreadGrowth" -> c.maxThreadGrowth = Double.parseDouble(kv[1]);
+                    case "maxRoomGrowth" -> c.maxRoomGrowth = Double.parseDouble(kv[1]);
+                    case "maxFailedCycles" -> c.maxFailedCyclesPercent = Double.parseDouble(kv[1]);
+                    default -> throw new IllegalArgumentException("Unknown option " + kv[0]);
+                }
+            }
+            return c;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "port=%d duration=%ds groups=%d roomSize=%d pickWindowMs=%d sampleEvery=%ds maxHeapGrowth=%.0f%% maxThreadGrowth=%.0f maxRoomGrowth=%.0f maxFailedCycles=%.0f%%",
+                    port, durationSeconds, groups, roomSize, pickWindowMs, sampleEverySeconds, maxHeapGrowthPercent,
+                    maxThreadGrowth, maxRoomGrowth, maxFailedCyclesPercent);
+        }
+    }
+
+    /**
+     * One quiescent measurement
+     */
+    static class Sample {
+        final double seconds;
+        final long cycles;
+        final long heapBytes;
+        final int threads;
+        final int rooms;
+
+        Sample(double seconds, long cycles, long heapBytes, int threads, int rooms) {
+            this.seconds = seconds;
+            this.cycles = cycles;
+            this.heapBytes = heapBytes;
+            this.threads = threads;
+            this.rooms = rooms;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("t=%6.0fs cycles=%6d heap=%7.2fMB threads=%4d rooms=%3d", seconds, cycles,
+                    heapBytes / (1024.0 * 1024.0), threads, rooms);
+        }
+    }
+
+    private final Config config;
+    private final LoadGenerator.Config botConfig = new LoadGenerator.Config();
+    private final LoadStats stats = new LoadStats();
+    private final List<Sample> samples = new ArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    // room cycles: one group of bots joining a room and playing one game
+    private long cycles = 0;
+    private long failedCycles = 0;
+
+    public SoakTest(Config config) {
+        this.config = config;
+        botConfig.host = "localhost";
+        botConfig.port = config.port;
+        botConfig.roomSize = config.roomSize;
+        botConfig.pickWindowMs = config.pickWindowMs;
+        botConfig.chatPerSecond = 1;
+        this.scheduler = Executors.newScheduledThreadPool(2, r -> {
+            Thread t = new Thread(r, "SoakTest");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Starts the server on a daemon thread and waits until it accepts
+     * connections
+     */
+    private void startServer() throws InterruptedException {
+        // LoggerUtil only takes its first config, so this has to happen before
+        // Server's initializer runs
+        LoggerUtil.LoggerConfig logConfig = new LoggerUtil.LoggerConfig();
+        logConfig.setConsoleLogLevel(Level.OFF);
+        logConfig.setFileLogLevel(Level.WARNING);
+        logConfig.setLogLocation("soak.log");
+        LoggerUtil.INSTANCE.setConfig(logConfig);
+        Server server = Server.INSTANCE;
+
+        Thread serverThread = new Thread(() -> Server.main(new String[] { Integer.toString(config.port) }),
+                "SoakServer");
+        serverThread.setDaemon(true);
+        serverThread.start();
+        long giveUp = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            // the lobby is created right after the socket starts listening
+            try {
+                new Socket(botConfig.host, config.port).close();
+                if (server.getRoomCount() > 0) {
+                    break;
+                }
+            } catch (Exception e) {
+                // not listening yet
+            }
+            if (System.nanoTime() > giveUp) {
+                throw new IllegalStateException("Server didn't start on " + config.port);
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Plays one game in each of config.groups rooms, then leaves and disconnects
+     * every bot. A room's cycle completes if all of its bots connected and
+     * finished the game.
+     */
+    private void runBatch(long batch) throws InterruptedException {
+        List<BotClient> bots = new ArrayList<>();
+        List<Integer> groupOf = new ArrayList<>();
+        boolean[] groupFailed = new boolean[config.groups];
+        for (int g = 0; g < config.groups; g++) {
+            String room = String.format("soak-%d-%d", batch, g);
+            for (int i = 0; i < config.roomSize; i++) {
+                BotClient bot = new BotClient(g * config.roomSize + i, room, botConfig, stats, scheduler);
+                try {
+                    bot.connect();
+                    bots.add(bot);
+                    groupOf.add(g);
+                } catch (Exception e) {
+                    stats.failures.increment();
+                    groupFailed[g] = true;
+                }
+            }
+        }
+        long giveUp = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.gameTimeoutSeconds);
+        while (System.nanoTime() < giveUp && !bots.stream().allMatch(b -> b.getGamesCompleted() > 0
+                || !b.isRunning())) {
+            Thread.sleep(20);
+        }
+        for (int i = 0; i < bots.size(); i++) {
+            BotClient bot = bots.get(i);
+            if (bot.getGamesCompleted() == 0) {
+                groupFailed[groupOf.get(i)] = true;
+            }
+            bot.leaveRoom();
+        }
+        bots.forEach(BotClient::close);
+        for (boolean failed : groupFailed) {
+            if (failed) {
+                failedCycles++;
+            } else {
+                cycles++;
+            }
+        }
+    }
+
+    /**
+     * Waits for the server to drop back to just the lobby (bounded), then samples
+     */
+    private Sample sample(long start) throws InterruptedException {
+        long giveUp = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Server.INSTANCE.getRoomCount() > 1 && System.nanoTime() < giveUp) {
+            Thread.sleep(50);
+        }
+        // let disconnecting server threads finish exiting
+        Thread.sleep(500);
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        long heap = memory.getHeapMemoryUsage().getUsed();
+        int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+        Sample s = new Sample((System.nanoTime() - start) / 1e9, cycles, heap, threads,
+                Server.INSTANCE.getRoomCount());
+        samples.add(s);
+        System.out.println(s);
+        return s;
+    }
+
+    /**
+     * Live threads grouped by name with digits stripped (i.e., "Timer-#"), to
+     * point at whatever is leaking them
+     */
+    static Map<String, Integer> threadNames() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            counts.merge(t.getName().replaceAll("\\d+", "#"), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Least squares slope of y over x
+     */
+    static double slope(double[] x, double[] y) {
+        int n = x.length;
+        double mx = 0, my = 0;
+        for (int i = 0; i < n; i++) {
+            mx += x[i];
+            my += y[i];
+        }
+        mx /= n;
+        my /= n;
+        double num = 0, den = 0;
+        for (int i = 0; i < n; i++) {
+            num += (x[i] - mx) * (y[i] - my);
+            den += (x[i] - mx) * (x[i] - mx);
+        }
+        return den == 0 ? 0 : num / den;
+    }
+
+    /**
+     * Fits each series after the warmup and compares the projected growth over
+     * the measured window against the thresholds
+     *
+     * @return list of failure descriptions (empty if the run passed)
+     */
+    List<String> evaluate() {
+        List<String> failures = new ArrayList<>();
+        long attempted = cycles + failedCycles;
+        if (cycles == 0) {
+            failures.add("No room finished a game");
+        } else if (failedCycles * 100.0 / attempted > config.maxFailedCyclesPercent) {
+            failures.add(String.format("%d of %d room cycles didn't finish a game (limit %.0f%%)", failedCycles,
+                    attempted, config.maxFailedCyclesPercent));
+        }
+        int from = (int) Math.floor(samples.size() * config.warmup);
+        List<Sample> window = samples.subList(from, samples.size());
+        if (window.size() < 3) {
+            failures.add("Not enough samples after warmup (" + window.size() + "); run longer");
+            return failures;
+        }
+        int n = window.size();
+        double[] t = new double[n];
+        double[] heap = new double[n];
+        double[] threads = new double[n];
+        double[] rooms = new double[n];
+        for (int i = 0; i < n; i++) {
+            Sample s = window.get(i);
+            t[i] = s.seconds;
+            heap[i] = s.heapBytes;
+            threads[i] = s.threads;
+            rooms[i] = s.rooms;
+        }
+        double span = t[n - 1] - t[0];
+        double heapGrowth = slope(t, heap) * span / Math.max(heap[0], 1) * 100;
+        double threadGrowth = slope(t, threads) * span;
+        double roomGrowth = slope(t, rooms) * span;
+        System.out.println(String.format("Trend over %.0fs: heap %+.1f%%, threads %+.1f, rooms %+.1f", span,
+                heapGrowth, threadGrowth, roomGrowth));
+        if (heapGrowth > config.maxHeapGrowthPercent) {
+            failures.add(String.format("Heap grew %.1f%% (limit %.0f%%)", heapGrowth, config.maxHeapGrowthPercent));
+        }
+        if (threadGrowth > config.maxThreadGrowth) {
+            failures.add(String.format("Threads grew by %.1f (limit %.0f)", threadGrowth, config.maxThreadGrowth));
+        }
+        if (roomGrowth > config.maxRoomGrowth + 0.5) {
+            failures.add(String.format("Rooms grew by %.1f (limit %.0f)", roomGrowth, config.maxRoomGrowth));
+        }
+        return failures;
+    }
+
+    /**
+     * @return true if rooms kept finishing games and no series trended upward
+     *         beyond its threshold
+     */
+    public boolean run() throws InterruptedException {
+        System.out.println("Soak test: " + config);
+        startServer();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+        long sampleEvery = TimeUnit.SECONDS.toNanos(config.sampleEverySeconds);
+        long nextSample = start;
+        long batch = 0;
+        while (System.nanoTime() < end) {
+            // first sample after the first batch, so one-time startup threads and
+            // class loading aren't counted as growth
+            runBatch(batch++);
+            if (System.nanoTime() >= nextSample) {
+                sample(start);
+                nextSample = System.nanoTime() + sampleEvery;
+            }
+        }
+        scheduler.shutdownNow();
+
+        System.out.println(String.format("Room cycles: %d completed, %d without a finished game, %d bot failures",
+                cycles, failedCycles, stats.failures.sum()));
+        List<String> failures = evaluate();
+        failures.forEach(f -> System.out.println("FAIL: " + f));
+        if (!failures.isEmpty()) {
+            System.out.println("Live threads by name: " + threadNames());
+        }
+        System.out.println(failures.isEmpty() ? "PASS" : "FAIL");
+        return failures.isEmpty();
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean passed = new SoakTest(Config.parse(args)).run();
+        System.exit(passed ? 0 : 1);
+    }
+}
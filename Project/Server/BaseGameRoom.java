@@ -3,8 +3,10 @@ package Project.Server;
 import java.util.List;
 
 import Project.Common.Constants;
+import Project.Common.GameClock;
 import Project.Common.LoggerUtil;
 import Project.Common.Phase;
+import Project.Common.SystemClock;
 import Project.Common.TimedEvent;
 import Project.Common.TimerType;
 import Project.Exceptions.NotReadyException;
@@ -19,6 +21,12 @@ public abstract class BaseGameRoom extends Room {
 
     private TimedEvent readyTimer = null;
 
+    // delay before onClientAdded so the joining client has processed the join
+    private static final long CLIENT_ADDED_DELAY_MS = 100;
+
+    // drives every timer in this room; a VirtualClock makes the room simulatable
+    protected final GameClock clock;
+
     protected final int MINIMUM_REQUIRED_TO_START = 2;
 
     protected Phase currentPhase = Phase.READY;
@@ -26,7 +34,12 @@ public abstract class BaseGameRoom extends Room {
     protected boolean allowToggleReady = false;
 
     public BaseGameRoom(String name) {
+        this(name, SystemClock.INSTANCE);
+    }
+
+    public BaseGameRoom(String name, GameClock clock) {
         super(name);
+        this.clock = clock;
     }
 
     /**
@@ -77,44 +90,58 @@ public abstract class BaseGameRoom extends Room {
      */
     protected abstract void onClientRemoved(ServerThread client);
 
+    /**
+     * Ready state is owned by the subclass (i.e., GameRoom's PlayerTable)
+     * 
+     * @param client
+     * @return true if the client is marked ready in this room
+     */
+    protected abstract boolean isReady(ServerThread client);
+
+    /**
+     * Updates the subclass-owned ready state
+     * 
+     * @param client
+     * @param isReady
+     */
+    protected abstract void setReady(ServerThread client, boolean isReady);
+
     @Override
-    protected synchronized void addClient(ServerThread client) {
-        if (!isRunning()) { // block action if Room isn't running
-            return;
-        }
-        // do the base Room class logic
-        super.addClient(client);
-        new Thread() {
-            @Override
-            public void run() {
-                // sleep 100
-                try {
-                    Thread.sleep(100);
-                    onClientAdded(client);
-                } catch (InterruptedException e) {
-                    LoggerUtil.INSTANCE.severe("Thread sleep interrupted", e);
-                }
+    protected void addClient(ServerThread client) {
+        withLock("addClient", () -> {
+            if (!isRunning()) { // block action if Room isn't running
+                return;
             }
-        }.start();
-
+            // do the base Room class logic
+            super.addClient(client);
+            clock.schedule(() -> onClientAdded(client), CLIENT_ADDED_DELAY_MS);
+        });
     }
 
     @Override
-    protected synchronized void removeClient(ServerThread client) {
-        if (!isRunning()) { // block action if Room isn't running
-            return;
-        }
-        LoggerUtil.INSTANCE.info("Players in room: " + clientsInRoom.size());
-        // do the base-class logic
-        super.removeClient(client);
-        onClientRemoved(client);
+    protected void removeClient(ServerThread client) {
+        withLock("removeClient", () -> {
+            if (!isRunning()) { // block action if Room isn't running
+                return;
+            }
+            LoggerUtil.INSTANCE.info("Players in room: %d", clientsInRoom.size());
+            // do the base-class logic
+            super.removeClient(client);
+            onClientRemoved(client);
+        });
     }
 
     @Override
-    protected synchronized void disconnect(ServerThread client) {
-        super.disconnect(client);
-        LoggerUtil.INSTANCE.info("Players in room: " + clientsInRoom.size());
-        onClientRemoved(client);
+    protected void disconnect(ServerThread client) {
+        withLock("disconnect", () -> {
+            // the client's reader thread repeats the disconnect on its way out
+            boolean wasMember = clientsInRoom.get(client.getClientId()) == client;
+            super.disconnect(client);
+            LoggerUtil.INSTANCE.info("Players in room: %d", clientsInRoom.size());
+            if (wasMember) {
+                onClientRemoved(client);
+            }
+        });
     }
 
     /**
@@ -124,7 +151,7 @@ public abstract class BaseGameRoom extends Room {
         if (readyTimer != null) {
             readyTimer.cancel();
             readyTimer = null;
-            sendCurrentTime(TimerType.READY, -1);
+            sendTimerDeadline(TimerType.READY, -1);
         }
     }
 
@@ -141,11 +168,9 @@ public abstract class BaseGameRoom extends Room {
             readyTimer = new TimedEvent(30, () -> {
                 // callback to trigger when ready expires
                 checkReadyStatus();
-            });
-            readyTimer.setTickCallback((time) -> {
-                System.out.println("Ready Timer: " + time);
-                sendCurrentTime(TimerType.READY, time);
-            });
+            }, clock);
+            // clients count down locally from the deadline
+            sendTimerDeadline(TimerType.READY, readyTimer.getDeadline());
         }
     }
 
@@ -154,7 +179,7 @@ public abstract class BaseGameRoom extends Room {
      * and ready
      */
     private void checkReadyStatus() {
-        long numReady = clientsInRoom.values().stream().filter(p -> p.isReady()).count();
+        long numReady = clientsInRoom.values().stream().filter(p -> isReady(p)).count();
         if (numReady >= MINIMUM_REQUIRED_TO_START) {
             resetReadyTimer();
             onSessionStart();
@@ -164,7 +189,7 @@ public abstract class BaseGameRoom extends Room {
     }
 
     protected void resetReadyStatus() {
-        clientsInRoom.values().forEach(p -> p.setReady(false));
+        clientsInRoom.values().forEach(p -> setReady(p, false));
         sendResetReadyTrigger();
     }
 
@@ -187,7 +212,7 @@ public abstract class BaseGameRoom extends Room {
     }
 
     protected void sendGameEvent(String str, List<Long> targets) {
-        clientsInRoom.values().removeIf(spInRoom -> {
+        clientsInRoom.removeIf(spInRoom -> {
             boolean canSend = false;
             if (targets != null) {
                 if (targets.contains(spInRoom.getClientId())) {
@@ -208,14 +233,14 @@ public abstract class BaseGameRoom extends Room {
     }
 
     /**
-     * Note: due to log output, this will get really spammy
+     * Sent once when a timer starts, is extended or is cancelled (not per tick)
      * 
      * @param timerType
-     * @param time      the remaining time or -1 to cancel
+     * @param deadline  server epoch millis or -1 to cancel
      */
-    protected void sendCurrentTime(TimerType timerType, int time) {
-        clientsInRoom.values().removeIf(spInRoom -> {
-            boolean failedToSend = !spInRoom.sendCurrentTime(timerType, time);
+    protected void sendTimerDeadline(TimerType timerType, long deadline) {
+        clientsInRoom.removeIf(spInRoom -> {
+            boolean failedToSend = !spInRoom.sendTimerDeadline(timerType, deadline);
             if (failedToSend) {
                 removeClient(spInRoom);
             }
@@ -223,6 +248,18 @@ public abstract class BaseGameRoom extends Room {
         });
     }
 
+    /**
+     * Sends any running timers to a client that joined mid-countdown
+     * 
+     * @param sp
+     */
+    protected void syncTimers(ServerThread sp) {
+        TimedEvent timer = readyTimer;
+        if (timer != null) {
+            sp.sendTimerDeadline(TimerType.READY, timer.getDeadline(), clock.currentTimeMillis());
+        }
+    }
+
     /**
      * Syncs the current phase to a single client
      * 
@@ -236,7 +273,7 @@ public abstract class BaseGameRoom extends Room {
      * Sends the current phase to all clients
      */
     protected void sendCurrentPhase() {
-        clientsInRoom.values().removeIf(spInRoom -> {
+        clientsInRoom.removeIf(spInRoom -> {
             boolean failedToSend = !spInRoom.sendCurrentPhase(currentPhase);
             if (failedToSend) {
                 removeClient(spInRoom);
@@ -250,7 +287,7 @@ public abstract class BaseGameRoom extends Room {
      * status
      */
     protected void sendResetReadyTrigger() {
-        clientsInRoom.values().removeIf(spInRoom -> {
+        clientsInRoom.removeIf(spInRoom -> {
             boolean failedToSend = !spInRoom.sendResetReady();
             if (failedToSend) {
                 removeClient(spInRoom);
@@ -265,8 +302,8 @@ public abstract class BaseGameRoom extends Room {
      * @param incomingSP
      */
     protected void syncReadyStatus(ServerThread incomingSP) {
-        clientsInRoom.values().removeIf(spInRoom -> {
-            boolean failedToSend = !incomingSP.sendReadyStatus(spInRoom.getClientId(), spInRoom.isReady(), true);
+        clientsInRoom.removeIf(spInRoom -> {
+            boolean failedToSend = !incomingSP.sendReadyStatus(spInRoom.getClientId(), isReady(spInRoom), true);
             if (failedToSend) {
                 removeClient(spInRoom);
             }
@@ -281,8 +318,8 @@ public abstract class BaseGameRoom extends Room {
      * @param isReady
      */
     protected void sendReadyStatus(ServerThread incomingSP, boolean isReady) {
-        clientsInRoom.values().removeIf(spInRoom -> {
-            boolean failedToSend = !spInRoom.sendReadyStatus(incomingSP.getClientId(), incomingSP.isReady());
+        clientsInRoom.removeIf(spInRoom -> {
+            boolean failedToSend = !spInRoom.sendReadyStatus(incomingSP.getClientId(), isReady(incomingSP));
             if (failedToSend) {
                 removeClient(spInRoom);
             }
@@ -302,16 +339,16 @@ public abstract class BaseGameRoom extends Room {
             // option 1: simply just mark ready
             if (!allowToggleReady) {
                 sp = clientsInRoom.get(sender.getClientId());
-                sp.setReady(true);
+                setReady(sp, true);
             }
             // option 2: toggle
             else {
                 sp = clientsInRoom.get(sender.getClientId());
-                sp.setReady(!sp.isReady());
+                setReady(sp, !isReady(sp));
             }
             startReadyTimer(false); // <-- triggers the next step when it expires
 
-            sendReadyStatus(sp, sp.isReady());
+            sendReadyStatus(sp, isReady(sp));
         } catch (Exception e) {
             LoggerUtil.INSTANCE.severe("handleReady exception", e);
         }
@@ -337,7 +374,7 @@ public abstract class BaseGameRoom extends Room {
     }
 
     protected void checkIsReady(ServerThread client) throws NotReadyException {
-        if (!client.isReady()) {
+        if (!isReady(client)) {
             client.sendMessage(Constants.DEFAULT_CLIENT_ID, "You must be marked 'ready' to do this action");
             throw new NotReadyException("Not ready");
         }
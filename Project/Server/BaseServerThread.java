@@ -1,11 +1,19 @@
 package Project.Server;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.Socket;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
+import Project.Common.DictionaryObjectInputStream;
+import Project.Common.DictionaryObjectOutputStream;
 import Project.Common.Payload;
+import Project.Common.TraceBuffer;
 import Project.Common.User;
 
 /**
@@ -13,12 +21,21 @@ import Project.Common.User;
  * Server-side
  */
 public abstract class BaseServerThread extends Thread {
+    // LoggerUtil category of the per-payload sent/received lines
+    public static final String PAYLOAD_LOG = "payloads";
 
     protected boolean isRunning = false; // control variable to stop this thread
     protected ObjectOutputStream out; // exposed here for send()
     protected Socket client; // communication directly to "my" client
     protected User user = new User();
     protected Room currentRoom;
+    private Timer nameCheck; // cancelled in cleanup() so it never outlives the connection
+    // reset the stream's handle table every so often so it doesn't grow for the
+    // life of the connection
+    private static final int RESET_EVERY = 256;
+    private int sentSinceReset = 0;
+    // cleanup() runs from both disconnect() and run(); count the close once
+    private final AtomicBoolean closeCounted = new AtomicBoolean();
 
     /**
      * Returns the current Room associated with this ServerThread
@@ -90,6 +107,15 @@ public abstract class BaseServerThread extends Thread {
      */
     protected abstract void info(String message);
 
+    /**
+     * Logs a per-payload line in the PAYLOAD_LOG category (sampled and rate
+     * limited per client as configured in LoggerUtil); the message is only
+     * built if the line is kept
+     * 
+     * @param message
+     */
+    protected abstract void trace(Supplier<String> message);
+
     /**
      * Triggered when object is fully initialized
      */
@@ -103,25 +129,48 @@ public abstract class BaseServerThread extends Thread {
     protected abstract void processPayload(Payload payload);
 
     /**
-     * Sends the payload over the socket
+     * Sends the payload over the socket.
+     * Synchronized since rooms, timers and other clients' threads all write to
+     * this stream; interleaved writeObject calls corrupt it.
      * 
      * @param payload
      * @return true if no errors were encountered
      */
-    protected boolean sendToClient(Payload payload) {
+    protected synchronized boolean sendToClient(Payload payload) {
         if (!isRunning) {
             return true;
         }
         try {
-            info("Sending to client: " + payload);
+            trace(() -> "Sending to client: " + payload);
+            ServerEvents.PayloadSent event = new ServerEvents.PayloadSent();
+            event.begin();
+            long start = System.nanoTime();
+            // sends made while handling a traced payload carry its trace id
+            TraceBuffer.INSTANCE.stamp(payload);
             out.writeObject(payload);
+            ServerMetrics.sent(payload.getPayloadType());
+            if (++sentSinceReset >= RESET_EVERY) {
+                out.reset();
+                sentSinceReset = 0;
+            }
             out.flush();
+            TraceBuffer.INSTANCE.record(payload.getTraceId(), TraceBuffer.SERVER_SEND, start, System.nanoTime(),
+                    getClientId());
+            event.end();
+            if (event.shouldCommit()) {
+                event.clientId = getClientId();
+                event.payloadType = String.valueOf(payload.getPayloadType());
+                event.commit();
+            }
             return true;
         } catch (IOException e) {
             info("Error sending message to client (most likely disconnected)");
             // comment this out to inspect the stack trace
             // e.printStackTrace();
-            cleanup();
+            // only drop the socket here; that wakes the reader thread, which tells
+            // the room and runs cleanup() from run() while the client id is still
+            // set (resetting it from here left the client stuck in its room)
+            closeSocket();
             return false;
         }
     }
@@ -143,13 +192,17 @@ public abstract class BaseServerThread extends Thread {
     @Override
     public void run() {
         info("Thread starting");
-        try (ObjectOutputStream out = new ObjectOutputStream(client.getOutputStream());
-                ObjectInputStream in = new ObjectInputStream(client.getInputStream());) {
+        try (ObjectOutputStream out = new DictionaryObjectOutputStream(
+                new ServerMetrics.CountingOutputStream(client.getOutputStream()));
+                ObjectInputStream in = new DictionaryObjectInputStream(
+                        new ServerMetrics.CountingInputStream(client.getInputStream()));) {
             this.out = out;
             isRunning = true;
-            new java.util.Timer().schedule(new java.util.TimerTask() {
+            nameCheck = new Timer("name-check", true);
+            nameCheck.schedule(new TimerTask() {
                 @Override
                 public void run() {
+                    nameCheck.cancel();
                     if (getClientName() == null || getClientName().isBlank()) {
                         info("Client name not received. Disconnecting");
                         disconnect();
@@ -168,8 +221,31 @@ public abstract class BaseServerThread extends Thread {
                 try {
                     fromClient = (Payload) in.readObject(); // blocking method
                     if (fromClient != null) {
-                        info("Received from my client: " + fromClient);
-                        processPayload(fromClient);
+                        final Payload received = fromClient;
+                        trace(() -> "Received from my client: " + received);
+                        ServerMetrics.received(fromClient.getPayloadType());
+                        // the room it arrived in; handling it may move the client
+                        Room room = currentRoom;
+                        ServerEvents.PayloadReceived event = new ServerEvents.PayloadReceived();
+                        event.begin();
+                        long start = System.nanoTime();
+                        long traceId = fromClient.getTraceId();
+                        TraceBuffer.INSTANCE.setCurrent(traceId);
+                        try {
+                            processPayload(fromClient);
+                        } finally {
+                            TraceBuffer.INSTANCE.setCurrent(TraceBuffer.NONE);
+                        }
+                        long end = System.nanoTime();
+                        ServerMetrics.PROCESS_PAYLOAD.recordNanos(end - start);
+                        TraceBuffer.INSTANCE.record(traceId, TraceBuffer.SERVER_PROCESS, start, end, getClientId());
+                        event.end();
+                        if (event.shouldCommit()) {
+                            event.clientId = getClientId();
+                            event.payloadType = String.valueOf(fromClient.getPayloadType());
+                            event.room = room != null ? room.getName() : null;
+                            event.commit();
+                        }
                     } else {
                         throw new IOException("Connection interrupted"); // Specific exception for a clean break
                     }
@@ -181,42 +257,74 @@ public abstract class BaseServerThread extends Thread {
                         info("Thread interrupted during read (likely from the disconnect() method)");
                         break;
                     }
+                    if (client.isClosed() || e instanceof EOFException) {
+                        // a failed send (or disconnect()) closed the socket under us, or
+                        // the client hung up
+                        info("Connection closed while reading from client");
+                        break;
+                    }
                     info("IO exception while reading from client");
                     e.printStackTrace();
                     break;
                 }
             } // close while loop
         } catch (Exception e) {
-            // happens when client disconnects
-            info("General Exception");
-            e.printStackTrace();
+            // happens when client disconnects; closing the streams of an already
+            // closed socket throws too, which is a normal exit
+            if (!client.isClosed()) {
+                info("General Exception");
+                e.printStackTrace();
+            }
             info("My Client disconnected");
         } finally {
-            if (currentRoom != null) {
-                currentRoom.handleDisconnect(this);
+            Room room = currentRoom;
+            if (room != null) {
+                room.handleDisconnect(this);
             }
             isRunning = false;
             info("Exited thread loop. Cleaning up connection");
             cleanup();
+            // only forgotten here, after the room let the client go; disconnect()
+            // from another thread (e.g., a kick) must leave them for this exit
+            currentRoom = null;
+            user.reset();
         }
     }
 
     /**
-     * Cleanup method to close the connection and reset the user object
+     * Cleanup method to close the connection (run() resets the user object once
+     * the room has let the client go)
      */
     protected void cleanup() {
         info("ServerThread cleanup() start");
         try {
             // close server-side end of connection
-            currentRoom = null;
-            out.close();
-            client.close();
-            user.reset();
+            if (nameCheck != null) {
+                nameCheck.cancel();
+            }
+            if (out != null) {
+                // null if the stream header never arrived
+                out.close();
+            }
             info("Closed Server-side Socket");
         } catch (IOException e) {
             info("Client already closed");
+        } finally {
+            // out.close() throws if the peer is gone; the socket still needs closing
+            closeSocket();
+            if (closeCounted.compareAndSet(false, true)) {
+                ServerMetrics.CONNECTIONS_CLOSED.increment();
+            }
         }
 
         info("ServerThread cleanup() end");
     }
-}
\ No newline at end of file
+
+    private void closeSocket() {
+        try {
+            client.close();
+        } catch (IOException e) {
+            info("Client already closed");
+        }
+    }
+}
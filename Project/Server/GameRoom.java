@@ -1,7 +1,6 @@
 package Project.Server;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import Project.Common.*;
 import Project.Exceptions.NotReadyException;
@@ -13,6 +12,16 @@ public class GameRoom extends BaseGameRoom {
     private int round = 0;
     private String roomName;
     private boolean extraOptionsEnabled = false;
+    // single source of truth for per-player game state (guarded by this room's
+    // monitor)
+    private final PlayerTable players = new PlayerTable();
+    // scratch buffers reused across rounds
+    private int[] activeSeats = new int[8];
+    private int[] loserSeats = new int[8];
+    // status changes made by the current room event; flushStatus() sends them as
+    // one STATUS_DELTA per recipient
+    private final StatusBuffer broadcastStatus = new StatusBuffer();
+    private final Map<ServerThread, StatusBuffer> privateStatus = new HashMap<>();
 
     @Override
     protected void onTurnStart() {
@@ -32,10 +41,67 @@ public class GameRoom extends BaseGameRoom {
         super(name);
     }
 
+    public GameRoom(String name, GameClock clock) {
+        super(name, clock);
+    }
+
     public String getRoomName() {
         return roomName;
     }
 
+    /**
+     * @return the current round (0 before the first); read without the room's
+     *         lock, so it may be a round behind
+     */
+    int getRound() {
+        return round;
+    }
+
+    @Override
+    protected void addClient(ServerThread client) {
+        withLock("addClient", () -> {
+            super.addClient(client);
+            if (clientsInRoom.get(client.getClientId()) == client) {
+                players.add(client);
+            }
+        });
+    }
+
+    @Override
+    protected boolean isReady(ServerThread client) {
+        int seat = players.seatOf(client);
+        return seat >= 0 && players.has(seat, PlayerTable.READY);
+    }
+
+    @Override
+    protected void setReady(ServerThread client, boolean isReady) {
+        int seat = players.seatOf(client);
+        if (seat >= 0) {
+            players.set(seat, PlayerTable.READY, isReady);
+        }
+    }
+
+    // caller holds the room's lock
+    private boolean isSpectator(ServerThread client) {
+        int seat = players.seatOf(client);
+        return seat >= 0 && players.has(seat, PlayerTable.SPECTATOR);
+    }
+
+    // UCID: gb373
+    // Date: 07/28/2025
+    // Summary: Spectators cannot send messages (checked under the same lock
+    // acquisition as the relay).
+    @Override
+    protected void handleMessage(ServerThread sender, String text) {
+        withLock("handleMessage", () -> {
+            if (isSpectator(sender)) {
+                sender.sendMessage(Constants.DEFAULT_CLIENT_ID, "Spectators cannot send chat messages.");
+            } else {
+                relay(sender, text);
+            }
+        });
+    }
+
     // UCID: gb373
     // Date: 07/09/2025
     // Summary: Handles the addition of a new client to the GameRoom.
@@ -43,71 +109,93 @@ public class GameRoom extends BaseGameRoom {
     // onClientAdded is called when a new client joins the room.
     @Override
     protected void onClientAdded(ServerThread sp) {
-        syncCurrentPhase(sp);
-        syncReadyStatus(sp);
-
-        if (currentPhase != Phase.READY) {
-            syncTurnStatus(sp);
-            syncPlayerPoints(sp);
-        }
-
-        // UCID: gb373
-        // Date: 07/24/2025
-        // Summary: Setting the host status for the client.
-        boolean isHost = clientsInRoom.size() == 1;
-        Payload hostPayload = new Payload();
-        hostPayload.setPayloadType(PayloadType.HOST_STATUS);
-        hostPayload.setMessage(Boolean.toString(isHost));
-        sp.sendToClient(hostPayload);
+        withLock("onClientAdded", () -> {
+            syncCurrentPhase(sp);
+            syncReadyStatus(sp);
+            syncTimers(sp);
+
+            if (currentPhase != Phase.READY) {
+                syncTurnStatus(sp);
+                syncPlayerPoints(sp);
+            }
 
-        handleReady(sp, true, false); // wantsSpectator = true, isReady = false
+            // UCID: gb373
+            // Date: 07/24/2025
+            // Summary: Setting the host status for the client.
+            sendHostStatus(sp, isHost(sp));
+
+            // this runs after a short delay, so a fast client may already have readied
+            // (and started the game); don't demote them to spectator
+            if (!isReady(sp)) {
+                handleReady(sp, true, false); // wantsSpectator = true, isReady = false
+            }
+            flushStatus();
+        });
     }
 
     @Override
     protected void onClientRemoved(ServerThread sp) {
-        clientsInRoom.remove(sp.getClientId());
-        if (clientsInRoom.isEmpty()) {
-            resetRoundTimer();
-            onSessionEnd();
-        }
+        withLock("onClientRemoved", () -> {
+            clientsInRoom.remove(sp.getClientId());
+            privateStatus.remove(sp);
+            ServerThread previousHost = players.host();
+            players.remove(sp);
+            assert players.countersMatchRecount() : players;
+            // host passes to the next longest-present player
+            ServerThread host = players.host();
+            if (host != null && host != previousHost) {
+                sendHostStatus(host, true);
+            }
+            if (clientsInRoom.isEmpty()) {
+                resetRoundTimer();
+                onSessionEnd();
+            }
+        });
     }
 
     @Override
     protected void onSessionStart() {
-        clientsInRoom.values().forEach(player -> {
-            player.setEliminated(false);
-            player.sendEliminationStatus(player.getClientId(), false);
-        });
+        withLock("onSessionStart", () -> {
+            // everyone hears ELIMINATED=false from onRoundStart's reset
+            players.clearAll(PlayerTable.ELIMINATED);
 
-        changePhase(Phase.IN_PROGRESS);
-        round = 0;
-        onRoundStart();
+            changePhase(Phase.IN_PROGRESS);
+            round = 0;
+            onRoundStart();
+        });
     }
 
     @Override
     protected void onRoundStart() {
+        withLock("onRoundStart", this::startRound);
+    }
+
+    private void startRound() {
         resetRoundTimer();
         resetPlayerChoices();
 
         // UCID: gb373
         // Date: 07/28/2025
         // Summary: Sync the pending status of players at the start of the round.
-        // Away players are not considered pending.
-        clientsInRoom.values().forEach(p -> {
-            if (!p.isEliminated() && !p.isAway()) {
-                clientsInRoom.values().forEach(other -> {
-                    other.sendPendingStatus(p.getClientId(), true);
-                });
+        // Away players (and spectators) are not considered pending.
+        // Queued into this event's delta: one payload per member instead of one per
+        // member per pending player.
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (players.isActive(seat)) {
+                broadcastStatus(players.clientId(seat), PlayerStatus.PENDING, true);
             }
-        });
+        }
 
         changePhase(Phase.IN_PROGRESS);
         round++;
         sendGameEvent("Round " + round + " has started! Use /pick r/p/s");
 
-        // Start 30-second timer for the round
-        roundTimer = new TimedEvent(30, this::onRoundEnd);
-        roundTimer.setTickCallback(time -> sendCurrentTime(TimerType.ROUND, time));
+        // Start 30-second timer for the round; the round number guards against a
+        // late expiry resolving a round that already ended on the last pick
+        final int timedRound = round;
+        roundTimer = new TimedEvent(30, () -> onRoundExpired(timedRound), clock);
+        sendTimerDeadline(TimerType.ROUND, roundTimer.getDeadline());
+        flushStatus();
     }
 
     // UCID: gb373
@@ -117,104 +205,140 @@ public class GameRoom extends BaseGameRoom {
     // If only one player remains, the game ends. If all players made choices, the
     // round ends and the next round starts.
     // If no players remain, the game ends in a tie.
+    private void onRoundExpired(int timedRound) {
+        withLock("onRoundExpired", () -> {
+            if (timedRound == round && currentPhase == Phase.IN_PROGRESS) {
+                onRoundEnd();
+            }
+        });
+    }
+
     @Override
     protected void onRoundEnd() {
+        withLock("onRoundEnd", this::resolveRound);
+    }
+
+    private void resolveRound() {
+        ServerEvents.RoundResolved event = new ServerEvents.RoundResolved();
+        event.begin();
         resetRoundTimer();
+        final int size = players.size();
+
+        RoundResultPayload result = new RoundResultPayload();
+        result.setRound(round);
 
         // Eliminate players who didn't choose
         // Away players are not eliminated for not picking.
-        clientsInRoom.values().forEach(p -> {
-            if (!p.isEliminated() && !p.isAway() && p.getChoice() == null && !p.isSpectator()) {
-                p.setEliminated(true);
-                sendGameEvent(p.getDisplayName() + " was eliminated for not picking.");
+        long[] skipped = new long[size];
+        int skippedCount = 0;
+        for (int seat = 0; seat < size; seat++) {
+            if (players.isActive(seat) && players.choice(seat) == PlayerTable.NO_CHOICE) {
+                players.set(seat, PlayerTable.ELIMINATED, true);
+                skipped[skippedCount++] = players.clientId(seat);
             }
-        });
-
-        List<ServerThread> active = clientsInRoom.values().stream()
-                .filter(p -> !p.isEliminated() && !p.isSpectator() && p.getChoice() != null)
-                .collect(Collectors.toList());
-
-        Set<ServerThread> toEliminate = new HashSet<>();
-        int n = active.size();
-
-        for (int i = 0; i < n; i++) {
-            ServerThread a = active.get(i);
-            ServerThread b = active.get((i + 1) % n);
-
-            String choiceA = a.getChoice();
-            String choiceB = b.getChoice();
-
-            if (choiceA == null || choiceB == null)
-                continue;
-
-            if (n == 2) {
-                boolean aWins = winsAgainst(choiceA, choiceB);
-                boolean bWins = winsAgainst(choiceB, choiceA);
-
-                if (aWins && !bWins) {
-                    a.setPoints(a.getPoints() + 1);
-                    sendGameEvent(a.getDisplayName() + " (" + choiceA + ") beat " +
-                            b.getDisplayName() + " (" + choiceB + ")");
-                    toEliminate.add(b);
-                } else if (bWins && !aWins) {
-                    b.setPoints(b.getPoints() + 1);
-                    sendGameEvent(b.getDisplayName() + " (" + choiceB + ") beat " +
-                            a.getDisplayName() + " (" + choiceA + ")");
-                    toEliminate.add(a);
-                } else {
-                    sendGameEvent(a.getDisplayName() + " (" + choiceA + ") tied with " +
-                            b.getDisplayName() + " (" + choiceB + ")");
-                }
+        }
+        result.setSkipped(Arrays.copyOf(skipped, skippedCount));
 
-                break;
+        if (activeSeats.length < size) {
+            activeSeats = new int[size];
+            loserSeats = new int[size];
+        }
+        int n = 0;
+        for (int seat = 0; seat < size; seat++) {
+            if (!players.has(seat, (byte) (PlayerTable.ELIMINATED | PlayerTable.SPECTATOR))
+                    && players.choice(seat) != PlayerTable.NO_CHOICE) {
+                activeSeats[n++] = seat;
             }
+        }
 
-            boolean aWins = winsAgainst(choiceA, choiceB);
-            boolean bWins = winsAgainst(choiceB, choiceA);
+        // each active player battles the next one in seat order (wrapping); with 2
+        // players there's a single battle
+        int losers = 0;
+        int battles = n == 2 ? 1 : n;
+        long[] pairA = new long[battles];
+        long[] pairB = new long[battles];
+        byte[] choicesA = new byte[battles];
+        byte[] choicesB = new byte[battles];
+        byte[] outcomes = new byte[battles];
+        for (int i = 0; i < battles; i++) {
+            int a = activeSeats[i];
+            int b = activeSeats[(i + 1) % n];
+            Choice choiceA = Choice.fromByte(players.choice(a));
+            Choice choiceB = Choice.fromByte(players.choice(b));
+            pairA[i] = players.clientId(a);
+            pairB[i] = players.clientId(b);
+            choicesA[i] = choiceA.toByte();
+            choicesB[i] = choiceB.toByte();
+
+            boolean aWins = choiceA.beats(choiceB);
+            boolean bWins = choiceB.beats(choiceA);
 
             if (aWins && !bWins) {
-                a.setPoints(a.getPoints() + 1);
-                sendGameEvent(a.getDisplayName() + " (" + choiceA + ") beat " +
-                        b.getDisplayName() + " (" + choiceB + ")");
-                toEliminate.add(b);
+                players.addPoints(a, 1);
+                outcomes[i] = RoundResultPayload.A_WON;
+                loserSeats[losers++] = b;
             } else if (bWins && !aWins) {
-                b.setPoints(b.getPoints() + 1);
-                sendGameEvent(b.getDisplayName() + " (" + choiceB + ") beat " +
-                        a.getDisplayName() + " (" + choiceA + ")");
-                toEliminate.add(a);
+                players.addPoints(b, 1);
+                outcomes[i] = RoundResultPayload.B_WON;
+                loserSeats[losers++] = a;
             } else {
-                sendGameEvent(a.getDisplayName() + " (" + choiceA + ") tied with " +
-                        b.getDisplayName() + " (" + choiceB + ")");
+                outcomes[i] = RoundResultPayload.TIE;
             }
         }
+        result.setPairings(pairA, choicesA, pairB, choicesB, outcomes);
 
-        for (ServerThread p : toEliminate) {
-            if (!p.isEliminated()) {
-                p.setEliminated(true);
-                sendGameEvent(p.getDisplayName() + " was eliminated.");
-                broadcastEliminationStatus(p.getClientId(), true);
-                p.sendEliminationStatus(p.getClientId(), true);
+        long[] pointIds = new long[n];
+        int[] points = new int[n];
+        for (int i = 0; i < n; i++) {
+            pointIds[i] = players.clientId(activeSeats[i]);
+            points[i] = players.points(activeSeats[i]);
+        }
+        result.setPoints(pointIds, points);
+
+        // a seat can lose both of its battles; only report it once
+        long[] eliminated = new long[losers];
+        int eliminatedCount = 0;
+        for (int i = 0; i < losers; i++) {
+            int seat = loserSeats[i];
+            if (!players.has(seat, PlayerTable.ELIMINATED)) {
+                players.set(seat, PlayerTable.ELIMINATED, true);
+                eliminated[eliminatedCount++] = players.clientId(seat);
             }
         }
+        result.setEliminated(Arrays.copyOf(eliminated, eliminatedCount));
 
         // UCID: gb373
         // Date: 07/28/2025
         // Summary: Away players are not eliminated, but they can't win.
-        long survivors = clientsInRoom.values().stream()
-                .filter(p -> !p.isEliminated() && !p.isAway() && !p.isSpectator())
-                .count();
-
-        sendGameEvent("Survivors remaining: " + survivors);
+        assert players.countersMatchRecount() : players;
+        int survivors = players.survivorCount();
+        result.setSurvivors(survivors);
 
         if (survivors == 1) {
-            ServerThread winner = clientsInRoom.values().stream()
-                    .filter(p -> !p.isEliminated())
-                    .findFirst()
-                    .get();
-            sendGameEvent("Game Over! Winner: " + winner.getDisplayName());
-            onSessionEnd();
+            int winner = 0;
+            while (!players.isActive(winner)) {
+                winner++;
+            }
+            result.setGameOver(players.clientId(winner));
         } else if (survivors == 0) {
-            sendGameEvent("Game Over! It's a tie!");
+            result.setGameOver(Constants.DEFAULT_CLIENT_ID);
+        }
+
+        // the pick that ended the round is reported before its result
+        flushStatus();
+        // one summary per recipient instead of a GAME_EVENT per pairing/elimination
+        sendToAllClients(result);
+        event.end();
+        if (event.shouldCommit()) {
+            event.room = getName();
+            event.round = round;
+            event.players = n;
+            event.eliminated = eliminatedCount;
+            event.gameOver = result.isGameOver();
+            event.commit();
+        }
+
+        if (result.isGameOver()) {
             onSessionEnd();
         } else {
             onRoundStart();
@@ -228,97 +352,105 @@ public class GameRoom extends BaseGameRoom {
     // and resetting the game state.
     @Override
     protected void onSessionEnd() {
-        clientsInRoom.values().stream()
-                .sorted(Comparator.comparingInt(ServerThread::getPoints).reversed())
-                .forEach(p -> sendGameEvent(p.getDisplayName() + ": " + p.getPoints() + " points"));
-
-        clientsInRoom.values().forEach(p -> {
-            PointsPayload pp = new PointsPayload();
-            pp.setPayloadType(PayloadType.POINTS);
-            pp.setClientId(p.getClientId());
-            pp.setPoints(p.getPoints());
-            clientsInRoom.values().forEach(other -> other.sendToClient(pp));
-        });
+        withLock("onSessionEnd", () -> {
+            final int size = players.size();
+            Integer[] bySeat = new Integer[size];
+            for (int seat = 0; seat < size; seat++) {
+                bySeat[seat] = seat;
+            }
+            Arrays.sort(bySeat, (a, b) -> Integer.compare(players.points(b), players.points(a)));
+            for (int seat : bySeat) {
+                sendGameEvent(players.client(seat).getDisplayName() + ": " + players.points(seat) + " points");
+            }
 
-        clientsInRoom.values().forEach(p -> {
-            if (p.isEliminated()) {
-                broadcastEliminationStatus(p.getClientId(), true);
+            for (int seat = 0; seat < size; seat++) {
+                PointsPayload pp = new PointsPayload();
+                pp.setPayloadType(PayloadType.POINTS);
+                pp.setClientId(players.clientId(seat));
+                pp.setPoints(players.points(seat));
+                clientsInRoom.values().forEach(other -> other.sendToClient(pp));
             }
-        });
 
-        clientsInRoom.values().forEach(player -> {
-            player.setPoints(0);
-            player.setChoice(null);
-            player.setTookTurn(false);
-            player.setEliminated(false);
-            player.setReady(false);
-            player.sendEliminationStatus(player.getClientId(), false);
-            player.sendMessage(Constants.DEFAULT_CLIENT_ID, "Game ended. Please /ready to start again.");
-        });
+            for (int seat = 0; seat < size; seat++) {
+                if (players.has(seat, PlayerTable.ELIMINATED)) {
+                    broadcastStatus(players.clientId(seat), PlayerStatus.ELIMINATED, true);
+                }
+            }
 
-        changePhase(Phase.READY);
+            players.clearChoices();
+            players.clearAll((byte) (PlayerTable.TOOK_TURN | PlayerTable.ELIMINATED | PlayerTable.READY));
+            for (int seat = 0; seat < size; seat++) {
+                players.setPoints(seat, 0);
+                ServerThread player = players.client(seat);
+                // others still see the elimination; the player's own view resets
+                queueStatus(player, player.getClientId(), PlayerStatus.ELIMINATED, false, false);
+                player.sendMessage(Constants.DEFAULT_CLIENT_ID, "Game ended. Please /ready to start again.");
+            }
+
+            changePhase(Phase.READY);
+            flushStatus();
+        });
     }
 
     // UCID: gb373
     // Date: 07/09/2025
     // Summary: Handles the player's turn action in the game in the GameRoom.
-    protected void handleTurnAction(ServerThread player, String choice) {
+    // The choice is parsed once on receipt (null if the message wasn't a valid
+    // code).
+    protected void handleTurnAction(ServerThread player, Choice choice) {
+        withLock("handleTurnAction", () -> turnAction(player, choice));
+    }
+
+    private void turnAction(ServerThread player, Choice choice) {
+        final long start = System.nanoTime();
+        long broadcastStart = 0;
         try {
             checkPlayerInRoom(player);
             checkIsReady(player);
             checkCurrentPhase(player, Phase.IN_PROGRESS);
 
-            if (player.isEliminated()) {
+            int seat = players.seatOf(player);
+            if (players.has(seat, PlayerTable.ELIMINATED)) {
                 player.sendMessage(Constants.DEFAULT_CLIENT_ID, "You are eliminated.");
                 return;
             }
 
-            if (player.getChoice() != null) {
+            if (players.choice(seat) != PlayerTable.NO_CHOICE) {
                 player.sendMessage(Constants.DEFAULT_CLIENT_ID, "You already picked.");
                 return;
             }
-            if (player.isAway()) {
+            if (players.has(seat, PlayerTable.AWAY)) {
                 player.sendMessage(Constants.DEFAULT_CLIENT_ID, "You are marked as away.");
                 return;
             }
-            if (player.isSpectator()) {
+            if (players.has(seat, PlayerTable.SPECTATOR)) {
                 player.sendMessage(Constants.DEFAULT_CLIENT_ID, "Spectators cannot make moves.");
                 return;
             }
 
-            choice = choice.trim().toLowerCase();
-
-            if (extraOptionsEnabled) {
-                if (!choice.matches("[rpsfw]")) {
-                    player.sendMessage(Constants.DEFAULT_CLIENT_ID, "Invalid choice. Use r, p, s, f, or w.");
-                    return;
-                }
-            } else {
-                if (!choice.matches("[rps]")) {
-                    player.sendMessage(Constants.DEFAULT_CLIENT_ID, "Invalid choice. Use r, p, or s.");
-                    return;
-                }
+            if (choice == null || !choice.isAllowed(extraOptionsEnabled)) {
+                player.sendMessage(Constants.DEFAULT_CLIENT_ID, extraOptionsEnabled
+                        ? "Invalid choice. Use r, p, s, f, or w."
+                        : "Invalid choice. Use r, p, or s.");
+                return;
             }
 
-            player.setChoice(choice);
-            player.setTookTurn(true);
-            sendTurnStatus(player, true);
+            players.setChoice(seat, choice.toByte());
+            players.set(seat, PlayerTable.TOOK_TURN, true);
+            TraceBuffer.INSTANCE.span(TraceBuffer.SERVER_VALIDATE, start, player.getClientId());
+            broadcastStart = System.nanoTime();
+            broadcastStatus(player.getClientId(), (byte) (PlayerStatus.TOOK_TURN | PlayerStatus.PENDING),
+                    PlayerStatus.TOOK_TURN);
             sendGameEvent(player.getDisplayName() + " picked.");
-            clientsInRoom.values().forEach(p -> p.sendPendingStatus(player.getClientId(), false));
 
-            Payload confirm = new Payload();
-            confirm.setPayloadType(PayloadType.TURN_CONFIRMED);
-            player.sendToClient(confirm);
+            player.sendToClient(CachedPayloads.TURN_CONFIRMED);
 
             // UCID: gb373
             // Date: 07/28/2025
             // Summary: Sync the player's points with all other players.
             // Ignores eliminated and away players.
-            long remaining = clientsInRoom.values().stream()
-                    .filter(p -> !p.isEliminated() && !p.isAway() && !p.isSpectator() && p.getChoice() == null)
-                    .count();
-
-            if (remaining == 0) {
+            assert players.countersMatchRecount() : players;
+            if (players.pendingCount() == 0) {
                 onRoundEnd();
             }
 
@@ -330,6 +462,11 @@ public class GameRoom extends BaseGameRoom {
             LoggerUtil.INSTANCE.severe("handleTurnAction exception", e);
         } catch (Exception e) {
             LoggerUtil.INSTANCE.severe("Unexpected error in handleTurnAction", e);
+        } finally {
+            flushStatus();
+            if (broadcastStart != 0) {
+                TraceBuffer.INSTANCE.span(TraceBuffer.SERVER_BROADCAST, broadcastStart, player.getClientId());
+            }
         }
     }
 
@@ -342,44 +479,51 @@ public class GameRoom extends BaseGameRoom {
     // If the game is not in the READY phase, the player is marked as a spectator.
     // If the player is already ready, they are not marked as a spectator.
     protected void handleReady(ServerThread player, boolean wantsSpectator, boolean isReady) {
+        withLock("handleReady", () -> {
+            try {
+                applyReady(player, isReady);
+            } finally {
+                flushStatus();
+            }
+        });
+    }
+
+    private void applyReady(ServerThread player, boolean isReady) {
+        int seat = players.seatOf(player);
+        if (seat < 0) {
+            LoggerUtil.INSTANCE.warning("handleReady for a player without a seat");
+            return;
+        }
 
         if (currentPhase != Phase.READY) {
-            player.setSpectator(true);
-            player.setReady(false);
-            player.setEliminated(false);
-            player.setAway(false);
+            players.set(seat, PlayerTable.SPECTATOR, true);
+            players.set(seat, (byte) (PlayerTable.READY | PlayerTable.ELIMINATED | PlayerTable.AWAY), false);
             sendGameEvent(player.getDisplayName() + " joined late as a spectator.");
-            broadcastSpectatorStatus(player.getClientId(), true);
+            broadcastStatus(player.getClientId(), PlayerStatus.SPECTATOR, true);
 
             return;
         }
 
         if (!isReady) {
-            player.setSpectator(true);
-            player.setReady(false);
-            player.setEliminated(false);
-            player.setAway(false);
+            players.set(seat, PlayerTable.SPECTATOR, true);
+            players.set(seat, (byte) (PlayerTable.READY | PlayerTable.ELIMINATED | PlayerTable.AWAY), false);
             sendGameEvent(player.getDisplayName() + " joined as a spectator.");
-            broadcastSpectatorStatus(player.getClientId(), true);
+            broadcastStatus(player.getClientId(), PlayerStatus.SPECTATOR, true);
 
         } else {
-            player.setSpectator(false);
-            player.setReady(true);
-            player.setEliminated(false);
-            player.setAway(false);
-            sendReadyStatus(player, true);
-            broadcastSpectatorStatus(player.getClientId(), false);
+            players.set(seat, PlayerTable.READY, true);
+            players.set(seat, (byte) (PlayerTable.SPECTATOR | PlayerTable.ELIMINATED | PlayerTable.AWAY), false);
+            broadcastStatus(player.getClientId(), (byte) (PlayerStatus.READY | PlayerStatus.SPECTATOR),
+                    PlayerStatus.READY);
 
         }
 
-        // Continue existing check if all active players are ready
-        List<ServerThread> activePlayers = clientsInRoom.values().stream()
-                .filter(p -> !p.isSpectator())
-                .collect(Collectors.toList());
-
-        boolean allReady = activePlayers.stream().allMatch(p -> p.isReady() && !p.isSpectator());
+        // Continue existing check if all active (non-spectator) players are ready
+        assert players.countersMatchRecount() : players;
+        int activePlayers = players.participantCount();
+        boolean allReady = players.readyCount() == activePlayers;
 
-        if (allReady && activePlayers.size() >= 2) {
+        if (allReady && activePlayers >= 2) {
             onSessionStart();
         } else if (allReady) {
             sendGameEvent("At least 2 active players are required to start the game.");
@@ -387,108 +531,159 @@ public class GameRoom extends BaseGameRoom {
     }
 
     private void resetPlayerChoices() {
-        clientsInRoom.values().forEach(p -> {
-            p.setChoice(null);
-            p.setTookTurn(false);
-            if (!p.isEliminated()) {
-                broadcastEliminationStatus(p.getClientId(), false);
+        players.clearChoices();
+        players.clearAll(PlayerTable.TOOK_TURN);
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (!players.has(seat, PlayerTable.ELIMINATED)) {
+                broadcastStatus(players.clientId(seat), PlayerStatus.ELIMINATED, false);
             }
-        });
+        }
     }
 
     private void resetRoundTimer() {
         if (roundTimer != null) {
             roundTimer.cancel();
             roundTimer = null;
-            sendCurrentTime(TimerType.ROUND, -1);
+            sendTimerDeadline(TimerType.ROUND, -1);
         }
     }
 
     @Override
     protected void sendGameEvent(String msg) {
+        stats.fannedOut(clientsInRoom.size());
         clientsInRoom.values().forEach(p -> p.sendGameEvent(msg));
     }
 
     private void sendToAllClients(Payload payload) {
+        stats.fannedOut(clientsInRoom.size());
         clientsInRoom.values().forEach(p -> p.sendToClient(payload));
     }
 
     private void syncPlayerPoints(ServerThread p) {
-        clientsInRoom.values().forEach(other -> {
-            if (other != p)
-                p.sendPoints(other.getClientId(), other.getPoints());
-        });
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (players.client(seat) != p)
+                p.sendPoints(players.clientId(seat), players.points(seat));
+        }
     }
 
     @Override
     protected void sendReadyStatus(ServerThread player, boolean isReady) {
-        clientsInRoom.values().forEach(p -> p.sendReadyStatus(player.getClientId(), isReady));
+        withLock("sendReadyStatus", () -> {
+            broadcastStatus(player.getClientId(), PlayerStatus.READY, isReady);
+            flushStatus();
+        });
     }
 
-    private void sendTurnStatus(ServerThread client, boolean tookTurn) {
-        clientsInRoom.values().forEach(p -> p.sendTurnStatus(client.getClientId(), tookTurn));
+    /**
+     * Queues a status change for every member
+     *
+     * @param clientId whose status changed
+     * @param bit      PlayerStatus bit(s)
+     * @param on       new value
+     */
+    private void broadcastStatus(long clientId, byte bit, boolean on) {
+        broadcastStatus(clientId, bit, on ? bit : 0);
     }
 
-    protected void handleExtraOptionsToggle(ServerThread player) {
-        if (currentPhase != Phase.READY) {
-            player.sendMessage(Constants.DEFAULT_CLIENT_ID, "You can only toggle options during the ready phase.");
-            return;
+    private void broadcastStatus(long clientId, byte mask, byte values) {
+        broadcastStatus.put(clientId, mask, values, false);
+        // an earlier private change to the same client mustn't hide this one
+        for (StatusBuffer own : privateStatus.values()) {
+            if (own.contains(clientId)) {
+                own.put(clientId, mask, values, false);
+            }
         }
+    }
 
-        // UCID: gb373
-        // Date: 07/24/2025
-        // Summary: Toggle extra options for the game and only the host can do this.
-        boolean isHost = isHost(player);
-        if (!isHost) {
-            player.sendMessage(Constants.DEFAULT_CLIENT_ID, "Only the host can toggle extra options.");
+    /**
+     * Queues a status change for one member
+     *
+     * @param recipient who hears about it
+     * @param clientId  whose status changed
+     * @param bit       PlayerStatus bit(s)
+     * @param on        new value
+     * @param quiet     silent sync (no chat output on the client)
+     */
+    private void queueStatus(ServerThread recipient, long clientId, byte bit, boolean on, boolean quiet) {
+        privateStatus.computeIfAbsent(recipient, r -> new StatusBuffer()).put(clientId, bit, on ? bit : 0, quiet);
+    }
+
+    /**
+     * Sends the status changes queued by the current event: members with no
+     * private changes share one delta, the rest get it merged with theirs
+     */
+    private void flushStatus() {
+        if (broadcastStatus.isEmpty() && privateStatus.isEmpty()) {
             return;
         }
+        Payload shared = null;
+        if (!broadcastStatus.isEmpty()) {
+            shared = broadcastStatus.toPayload();
+            // frozen payloads can't be stamped when sent
+            TraceBuffer.INSTANCE.stamp(shared);
+            shared.freeze();
+        }
+        final Payload sharedDelta = shared;
+        stats.fannedOut(clientsInRoom.size());
+        clientsInRoom.values().forEach(client -> {
+            StatusBuffer own = privateStatus.remove(client);
+            if (own == null) {
+                if (sharedDelta != null) {
+                    client.sendToClient(sharedDelta);
+                }
+                return;
+            }
+            StatusBuffer merged = new StatusBuffer();
+            merged.putAll(broadcastStatus);
+            merged.putAll(own);
+            client.sendToClient(merged.toPayload());
+        });
+        broadcastStatus.clear();
+        privateStatus.clear();
+    }
 
-        this.extraOptionsEnabled = !this.extraOptionsEnabled;
+    protected void handleExtraOptionsToggle(ServerThread player) {
+        withLock("handleExtraOptionsToggle", () -> {
+            if (currentPhase != Phase.READY) {
+                player.sendMessage(Constants.DEFAULT_CLIENT_ID, "You can only toggle options during the ready phase.");
+                return;
+            }
 
-        Payload payload = new Payload();
-        payload.setPayloadType(PayloadType.EXTRA_OPTIONS_ENABLED);
-        payload.setMessage(Boolean.toString(this.extraOptionsEnabled));
-        sendToAllClients(payload);
+            // UCID: gb373
+            // Date: 07/24/2025
+            // Summary: Toggle extra options for the game and only the host can do this.
+            boolean isHost = isHost(player);
+            if (!isHost) {
+                player.sendMessage(Constants.DEFAULT_CLIENT_ID, "Only the host can toggle extra options.");
+                return;
+            }
 
-        sendGameEvent("Extra options are now " + (extraOptionsEnabled ? "ENABLED" : "DISABLED"));
-    }
+            this.extraOptionsEnabled = !this.extraOptionsEnabled;
 
-    // UCID: gb373
-    // Date: 07/24/2025
-    // Summary: Battle logic for Rock-Paper-Scissors with extra options.
-    private boolean winsAgainst(String a, String b) {
-        if (!extraOptionsEnabled) {
-            // Original RPS
-            return (a.equals("r") && b.equals("s")) || // Rock beats Scissors
-                    (a.equals("p") && b.equals("r")) || // Paper beats Rock
-                    (a.equals("s") && b.equals("p")); // Scissors beats Paper
-        } else {
+            sendToAllClients(CachedPayloads.extraOptionsEnabled(this.extraOptionsEnabled));
 
-            if (a.equals("r")) {
-                return b.equals("s") || b.equals("f"); // Rock beats Scissors and Fire
-            } else if (a.equals("p")) {
-                return b.equals("r") || b.equals("w"); // Paper beats Rock and Water
-            } else if (a.equals("s")) {
-                return b.equals("p") || b.equals("w"); // Scissors beats Paper and Water
-            } else if (a.equals("f")) { // Fire
-                return b.equals("p") || b.equals("s"); // Fire beats Paper and Scissors
-            } else if (a.equals("w")) { // Water
-                return b.equals("f") || b.equals("r"); // Water beats Fire and Rock
-            }
-            return false;
-        }
+            sendGameEvent("Extra options are now " + (extraOptionsEnabled ? "ENABLED" : "DISABLED"));
+        });
     }
 
     @Override
-    protected void sendCurrentTime(TimerType type, int time) {
+    protected void sendTimerDeadline(TimerType type, long deadline) {
         TimerPayload payload = new TimerPayload();
-        payload.setPayloadType(PayloadType.TIME);
         payload.setTimerType(type);
-        payload.setTime(time);
+        payload.setDeadline(deadline, clock.currentTimeMillis());
         sendToAllClients(payload);
     }
 
+    @Override
+    protected void syncTimers(ServerThread sp) {
+        withLock("syncTimers", () -> {
+            super.syncTimers(sp);
+            if (roundTimer != null) {
+                sp.sendTimerDeadline(TimerType.ROUND, roundTimer.getDeadline(), clock.currentTimeMillis());
+            }
+        });
+    }
+
     @Override
     protected void syncCurrentPhase(ServerThread p) {
         p.sendCurrentPhase(currentPhase);
@@ -496,36 +691,32 @@ public class GameRoom extends BaseGameRoom {
 
     @Override
     protected void syncReadyStatus(ServerThread p) {
-        clientsInRoom.values().forEach(other -> {
-            if (other != p) {
-                p.sendReadyStatus(other.getClientId(), other.isReady(), true);
-                p.sendSpectatorStatus(other.getClientId(), other.isSpectator());
-            }
-        });
+        syncStatus(p, (byte) (PlayerStatus.READY | PlayerStatus.SPECTATOR));
     }
 
     private void syncTurnStatus(ServerThread p) {
-        clientsInRoom.values().forEach(other -> {
-            if (other != p)
-                p.sendTurnStatus(other.getClientId(), other.didTakeTurn(), true);
-        });
+        syncStatus(p, PlayerStatus.TOOK_TURN);
     }
 
-    private void broadcastEliminationStatus(long clientId, boolean isEliminated) {
-        clientsInRoom.values().forEach(client -> {
-            client.sendEliminationStatus(clientId, isEliminated);
-        });
+    /**
+     * Queues everyone else's current value of the given bits for a joining
+     * client as a silent sync
+     */
+    private void syncStatus(ServerThread p, byte mask) {
+        StatusBuffer own = privateStatus.computeIfAbsent(p, r -> new StatusBuffer());
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (players.client(seat) != p) {
+                own.put(players.clientId(seat), mask, players.flags(seat), true);
+            }
+        }
     }
 
-    private void broadcastSpectatorStatus(long clientId, boolean isSpectator) {
-        clientsInRoom.values().forEach(client -> {
-            client.sendSpectatorStatus(clientId, isSpectator);
-        });
+    private boolean isHost(ServerThread player) {
+        return players.host() == player;
     }
 
-    private boolean isHost(ServerThread player) {
-        return clientsInRoom.values().stream().findFirst().map(p -> p.getClientId() == player.getClientId())
-                .orElse(false);
+    private void sendHostStatus(ServerThread player, boolean isHost) {
+        player.sendToClient(CachedPayloads.hostStatus(isHost));
     }
 
     private boolean choiceCooldownEnabled = false;
@@ -534,26 +725,25 @@ public class GameRoom extends BaseGameRoom {
     // Date: 07/28/2025
     // Summary: Toggle choice cooldown for the game; only the host can do this.
     protected void handleChoiceCooldownToggle(ServerThread player) {
-        if (currentPhase != Phase.READY) {
-            player.sendMessage(Constants.DEFAULT_CLIENT_ID,
-                    "You can only toggle choice cooldown during the ready phase.");
-            return;
-        }
+        withLock("handleChoiceCooldownToggle", () -> {
+            if (currentPhase != Phase.READY) {
+                player.sendMessage(Constants.DEFAULT_CLIENT_ID,
+                        "You can only toggle choice cooldown during the ready phase.");
+                return;
+            }
 
-        boolean isHost = isHost(player);
-        if (!isHost) {
-            player.sendMessage(Constants.DEFAULT_CLIENT_ID, "Only the host can toggle choice cooldown.");
-            return;
-        }
+            boolean isHost = isHost(player);
+            if (!isHost) {
+                player.sendMessage(Constants.DEFAULT_CLIENT_ID, "Only the host can toggle choice cooldown.");
+                return;
+            }
 
-        this.choiceCooldownEnabled = !this.choiceCooldownEnabled;
+            this.choiceCooldownEnabled = !this.choiceCooldownEnabled;
 
-        Payload payload = new Payload();
-        payload.setPayloadType(PayloadType.CHOICE_COOLDOWN_TOGGLE);
-        payload.setMessage(Boolean.toString(this.choiceCooldownEnabled));
-        sendToAllClients(payload);
+            sendToAllClients(CachedPayloads.choiceCooldownToggle(this.choiceCooldownEnabled));
 
-        sendGameEvent("Choice cooldown is now " + (choiceCooldownEnabled ? "ENABLED" : "DISABLED"));
+            sendGameEvent("Choice cooldown is now " + (choiceCooldownEnabled ? "ENABLED" : "DISABLED"));
+        });
     }
 
     public boolean isChoiceCooldownEnabled() {
@@ -564,13 +754,15 @@ public class GameRoom extends BaseGameRoom {
     // Date: 07/28/2025
     // Summary: Handles the away toggle for a player.
     protected void handleAwayToggle(ServerThread player, boolean newAway) {
-        player.setAway(newAway);
-
-        Payload p = new Payload();
-        p.setPayloadType(PayloadType.AWAY_UPDATE);
-        p.setClientId(player.getClientId());
-        p.setMessage(String.valueOf(newAway));
-        sendToAllClients(p);
+        withLock("handleAwayToggle", () -> {
+            int seat = players.seatOf(player);
+            if (seat < 0) {
+                return;
+            }
+            players.set(seat, PlayerTable.AWAY, newAway);
+            broadcastStatus(player.getClientId(), PlayerStatus.AWAY, newAway);
+            flushStatus();
+        });
     }
 
 }
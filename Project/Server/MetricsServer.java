@@ -0,0 +1,80 @@
+package Project.Server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import Project.Common.LoggerUtil;
+import Project.Common.Metrics;
+import Project.Common.TraceBuffer;
+
+/**
+ * Serves Metrics.INSTANCE at http://127.0.0.1:&lt;port&gt;/metrics in the
+ * Prometheus text format, and the sampled request spans (TraceBuffer) at
+ * /traces in the format TraceReport reads, and the hottest rooms report at
+ * /rooms. Bound to loopback only; scrape it from the host or through a tunnel.
+ */
+final class MetricsServer {
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    static final String TEXT_CONTENT_TYPE = "text/plain; charset=utf-8";
+    static final String TRACES_CONTENT_TYPE = "text/tab-separated-values; charset=utf-8";
+
+    private final HttpServer http;
+
+    private MetricsServer(HttpServer http) {
+        this.http = http;
+    }
+
+    /**
+     * @param port 0 to not serve metrics
+     * @return the running server, or null if disabled or the port couldn't be
+     *         bound (the game server runs either way)
+     */
+    static MetricsServer start(int port) {
+        if (port <= 0) {
+            return null;
+        }
+        try {
+            HttpServer http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            http.createContext("/metrics", exchange -> respond(exchange, CONTENT_TYPE,
+                    Metrics.INSTANCE.toPrometheus()));
+            http.createContext("/traces", exchange -> {
+                StringBuilder traces = new StringBuilder();
+                TraceBuffer.INSTANCE.export(traces);
+                respond(exchange, TRACES_CONTENT_TYPE, traces.toString());
+            });
+            http.createContext("/rooms", exchange -> respond(exchange, TEXT_CONTENT_TYPE,
+                    Server.INSTANCE.roomReport()));
+            http.start();
+            LoggerUtil.INSTANCE.info("Serving metrics on http://127.0.0.1:%s/metrics", port);
+            return new MetricsServer(http);
+        } catch (IOException e) {
+            LoggerUtil.INSTANCE.warning("Couldn't serve metrics on port %s: %s", port, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, String text) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = text.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    void stop() {
+        http.stop(0);
+    }
+}
@@ -0,0 +1,285 @@
+package Project.Server;
+
+import java.util.Arrays;
+
+import Project.Common.PlayerStatus;
+
+/**
+ * Per-room game state stored as parallel primitive arrays indexed by seat.
+ * <p>
+ * Seats are dense (0..size()-1) and kept in join order; removing a player
+ * shifts later seats down so round resolution can run as plain loops over the
+ * arrays instead of chasing ServerThread/User references.
+ * </p>
+ * <p>
+ * Round aggregates (ready, participants, survivors, pending pickers) are
+ * maintained incrementally on every state transition so the room never has to
+ * rescan the table per pick. Seat 0 is always the longest-present player and
+ * serves as the host.
+ * </p>
+ * <p>
+ * Not thread-safe on its own; the owning GameRoom guards it with its monitor.
+ * </p>
+ */
+public class PlayerTable {
+    // bit-packed per-seat flags (the same bits go out in STATUS_DELTA payloads)
+    public static final byte READY = PlayerStatus.READY;
+    public static final byte TOOK_TURN = PlayerStatus.TOOK_TURN;
+    public static final byte ELIMINATED = PlayerStatus.ELIMINATED;
+    public static final byte AWAY = PlayerStatus.AWAY;
+    public static final byte SPECTATOR = PlayerStatus.SPECTATOR;
+
+    public static final byte NO_CHOICE = 0;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private ServerThread[] clients = new ServerThread[INITIAL_CAPACITY];
+    private long[] clientIds = new long[INITIAL_CAPACITY];
+    private byte[] choices = new byte[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private int[] points = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // incremental aggregates (see contribute())
+    private int participants = 0; // not spectating
+    private int ready = 0; // ready and not spectating
+    private int survivors = 0; // isActive()
+    private int pending = 0; // isActive() and hasn't picked
+
+    /**
+     * Seats the client at the end of the table (join order)
+     *
+     * @param client
+     * @return the assigned seat
+     */
+    public int add(ServerThread client) {
+        int existing = seatOf(client);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (size == clients.length) {
+            int capacity = size * 2;
+            clients = Arrays.copyOf(clients, capacity);
+            clientIds = Arrays.copyOf(clientIds, capacity);
+            choices = Arrays.copyOf(choices, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            points = Arrays.copyOf(points, capacity);
+        }
+        int seat = size++;
+        clients[seat] = client;
+        clientIds[seat] = client.getClientId();
+        choices[seat] = NO_CHOICE;
+        flags[seat] = 0;
+        points[seat] = 0;
+        client.setSeat(seat);
+        contribute(seat, 1);
+        return seat;
+    }
+
+    /**
+     * Frees the client's seat; later seats shift down to keep join order.
+     * Safe to call more than once.
+     *
+     * @param client
+     * @return true if the client was seated here
+     */
+    public boolean remove(ServerThread client) {
+        int seat = seatOf(client);
+        if (seat < 0) {
+            return false;
+        }
+        contribute(seat, -1);
+        int tail = size - seat - 1;
+        if (tail > 0) {
+            System.arraycopy(clients, seat + 1, clients, seat, tail);
+            System.arraycopy(clientIds, seat + 1, clientIds, seat, tail);
+            System.arraycopy(choices, seat + 1, choices, seat, tail);
+            System.arraycopy(flags, seat + 1, flags, seat, tail);
+            System.arraycopy(points, seat + 1, points, seat, tail);
+            for (int i = seat; i < size - 1; i++) {
+                clients[i].setSeat(i);
+            }
+        }
+        size--;
+        clients[size] = null;
+        client.setSeat(-1);
+        return true;
+    }
+
+    /**
+     * @param client
+     * @return the client's seat in this table or -1 if not seated here
+     */
+    public int seatOf(ServerThread client) {
+        int seat = client.getSeat();
+        return seat >= 0 && seat < size && clients[seat] == client ? seat : -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ServerThread client(int seat) {
+        return clients[seat];
+    }
+
+    public long clientId(int seat) {
+        return clientIds[seat];
+    }
+
+    /**
+     * @param seat
+     * @return the seat's flags
+     */
+    public byte flags(int seat) {
+        return flags[seat];
+    }
+
+    public boolean has(int seat, byte flag) {
+        return (flags[seat] & flag) != 0;
+    }
+
+    public void set(int seat, byte flag, boolean on) {
+        contribute(seat, -1);
+        flags[seat] = (byte) (on ? flags[seat] | flag : flags[seat] & ~flag);
+        contribute(seat, 1);
+    }
+
+    /**
+     * Clears the given flag(s) on every seat
+     *
+     * @param mask
+     */
+    public void clearAll(byte mask) {
+        for (int i = 0; i < size; i++) {
+            contribute(i, -1);
+            flags[i] = (byte) (flags[i] & ~mask);
+            contribute(i, 1);
+        }
+    }
+
+    public byte choice(int seat) {
+        return choices[seat];
+    }
+
+    public void setChoice(int seat, byte choice) {
+        contribute(seat, -1);
+        choices[seat] = choice;
+        contribute(seat, 1);
+    }
+
+    public void clearChoices() {
+        Arrays.fill(choices, 0, size, NO_CHOICE);
+        // every active seat is pending again
+        pending = survivors;
+    }
+
+    public int points(int seat) {
+        return points[seat];
+    }
+
+    public void setPoints(int seat, int value) {
+        points[seat] = value;
+    }
+
+    public void addPoints(int seat, int delta) {
+        points[seat] += delta;
+    }
+
+    /**
+     * @param seat
+     * @return true if the seat can still pick this round (in the game, present and
+     *         not watching)
+     */
+    public boolean isActive(int seat) {
+        return (flags[seat] & (ELIMINATED | AWAY | SPECTATOR)) == 0;
+    }
+
+    /**
+     * Adds (sign 1) or removes (sign -1) the seat's share of the aggregates.
+     * Called around every mutation so the counters always match the arrays.
+     */
+    private void contribute(int seat, int sign) {
+        byte f = flags[seat];
+        if ((f & SPECTATOR) == 0) {
+            participants += sign;
+            if ((f & READY) != 0) {
+                ready += sign;
+            }
+        }
+        if ((f & (ELIMINATED | AWAY | SPECTATOR)) == 0) {
+            survivors += sign;
+            if (choices[seat] == NO_CHOICE) {
+                pending += sign;
+            }
+        }
+    }
+
+    /**
+     * @return players not spectating
+     */
+    public int participantCount() {
+        return participants;
+    }
+
+    /**
+     * @return non-spectating players marked ready
+     */
+    public int readyCount() {
+        return ready;
+    }
+
+    /**
+     * @return players still in the game (not eliminated, away or spectating)
+     */
+    public int survivorCount() {
+        return survivors;
+    }
+
+    /**
+     * @return survivors who haven't picked yet this round
+     */
+    public int pendingCount() {
+        return pending;
+    }
+
+    /**
+     * The host is the longest-present player (seat 0)
+     *
+     * @return the host or null if the table is empty
+     */
+    public ServerThread host() {
+        return size > 0 ? clients[0] : null;
+    }
+
+    /**
+     * Recomputes every aggregate from the arrays; used by assertions to prove the
+     * incremental counters haven't drifted
+     *
+     * @return true if the running counters match a full recount
+     */
+    public boolean countersMatchRecount() {
+        int p = 0, r = 0, s = 0, pe = 0;
+        for (int i = 0; i < size; i++) {
+            if (!has(i, SPECTATOR)) {
+                p++;
+                if (has(i, READY)) {
+                    r++;
+                }
+            }
+            if (isActive(i)) {
+                s++;
+                if (choices[i] == NO_CHOICE) {
+                    pe++;
+                }
+            }
+        }
+        return p == participants && r == ready && s == survivors && pe == pending;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PlayerTable[size=%d participants=%d ready=%d survivors=%d pending=%d]", size,
+                participants, ready, survivors, pending);
+    }
+}
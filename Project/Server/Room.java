@@ -1,11 +1,13 @@
 package Project.Server;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
+import Project.Common.ConcurrentLongMap;
 import Project.Common.Constants;
 import Project.Common.LoggerUtil;
 import Project.Common.RoomAction;
 import Project.Common.TextFX;
+import Project.Common.TraceBuffer;
 import Project.Common.TextFX.Color;
 import Project.Exceptions.DuplicateRoomException;
 import Project.Exceptions.RoomNotFoundException;
@@ -13,12 +15,31 @@ import Project.Exceptions.RoomNotFoundException;
 public class Room implements AutoCloseable {
     private final String name;// unique name of the Room
     private volatile boolean isRunning = false;
-    protected final ConcurrentHashMap<Long, ServerThread> clientsInRoom = new ConcurrentHashMap<Long, ServerThread>();
+    // keyed by primitive clientId to avoid boxing on every membership lookup
+    protected final ConcurrentLongMap<ServerThread> clientsInRoom = new ConcurrentLongMap<ServerThread>();
+    // handler CPU, lock wait and fan-out totals (see Server's hottest rooms report)
+    protected final RoomStats stats = new RoomStats();
 
     public final static String LOBBY = "lobby";
+    // LoggerUtil category of the per-message relay lines (rate limited per room)
+    public final static String RELAY_LOG = "relay";
+    // a constant format (rather than a pre-formatted message) lets the binary
+    // log store the message and room name as arguments of one event
+    private final static String INFO_FORMAT = TextFX.colorize("Room[%s]: %s", Color.PURPLE);
 
     private void info(String message) {
-        LoggerUtil.INSTANCE.info(TextFX.colorize(String.format("Room[%s]: %s", name, message), Color.PURPLE));
+        if (LoggerUtil.INSTANCE.isLoggable(Level.INFO)) {
+            LoggerUtil.INSTANCE.info(INFO_FORMAT, name, message);
+        }
+    }
+
+    private void info(String format, Object... args) {
+        if (LoggerUtil.INSTANCE.isLoggable(Level.INFO)) {
+            Object[] withName = new Object[args.length + 1];
+            withName[0] = name;
+            System.arraycopy(args, 0, withName, 1, args.length);
+            LoggerUtil.INSTANCE.info(TextFX.colorize("Room[%s]: " + format, Color.PURPLE), withName);
+        }
     }
 
     public Room(String name) {
@@ -31,60 +52,99 @@ public class Room implements AutoCloseable {
         return this.name;
     }
 
-    protected boolean isRunning() {
-        return isRunning;
-    }
-
-    protected synchronized void addClient(ServerThread client) {
-        if (!isRunning) { // block action if Room isn't running
+    /**
+     * Runs body holding this room's monitor. The outermost acquisition on a
+     * thread records how long it waited for the monitor (RoomStats and a JFR
+     * RoomLockWait) and the handler's CPU; nested calls just run, as the thread
+     * already holds it.
+     *
+     * @param operation names the handler in RoomLockWait events
+     */
+    protected final void withLock(String operation, Runnable body) {
+        if (Thread.holdsLock(this)) {
+            body.run();
             return;
         }
-        if (clientsInRoom.containsKey(client.getClientId())) {
-            info("Attempting to add a client that already exists in the room");
-            return;
+        long requested = System.nanoTime();
+        ServerEvents.RoomLockWait wait = ServerEvents.lockWait();
+        synchronized (this) {
+            ServerEvents.lockAcquired(wait, name, operation);
+            stats.lockAcquired(requested);
+            long cpu = stats.enter();
+            try {
+                body.run();
+            } finally {
+                stats.exit(cpu);
+            }
         }
-        clientsInRoom.put(client.getClientId(), client);
-        client.setCurrentRoom(this);
-        client.sendResetUserList();
-        syncExistingClients(client);
-        // notify clients of someone joining
-        joinStatusRelay(client, true);
+    }
 
+    protected boolean isRunning() {
+        return isRunning;
     }
 
-    protected synchronized void removeClient(ServerThread client) {
-        if (!isRunning) { // block action if Room isn't running
-            return;
-        }
-        if (!clientsInRoom.containsKey(client.getClientId())) {
-            info("Attempting to remove a client that doesn't exist in the room");
-            return;
-        }
-        ServerThread removedClient = clientsInRoom.get(client.getClientId());
-        if (removedClient != null) {
+    protected void addClient(ServerThread client) {
+        withLock("addClient", () -> {
+            if (!isRunning) { // block action if Room isn't running
+                return;
+            }
+            if (clientsInRoom.containsKey(client.getClientId())) {
+                info("Attempting to add a client that already exists in the room");
+                return;
+            }
+            clientsInRoom.put(client.getClientId(), client);
+            client.setCurrentRoom(this);
+            client.sendResetUserList();
+            if (!syncExistingClients(client)) {
+                return;
+            }
             // notify clients of someone joining
-            joinStatusRelay(removedClient, false);
-            clientsInRoom.remove(client.getClientId());
-            autoCleanup();
-        }
+            joinStatusRelay(client, true);
+        });
     }
 
-    private void syncExistingClients(ServerThread incomingClient) {
-        clientsInRoom.values().forEach(serverThread -> {
+    protected void removeClient(ServerThread client) {
+        withLock("removeClient", () -> {
+            if (!isRunning) { // block action if Room isn't running
+                return;
+            }
+            if (!clientsInRoom.containsKey(client.getClientId())) {
+                info("Attempting to remove a client that doesn't exist in the room");
+                return;
+            }
+            ServerThread removedClient = clientsInRoom.get(client.getClientId());
+            if (removedClient != null) {
+                // notify clients of someone joining
+                joinStatusRelay(removedClient, false);
+                clientsInRoom.remove(client.getClientId());
+                autoCleanup();
+            }
+        });
+    }
+
+    /**
+     * @return false if the incoming client dropped (and was disconnected) while
+     *         being synced
+     */
+    private boolean syncExistingClients(ServerThread incomingClient) {
+        for (ServerThread serverThread : clientsInRoom.values()) {
             if (serverThread.getClientId() != incomingClient.getClientId()) {
                 boolean failedToSync = !incomingClient.sendClientInfo(serverThread.getClientId(),
                         serverThread.getClientName(), RoomAction.JOIN, true);
                 if (failedToSync) {
-                    LoggerUtil.INSTANCE.warning(
-                            String.format("Removing disconnected %s from list", serverThread.getDisplayName()));
-                    disconnect(serverThread);
+                    // the send that failed was to the incoming client, not the member
+                    LoggerUtil.INSTANCE.warning("Removing disconnected %s from list",
+                            incomingClient.getDisplayName());
+                    disconnect(incomingClient);
+                    return false;
                 }
             }
-        });
+        }
+        return true;
     }
 
     private void joinStatusRelay(ServerThread client, boolean didJoin) {
-        clientsInRoom.values().removeIf(serverThread -> {
+        clientsInRoom.removeIf(serverThread -> {
             String formattedMessage = String.format("Room[%s] %s %s the room",
                     getName(),
                     client.getClientId() == serverThread.getClientId() ? "You"
@@ -97,8 +157,8 @@ public class Room implements AutoCloseable {
             // Send the server generated message to the current client
             boolean failedToSend = !serverThread.sendMessage(senderId, formattedMessage);
             if (failedToSend || failedToSync) {
-                LoggerUtil.INSTANCE.warning(
-                        String.format("Removing disconnected %s from list", serverThread.getDisplayName()));
+                LoggerUtil.INSTANCE.warning("Removing disconnected %s from list",
+                        serverThread.getDisplayName());
                 disconnect(serverThread);
             }
             return failedToSend;
@@ -110,88 +170,112 @@ public class Room implements AutoCloseable {
      * Internally calls processCommand and evaluates as necessary.
      * Note: Clients that fail to receive a message get removed from
      * connectedClients.
-     * Adding the synchronized keyword ensures that only one thread can execute
-     * these methods at a time,
+     * Running under the room's lock (withLock()) ensures that only one thread can
+     * execute these methods at a time,
      * preventing concurrent modification issues and ensuring thread safety
      * 
      * @param message
      * @param sender  ServerThread (client) sending the message or null if it's a
      *                server-generated message
      */
-    protected synchronized void relay(ServerThread sender, String message) {
-        if (!isRunning) { // block action if Room isn't running
-            return;
-        }
+    protected void relay(ServerThread sender, String message) {
+        withLock("relay", () -> {
+            if (!isRunning) { // block action if Room isn't running
+                return;
+            }
 
-        // Note: any desired changes to the message must be done before this line
-        final String senderString = sender == null ? String.format("Room[%s]", getName())
-                : sender.getDisplayName();
-        final long senderId = sender == null ? Constants.DEFAULT_CLIENT_ID : sender.getClientId();
-        // Note: formattedMessage must be final (or effectively final) since outside
-        // scope can't be changed inside a callback function (see removeIf() below)
-        final String formattedMessage = String.format("%s: %s", senderString, message);
+            // Note: any desired changes to the message must be done before this line
+            final String senderString = sender == null ? String.format("Room[%s]", getName())
+                    : sender.getDisplayName();
+            final long senderId = sender == null ? Constants.DEFAULT_CLIENT_ID : sender.getClientId();
+            // Note: formattedMessage must be final (or effectively final) since outside
+            // scope can't be changed inside a callback function (see removeIf() below)
+            final String formattedMessage = String.format("%s: %s", senderString, message);
 
-        // loop over clients and send out the message; remove client if message failed
-        // to be sent
-        // Note: this uses a lambda expression for each item in the values() collection,
-        // it's one way we can safely remove items during iteration
-        info(String.format("sending message to %s recipients: %s", clientsInRoom.size(), formattedMessage));
+            // loop over clients and send out the message; remove client if message failed
+            // to be sent
+            // Note: this uses a lambda expression for each item in the values() collection,
+            // it's one way we can safely remove items during iteration
+            final int recipients = clientsInRoom.size();
+            if (LoggerUtil.INSTANCE.shouldLog(RELAY_LOG, name.hashCode(), Level.INFO)) {
+                info("sending message to %s recipients: %s", recipients, formattedMessage);
+            }
 
-        clientsInRoom.values().removeIf(serverThread -> {
-            boolean failedToSend = !serverThread.sendMessage(senderId, formattedMessage);
-            if (failedToSend) {
-                LoggerUtil.INSTANCE.warning(
-                        String.format("Removing disconnected %s from list", serverThread.getDisplayName()));
-                disconnect(serverThread);
+            ServerEvents.RoomBroadcast event = new ServerEvents.RoomBroadcast();
+            event.begin();
+            long start = System.nanoTime();
+            int[] failed = new int[1];
+            clientsInRoom.removeIf(serverThread -> {
+                boolean failedToSend = !serverThread.sendMessage(senderId, formattedMessage);
+                if (failedToSend) {
+                    LoggerUtil.INSTANCE.warning("Removing disconnected %s from list",
+                            serverThread.getDisplayName());
+                    disconnect(serverThread);
+                    failed[0]++;
+                }
+                return failedToSend;
+            });
+            ServerMetrics.RELAY.recordNanos(System.nanoTime() - start);
+            stats.fannedOut(recipients - failed[0]);
+            TraceBuffer.INSTANCE.span(TraceBuffer.SERVER_BROADCAST, start, senderId);
+            event.end();
+            if (event.shouldCommit()) {
+                event.room = name;
+                event.recipients = recipients;
+                event.failed = failed[0];
+                event.commit();
             }
-            return failedToSend;
         });
     }
 
     /**
      * Takes a ServerThread and removes them from the Server
-     * Adding the synchronized keyword ensures that only one thread can execute
-     * these methods at a time,
+     * Running under the room's lock (withLock()) ensures that only one thread can
+     * execute these methods at a time,
      * preventing concurrent modification issues and ensuring thread safety
      * 
      * @param client
      */
-    protected synchronized void disconnect(ServerThread client) {
-        if (!isRunning) { // block action if Room isn't running
-            return;
-        }
-        ServerThread disconnectingServerThread = clientsInRoom.remove(client.getClientId());
-        if (disconnectingServerThread != null) {
+    protected void disconnect(ServerThread client) {
+        withLock("disconnect", () -> {
+            if (!isRunning) { // block action if Room isn't running
+                return;
+            }
+            ServerThread disconnectingServerThread = clientsInRoom.remove(client.getClientId());
+            if (disconnectingServerThread != null) {
 
-            clientsInRoom.values().removeIf(serverThread -> {
-                if (serverThread.getClientId() == disconnectingServerThread.getClientId()) {
-                    return true;
-                }
-                boolean failedToSend = !serverThread.sendClientInfo(disconnectingServerThread.getClientId(),
-                        disconnectingServerThread.getClientName(), RoomAction.LEAVE);
-                if (failedToSend) {
-                    LoggerUtil.INSTANCE.warning(
-                            String.format("Removing disconnected %s from list", serverThread.getDisplayName()));
-                    disconnect(serverThread);
-                }
-                return failedToSend;
-            });
-            relay(null, disconnectingServerThread.getDisplayName() + " disconnected");
-            disconnectingServerThread.disconnect();
-        }
-        autoCleanup();
+                clientsInRoom.removeIf(serverThread -> {
+                    if (serverThread.getClientId() == disconnectingServerThread.getClientId()) {
+                        return true;
+                    }
+                    boolean failedToSend = !serverThread.sendClientInfo(disconnectingServerThread.getClientId(),
+                            disconnectingServerThread.getClientName(), RoomAction.LEAVE);
+                    if (failedToSend) {
+                        LoggerUtil.INSTANCE.warning("Removing disconnected %s from list",
+                                serverThread.getDisplayName());
+                        disconnect(serverThread);
+                    }
+                    return failedToSend;
+                });
+                relay(null, disconnectingServerThread.getDisplayName() + " disconnected");
+                disconnectingServerThread.disconnect();
+            }
+            autoCleanup();
+        });
     }
 
-    protected synchronized void disconnectAll() {
-        info("Disconnect All triggered");
-        if (!isRunning) {
-            return;
-        }
-        clientsInRoom.values().removeIf(client -> {
-            disconnect(client);
-            return true;
+    protected void disconnectAll() {
+        withLock("disconnectAll", () -> {
+            info("Disconnect All triggered");
+            if (!isRunning) {
+                return;
+            }
+            clientsInRoom.removeIf(client -> {
+                disconnect(client);
+                return true;
+            });
+            info("Disconnect All finished");
         });
-        info("Disconnect All finished");
     }
 
     /**
@@ -208,8 +292,8 @@ public class Room implements AutoCloseable {
         // attempt to gracefully close and migrate clients
         if (!clientsInRoom.isEmpty()) {
             relay(null, "Room is shutting down, migrating to lobby");
-            info(String.format("migrating %s clients", clientsInRoom.size()));
-            clientsInRoom.values().removeIf(client -> {
+            info("migrating %s clients", clientsInRoom.size());
+            clientsInRoom.removeIf(client -> {
                 try {
                     Server.INSTANCE.joinRoom(Room.LOBBY, client);
                 } catch (RoomNotFoundException e) {
@@ -221,7 +305,7 @@ public class Room implements AutoCloseable {
         Server.INSTANCE.removeRoom(this);
         isRunning = false;
         clientsInRoom.clear();
-        info(String.format("closed"));
+        info("closed");
     }
 
     // start handle methods
@@ -249,7 +333,7 @@ public class Room implements AutoCloseable {
         }
     }
 
-    protected synchronized void handleDisconnect(BaseServerThread sender) {
+    protected void handleDisconnect(BaseServerThread sender) {
         handleDisconnect((ServerThread) sender);
     }
 
@@ -258,19 +342,21 @@ public class Room implements AutoCloseable {
      * 
      * @param serverThread
      */
-    protected synchronized void handleDisconnect(ServerThread sender) {
+    protected void handleDisconnect(ServerThread sender) {
         disconnect(sender);
     }
 
-    protected synchronized void handleReverseText(ServerThread sender, String text) {
-        StringBuilder sb = new StringBuilder(text);
-        sb.reverse();
-        String rev = sb.toString();
-        relay(sender, rev);
+    protected void handleReverseText(ServerThread sender, String text) {
+        withLock("handleReverseText", () -> {
+            StringBuilder sb = new StringBuilder(text);
+            sb.reverse();
+            String rev = sb.toString();
+            relay(sender, rev);
+        });
     }
 
-    protected synchronized void handleMessage(ServerThread sender, String text) {
-        relay(sender, text);
+    protected void handleMessage(ServerThread sender, String text) {
+        withLock("handleMessage", () -> relay(sender, text));
     }
     // end handle methods
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package Project.Server;
+
+import java.util.List;
+
+/**
+ * JMX management interface of one room, registered as
+ * Project:type=Room,name=&lt;room name&gt; while the room is open.
+ */
+public interface RoomAdminMXBean {
+
+    String getName();
+
+    int getMemberCount();
+
+    /**
+     * @return display names of the members
+     */
+    List<String> getMembers();
+
+    /**
+     * @return the game phase, or "-" for rooms without a game (the lobby)
+     */
+    String getPhase();
+
+    int getRound();
+
+    long getCpuMillis();
+
+    long getLockWaitMillis();
+
+    long getFannedOut();
+
+    long getHandlerCalls();
+
+    /**
+     * Moves the members to the lobby and removes the room (not the lobby)
+     */
+    void close();
+
+    /**
+     * Disconnects a member
+     *
+     * @return false if the client isn't in this room
+     */
+    boolean kickClient(long clientId);
+}
@@ -0,0 +1,154 @@
+package Project.Server;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-room cost accounting: CPU time spent in the room's handlers, time spent
+ * waiting for the room's monitor, and payloads fanned out to its members.
+ * <p>
+ * CPU time is the handling thread's CPU time delta (ThreadMXBean) around each
+ * handler, so time blocked on sockets or the lock doesn't count. Handlers nest
+ * (handleTurnAction ends the round, which starts the next one), so only the
+ * outermost measured call on a thread is counted.
+ * </p>
+ */
+final class RoomStats {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = enableCpuTime();
+    // measured handlers currently on this thread's stack
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+    // enter() result for a nested handler (System.nanoTime() may be negative)
+    private static final long NESTED = Long.MIN_VALUE;
+
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+    private final LongAdder fannedOut = new LongAdder();
+    private final LongAdder handlerCalls = new LongAdder();
+
+    // totals at the last interval() call; only the reporter thread touches them
+    private long lastCpuNanos;
+    private long lastLockWaitNanos;
+    private long lastFannedOut;
+    private long lastHandlerCalls;
+
+    private static boolean enableCpuTime() {
+        try {
+            if (!THREADS.isCurrentThreadCpuTimeSupported()) {
+                return false;
+            }
+            if (!THREADS.isThreadCpuTimeEnabled()) {
+                THREADS.setThreadCpuTimeEnabled(true);
+            }
+            return true;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true if CPU time is measured per thread; otherwise handler wall
+     *         time is counted instead
+     */
+    static boolean isCpuTimeMeasured() {
+        return CPU_TIME;
+    }
+
+    private static long now() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Call when a handler starts (inside the room's lock, see Room.withLock());
+     * pair with exit() in a finally
+     *
+     * @return the value to pass to exit()
+     */
+    long enter() {
+        return DEPTH.get()[0]++ == 0 ? now() : NESTED;
+    }
+
+    void exit(long started) {
+        DEPTH.get()[0]--;
+        if (started != NESTED) {
+            cpuNanos.add(now() - started);
+            handlerCalls.increment();
+        }
+    }
+
+    /**
+     * @param requestedNanos System.nanoTime() right before synchronizing on
+     *                       the room
+     */
+    void lockAcquired(long requestedNanos) {
+        lockWaitNanos.add(System.nanoTime() - requestedNanos);
+    }
+
+    void fannedOut(int payloads) {
+        fannedOut.add(payloads);
+    }
+
+    long getCpuNanos() {
+        return cpuNanos.sum();
+    }
+
+    long getLockWaitNanos() {
+        return lockWaitNanos.sum();
+    }
+
+    long getFannedOut() {
+        return fannedOut.sum();
+    }
+
+    long getHandlerCalls() {
+        return handlerCalls.sum();
+    }
+
+    /**
+     * What a room cost over some period
+     */
+    static final class Snapshot {
+        final String room;
+        final long cpuNanos;
+        final long lockWaitNanos;
+        final long fannedOut;
+        final long handlerCalls;
+
+        Snapshot(String room, long cpuNanos, long lockWaitNanos, long fannedOut, long handlerCalls) {
+            this.room = room;
+            this.cpuNanos = cpuNanos;
+            this.lockWaitNanos = lockWaitNanos;
+            this.fannedOut = fannedOut;
+            this.handlerCalls = handlerCalls;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: cpu=%.1fms lockWait=%.1fms fannedOut=%d handlerCalls=%d", room,
+                    cpuNanos / 1e6, lockWaitNanos / 1e6, fannedOut, handlerCalls);
+        }
+    }
+
+    Snapshot total(String room) {
+        return new Snapshot(room, getCpuNanos(), getLockWaitNanos(), getFannedOut(), getHandlerCalls());
+    }
+
+    /**
+     * @return the cost since the previous call (since creation the first time);
+     *         call from one thread only
+     */
+    Snapshot interval(String room) {
+        long cpu = getCpuNanos();
+        long wait = getLockWaitNanos();
+        long out = getFannedOut();
+        long calls = getHandlerCalls();
+        Snapshot delta = new Snapshot(room, cpu - lastCpuNanos, wait - lastLockWaitNanos, out - lastFannedOut,
+                calls - lastHandlerCalls);
+        lastCpuNanos = cpu;
+        lastLockWaitNanos = wait;
+        lastFannedOut = out;
+        lastHandlerCalls = calls;
+        return delta;
+    }
+}
@@ -1,15 +1,26 @@
 package Project.Server;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import Project.Common.LoggerUtil;
+import Project.Common.Metrics;
 import Project.Common.TextFX;
 import Project.Common.TextFX.Color;
+import Project.Common.TraceBuffer;
 import Project.Exceptions.DuplicateRoomException;
 import Project.Exceptions.RoomNotFoundException;
 
@@ -19,9 +30,20 @@ public enum Server {
     {
         // statically initialize the server-side LoggerUtil
         LoggerUtil.LoggerConfig config = new LoggerUtil.LoggerConfig();
-        config.setFileSizeLimit(2048 * 1024); // 2MB
-        config.setFileCount(1);
+        config.setFileSizeLimit(16 * 1024 * 1024); // 16MB
+        config.setFileCount(8);
         config.setLogLocation("server.log");
+        // keep file/console IO off the client threads; under bursts thin out
+        // INFO chatter before ever losing a warning
+        config.setAsync(true);
+        config.setOverflowPolicy(LoggerUtil.OverflowPolicy.SAMPLE);
+        // -Dserver.binaryLog=server also writes server-N.blog (see BinaryLogReader)
+        config.setBinaryLogLocation(System.getProperty("server.binaryLog"));
+        // per-payload lines: keep 1 in 10, at most 5/s per client; chat relay
+        // lines: at most 10/s per room
+        config.setCategorySampling(ServerThread.PAYLOAD_LOG, 10);
+        config.setCategoryRateLimit(ServerThread.PAYLOAD_LOG, 5);
+        config.setCategoryRateLimit(Room.RELAY_LOG, 10);
         // Set the logger configuration
         LoggerUtil.INSTANCE.setConfig(config);
     }
@@ -31,17 +53,73 @@ public enum Server {
     // The key is the unique Room name and the Room is the instance
     private final ConcurrentHashMap<String, Room> rooms = new ConcurrentHashMap<>();
     private boolean isRunning = true;
-    private long nextClientId = 0;
+    private final AtomicLong nextClientId = new AtomicLong();
+    // -Dserver.metricsPort=0 turns the /metrics endpoint off
+    private final int metricsPort = Integer.getInteger("server.metricsPort", 9400);
+    private static final String TRACE_FILE = "server-traces.tsv";
+    // -Dserver.roomReportSeconds=0 turns the hottest rooms report off
+    private final int roomReportSeconds = Integer.getInteger("server.roomReportSeconds", 60);
+    private static final int HOTTEST_ROOMS = 5;
+    private volatile String lastRoomReport = "No hottest rooms report yet";
+    // set over JMX (ServerAdmin) to turn new connections away before a restart
+    private volatile boolean draining = false;
 
     private void info(String message) {
-        LoggerUtil.INSTANCE.info(TextFX.colorize(String.format("Server: %s", message), Color.YELLOW));
+        LoggerUtil.INSTANCE.info(TextFX.colorize("Server: %s", Color.YELLOW), message);
     }
 
     private Server() {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             info("JVM is shutting down. Perform cleanup tasks.");
             shutdown();
+            exportTraces();
         }));
+        TraceBuffer.INSTANCE.setProcessName("server");
+        Metrics.INSTANCE.gauge("rps_rooms", "Open rooms, including the lobby", () -> rooms.size());
+        Metrics.INSTANCE.gaugeFamily("rps_room_members", "Clients in each room", "room", () -> {
+            LinkedHashMap<String, Integer> members = new LinkedHashMap<>();
+            rooms.values().forEach(room -> members.put(room.getName(), room.clientsInRoom.size()));
+            return members;
+        });
+        Metrics.INSTANCE.gaugeFamily("rps_room_cpu_seconds", "Handler CPU time spent in each room", "room",
+                () -> roomTotals(stats -> stats.getCpuNanos() / 1e9));
+        Metrics.INSTANCE.gaugeFamily("rps_room_lock_wait_seconds", "Time spent waiting for each room's lock",
+                "room", () -> roomTotals(stats -> stats.getLockWaitNanos() / 1e9));
+        Metrics.INSTANCE.gaugeFamily("rps_room_fanned_out", "Payloads fanned out to each room's members", "room",
+                () -> roomTotals(RoomStats::getFannedOut));
+    }
+
+    private LinkedHashMap<String, Number> roomTotals(Function<RoomStats, Number> value) {
+        LinkedHashMap<String, Number> totals = new LinkedHashMap<>();
+        rooms.values().forEach(room -> totals.put(room.getName(), value.apply(room.stats)));
+        return totals;
+    }
+
+    /**
+     * Logs the rooms that used the most handler CPU since the last report
+     * (with their lock wait and fan-out) and keeps it for roomReport()
+     */
+    private void reportHottestRooms() {
+        List<RoomStats.Snapshot> intervals = new ArrayList<>();
+        rooms.values().forEach(room -> intervals.add(room.stats.interval(room.getName())));
+        intervals.sort(Comparator.comparingLong((RoomStats.Snapshot s) -> s.cpuNanos).reversed());
+        StringBuilder sb = new StringBuilder(String.format("Hottest rooms in the last %ds (of %d, by %s):",
+                roomReportSeconds, intervals.size(), RoomStats.isCpuTimeMeasured() ? "handler CPU" : "handler time"));
+        intervals.stream().limit(HOTTEST_ROOMS).forEach(s -> sb.append("\n  ").append(s));
+        lastRoomReport = sb.toString();
+        info(lastRoomReport);
+    }
+
+    /**
+     * @return the last hottest rooms report followed by the all-time top rooms
+     */
+    String roomReport() {
+        StringBuilder sb = new StringBuilder(lastRoomReport).append("\nHottest rooms since they opened:");
+        rooms.values().stream().map(room -> room.stats.total(room.getName()))
+                .sorted(Comparator.comparingLong((RoomStats.Snapshot s) -> s.cpuNanos).reversed())
+                .limit(HOTTEST_ROOMS)
+                .forEach(s -> sb.append("\n  ").append(s));
+        return sb.append('\n').toString();
     }
 
     /**
@@ -61,17 +139,49 @@ public enum Server {
         }
     }
 
+    /**
+     * Writes the sampled request spans to TRACE_FILE for TraceReport (also
+     * served live at /traces, see MetricsServer)
+     */
+    private void exportTraces() {
+        try {
+            if (TraceBuffer.INSTANCE.exportTo(Path.of(TRACE_FILE))) {
+                info("Wrote request traces to " + TRACE_FILE);
+            }
+        } catch (IOException e) {
+            LoggerUtil.INSTANCE.warning("Couldn't write " + TRACE_FILE, e);
+        }
+    }
+
     private void start(int port) {
         this.port = port;
         // server listening
         info("Listening on port " + this.port);
+        MetricsServer metrics = MetricsServer.start(metricsPort);
+        ServerAdmin.register(this);
+        ScheduledExecutorService roomReporter = null;
+        if (roomReportSeconds > 0) {
+            roomReporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "RoomReport");
+                t.setDaemon(true);
+                return t;
+            });
+            roomReporter.scheduleAtFixedRate(this::reportHottestRooms, roomReportSeconds, roomReportSeconds,
+                    TimeUnit.SECONDS);
+        }
         // Simplified client connection loop
         try (ServerSocket serverSocket = new ServerSocket(port)) {
             createRoom(Room.LOBBY);// create the first room (lobby)
             while (isRunning) {
                 info("Waiting for next client");
                 Socket incomingClient = serverSocket.accept(); // blocking action, waits for a client connection
+                if (draining) {
+                    info("Draining, refused a new connection");
+                    incomingClient.close();
+                    continue;
+                }
                 info("Client connected");
+                ServerMetrics.CONNECTIONS_OPENED.increment();
                 // wrap socket in a ServerThread, pass a callback to notify the Server when
                 // they're initialized
                 ServerThread serverThread = new ServerThread(incomingClient, this::onServerThreadInitialized);
@@ -87,6 +197,12 @@ public enum Server {
             e.printStackTrace();
         } finally {
             info("Closing server socket");
+            if (metrics != null) {
+                metrics.stop();
+            }
+            if (roomReporter != null) {
+                roomReporter.shutdownNow();
+            }
         }
     }
 
@@ -98,8 +214,8 @@ public enum Server {
      */
     private void onServerThreadInitialized(ServerThread serverThread) {
         // Generate Server controlled clientId
-        nextClientId = Math.max(++nextClientId, 1);
-        serverThread.setClientId(nextClientId);
+        // (each connection initializes on its own thread, so this must be atomic)
+        serverThread.setClientId(nextClientId.incrementAndGet());
         serverThread.sendClientId();// syncs the data to the Client
         // add initialized client to the lobby
         info(String.format("*%s initialized*", serverThread.getDisplayName()));
@@ -125,7 +241,12 @@ public enum Server {
             throw new DuplicateRoomException(String.format("Room %s already exists", name));
         }
         Room room = Room.LOBBY.equalsIgnoreCase(nameCheck) ? new Room(name) : new GameRoom(name);
-        rooms.put(nameCheck, room);
+        // two clients creating the same name at once both pass the check above; only
+        // one may register, or each ends up alone in its own copy of the room
+        if (rooms.putIfAbsent(nameCheck, room) != null) {
+            throw new DuplicateRoomException(String.format("Room %s already exists", name));
+        }
+        ServerAdmin.registerRoom(room);
         info(String.format("Created new Room %s", name));
     }
 
@@ -167,8 +288,44 @@ public enum Server {
                 .collect(Collectors.toList()); // return a mutable list
     }
 
+    /**
+     * @return number of open rooms, including the lobby
+     */
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    /**
+     * @return the room with this name (any case), or null
+     */
+    Room getRoom(String name) {
+        return rooms.get(name.toLowerCase());
+    }
+
+    /**
+     * @return a snapshot of the open rooms, including the lobby
+     */
+    List<Room> getRooms() {
+        return new ArrayList<>(rooms.values());
+    }
+
+    boolean isDraining() {
+        return draining;
+    }
+
+    /**
+     * @param draining true to refuse new connections (connected clients stay)
+     */
+    void setDraining(boolean draining) {
+        this.draining = draining;
+        info(draining ? "Draining: refusing new connections" : "Accepting new connections");
+    }
+
     protected void removeRoom(Room room) {
-        rooms.remove(room.getName().toLowerCase());
+        // only unregister our own entry; a closed room's name may already be reused
+        if (rooms.remove(room.getName().toLowerCase(), room)) {
+            ServerAdmin.unregisterRoom(room);
+        }
         info(String.format("Removed room %s", room.getName()));
     }
 
@@ -0,0 +1,293 @@
+package Project.Server;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import Project.Common.LoggerUtil;
+import Project.Common.SystemClock;
+
+/**
+ * The server's and rooms' JMX MXBeans (see ServerAdminMXBean and
+ * RoomAdminMXBean). Operations run on the JMX caller's thread and take the
+ * same paths a client request would (Room.close(), handleDisconnect());
+ * stats are read without the room locks so a busy or stuck room can still be
+ * inspected.
+ */
+final class ServerAdmin implements ServerAdminMXBean {
+    static final String DOMAIN = "Project";
+    private static final MBeanServer MBEANS = ManagementFactory.getPlatformMBeanServer();
+
+    private final Server server;
+
+    private ServerAdmin(Server server) {
+        this.server = server;
+    }
+
+    /**
+     * Registers the server's MXBean; failures are logged, never thrown
+     */
+    static void register(Server server) {
+        try {
+            MBEANS.registerMBean(new ServerAdmin(server), new ObjectName(DOMAIN + ":type=Server"));
+        } catch (JMException e) {
+            LoggerUtil.INSTANCE.warning("Couldn't register the server MXBean: %s", e.getMessage());
+        }
+    }
+
+    static void registerRoom(Room room) {
+        try {
+            MBEANS.registerMBean(new RoomAdmin(room), roomName(room));
+        } catch (JMException e) {
+            LoggerUtil.INSTANCE.warning("Couldn't register the MXBean of room %s: %s", room.getName(),
+                    e.getMessage());
+        }
+    }
+
+    static void unregisterRoom(Room room) {
+        try {
+            ObjectName name = roomName(room);
+            if (MBEANS.isRegistered(name)) {
+                MBEANS.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            LoggerUtil.INSTANCE.warning("Couldn't unregister the MXBean of room %s: %s", room.getName(),
+                    e.getMessage());
+        }
+    }
+
+    private static ObjectName roomName(Room room) throws JMException {
+        return new ObjectName(DOMAIN + ":type=Room,name=" + ObjectName.quote(room.getName()));
+    }
+
+    static String phaseOf(Room room) {
+        return room instanceof BaseGameRoom game ? game.currentPhase.name() : "-";
+    }
+
+    static int roundOf(Room room) {
+        return room instanceof GameRoom game ? game.getRound() : 0;
+    }
+
+    @Override
+    public int getRoomCount() {
+        return server.getRoomCount();
+    }
+
+    @Override
+    public List<RoomInfo> getRooms() {
+        List<RoomInfo> infos = new ArrayList<>();
+        for (Room room : server.getRooms()) {
+            infos.add(new RoomInfo(room.getName(), room.clientsInRoom.size(), phaseOf(room), roundOf(room),
+                    room.stats.getCpuNanos() / 1_000_000));
+        }
+        return infos;
+    }
+
+    @Override
+    public long getConnectionsActive() {
+        return ServerMetrics.CONNECTIONS_OPENED.get() - ServerMetrics.CONNECTIONS_CLOSED.get();
+    }
+
+    @Override
+    public boolean isDraining() {
+        return server.isDraining();
+    }
+
+    @Override
+    public void drain() {
+        server.setDraining(true);
+    }
+
+    @Override
+    public void resume() {
+        server.setDraining(false);
+    }
+
+    @Override
+    public boolean closeRoom(String name) {
+        Room room = server.getRoom(name);
+        if (room == null || Room.LOBBY.equalsIgnoreCase(room.getName())) {
+            return false;
+        }
+        LoggerUtil.INSTANCE.warning("Closing room %s (JMX)", room.getName());
+        room.close();
+        return true;
+    }
+
+    @Override
+    public boolean kickClient(long clientId) {
+        for (Room room : server.getRooms()) {
+            if (RoomAdmin.kick(room, clientId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String getRoomReport() {
+        return server.roomReport();
+    }
+
+    @Override
+    public int getClockThreads() {
+        return SystemClock.INSTANCE.getCorePoolSize();
+    }
+
+    @Override
+    public void setClockThreads(int threads) {
+        SystemClock.INSTANCE.setCorePoolSize(threads);
+        LoggerUtil.INSTANCE.warning("Game clock threads set to %s (JMX)", SystemClock.INSTANCE.getCorePoolSize());
+    }
+
+    @Override
+    public int getClockCallbacksActive() {
+        return SystemClock.INSTANCE.getActiveCallbacks();
+    }
+
+    @Override
+    public String getFileLogLevel() {
+        return LoggerUtil.INSTANCE.getFileLogLevel().getName();
+    }
+
+    @Override
+    public String getConsoleLogLevel() {
+        return LoggerUtil.INSTANCE.getConsoleLogLevel().getName();
+    }
+
+    @Override
+    public void setLogLevels(String fileLevel, String consoleLevel) {
+        // parse both first so a typo changes neither
+        Level file = Level.parse(fileLevel.trim().toUpperCase());
+        Level console = Level.parse(consoleLevel.trim().toUpperCase());
+        LoggerUtil.INSTANCE.setLevels(file, console);
+        LoggerUtil.INSTANCE.warning("Log levels set to file=%s console=%s (JMX)", file, console);
+    }
+
+    @Override
+    public Map<String, String> getLogCategoryRules() {
+        return LoggerUtil.INSTANCE.getCategoryRules();
+    }
+
+    @Override
+    public void setLogCategorySampling(String category, int oneIn) {
+        LoggerUtil.INSTANCE.setCategorySampling(category, Math.max(1, oneIn));
+    }
+
+    @Override
+    public void setLogCategoryRateLimit(String category, int perSecond) {
+        LoggerUtil.INSTANCE.setCategoryRateLimit(category, Math.max(0, perSecond));
+    }
+
+    @Override
+    public String getLogOverflowPolicy() {
+        LoggerUtil.OverflowPolicy policy = LoggerUtil.INSTANCE.getOverflowPolicy();
+        return policy != null ? policy.name() : null;
+    }
+
+    @Override
+    public void setLogOverflowPolicy(String policy, int sampleRate) {
+        LoggerUtil.INSTANCE.setOverflowPolicy(LoggerUtil.OverflowPolicy.valueOf(policy.trim().toUpperCase()),
+                sampleRate);
+    }
+
+    @Override
+    public long getLogDroppedCount() {
+        return LoggerUtil.INSTANCE.getDroppedCount();
+    }
+
+    @Override
+    public int getLogQueuedCount() {
+        return LoggerUtil.INSTANCE.getQueuedCount();
+    }
+
+    /**
+     * One room's MXBean
+     */
+    static final class RoomAdmin implements RoomAdminMXBean {
+        private final Room room;
+
+        RoomAdmin(Room room) {
+            this.room = room;
+        }
+
+        static boolean kick(Room room, long clientId) {
+            ServerThread client = room.clientsInRoom.get(clientId);
+            if (client == null) {
+                return false;
+            }
+            LoggerUtil.INSTANCE.warning("Kicking %s from %s (JMX)", client.getDisplayName(), room.getName());
+            // through the room, so it drops the member (and its seat) and tells
+            // everyone before the connection is closed
+            room.handleDisconnect(client);
+            return true;
+        }
+
+        @Override
+        public String getName() {
+            return room.getName();
+        }
+
+        @Override
+        public int getMemberCount() {
+            return room.clientsInRoom.size();
+        }
+
+        @Override
+        public List<String> getMembers() {
+            List<String> names = new ArrayList<>();
+            room.clientsInRoom.forEach(client -> names.add(client.getDisplayName()));
+            return names;
+        }
+
+        @Override
+        public String getPhase() {
+            return phaseOf(room);
+        }
+
+        @Override
+        public int getRound() {
+            return roundOf(room);
+        }
+
+        @Override
+        public long getCpuMillis() {
+            return room.stats.getCpuNanos() / 1_000_000;
+        }
+
+        @Override
+        public long getLockWaitMillis() {
+            return room.stats.getLockWaitNanos() / 1_000_000;
+        }
+
+        @Override
+        public long getFannedOut() {
+            return room.stats.getFannedOut();
+        }
+
+        @Override
+        public long getHandlerCalls() {
+            return room.stats.getHandlerCalls();
+        }
+
+        @Override
+        public void close() {
+            if (Room.LOBBY.equalsIgnoreCase(room.getName())) {
+                throw new UnsupportedOperationException("The lobby can't be closed");
+            }
+            LoggerUtil.INSTANCE.warning("Closing room %s (JMX)", room.getName());
+            room.close();
+        }
+
+        @Override
+        public boolean kickClient(long clientId) {
+            return kick(room, clientId);
+        }
+    }
+}
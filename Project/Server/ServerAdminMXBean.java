@@ -0,0 +1,148 @@
+package Project.Server;
+
+import java.beans.ConstructorProperties;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMX management interface of the server, registered as
+ * Project:type=Server (browse it with JConsole, or jcmd &lt;pid&gt;
+ * ManagementAgent.start to reach it remotely).
+ * <p>
+ * The resizable pool is the game clock's (SystemClock), whose threads fire
+ * every room's round and ready timers; connections have a thread each. The
+ * async log ring's capacity is fixed at startup, so the logging pipeline's
+ * knobs are its levels, category sampling/rate limits and overflow policy.
+ * </p>
+ */
+public interface ServerAdminMXBean {
+
+    /**
+     * One row of the room list
+     */
+    class RoomInfo {
+        private final String name;
+        private final int members;
+        private final String phase;
+        private final int round;
+        private final long cpuMillis;
+
+        @ConstructorProperties({ "name", "members", "phase", "round", "cpuMillis" })
+        public RoomInfo(String name, int members, String phase, int round, long cpuMillis) {
+            this.name = name;
+            this.members = members;
+            this.phase = phase;
+            this.round = round;
+            this.cpuMillis = cpuMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getMembers() {
+            return members;
+        }
+
+        /**
+         * @return the game phase, or "-" for rooms without a game (the lobby)
+         */
+        public String getPhase() {
+            return phase;
+        }
+
+        public int getRound() {
+            return round;
+        }
+
+        public long getCpuMillis() {
+            return cpuMillis;
+        }
+    }
+
+    int getRoomCount();
+
+    List<RoomInfo> getRooms();
+
+    long getConnectionsActive();
+
+    /**
+     * @return true while new connections are refused
+     */
+    boolean isDraining();
+
+    /**
+     * Refuses new connections; connected clients and running games carry on
+     */
+    void drain();
+
+    /**
+     * Accepts new connections again after drain()
+     */
+    void resume();
+
+    /**
+     * Moves a room's members to the lobby and removes it
+     *
+     * @return false if there's no such room (or it's the lobby)
+     */
+    boolean closeRoom(String name);
+
+    /**
+     * Disconnects a client
+     *
+     * @return false if no room has a client with that id
+     */
+    boolean kickClient(long clientId);
+
+    /**
+     * @return the latest hottest rooms report and the all-time top rooms
+     */
+    String getRoomReport();
+
+    /**
+     * @return threads firing the game clock's timers (its core pool size)
+     */
+    int getClockThreads();
+
+    /**
+     * @param threads threads firing the game clock's timers (at least 1)
+     */
+    void setClockThreads(int threads);
+
+    /**
+     * @return timer callbacks running right now; ones that stay up point at a
+     *         room stuck on a send
+     */
+    int getClockCallbacksActive();
+
+    String getFileLogLevel();
+
+    String getConsoleLogLevel();
+
+    /**
+     * @param fileLevel    i.e., INFO (also the binary log's level)
+     * @param consoleLevel i.e., WARNING
+     */
+    void setLogLevels(String fileLevel, String consoleLevel);
+
+    /**
+     * @return category -> its sampling and rate limit
+     */
+    Map<String, String> getLogCategoryRules();
+
+    void setLogCategorySampling(String category, int oneIn);
+
+    void setLogCategoryRateLimit(String category, int perSecond);
+
+    /**
+     * @return DROP, BLOCK or SAMPLE (null if logging isn't async)
+     */
+    String getLogOverflowPolicy();
+
+    void setLogOverflowPolicy(String policy, int sampleRate);
+
+    long getLogDroppedCount();
+
+    int getLogQueuedCount();
+}
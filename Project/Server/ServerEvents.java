@@ -0,0 +1,121 @@
+package Project.Server;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder events for the server's hot paths: which payload types
+ * and rooms the time goes to, with room and client ids attached.
+ * <p>
+ * Nothing is recorded unless a recording is running, i.e.
+ * java -XX:StartFlightRecording:filename=server.jfr,settings=default
+ * Project.Server.Server, or jcmd &lt;pid&gt; JFR.start on a live server; then
+ * jfr print --events Project.RoomBroadcast server.jfr (or JDK Mission
+ * Control). Stack traces are off so a continuous recording stays cheap.
+ * </p>
+ */
+final class ServerEvents {
+    private static final String CATEGORY = "Rock Paper Scissors";
+
+    private ServerEvents() {
+    }
+
+    @Name("Project.PayloadReceived")
+    @Label("Payload Received")
+    @Description("A payload read from a client and handled by processPayload")
+    @Category({ CATEGORY, "Connections" })
+    @StackTrace(false)
+    static final class PayloadReceived extends Event {
+        @Label("Client Id")
+        long clientId;
+        @Label("Payload Type")
+        String payloadType;
+        @Label("Room")
+        String room;
+    }
+
+    @Name("Project.PayloadSent")
+    @Label("Payload Sent")
+    @Description("A payload serialized and flushed to a client's socket")
+    @Category({ CATEGORY, "Connections" })
+    @StackTrace(false)
+    static final class PayloadSent extends Event {
+        @Label("Client Id")
+        long clientId;
+        @Label("Payload Type")
+        String payloadType;
+    }
+
+    @Name("Project.RoomBroadcast")
+    @Label("Room Broadcast")
+    @Description("A chat message fanned out to every client in a room")
+    @Category({ CATEGORY, "Rooms" })
+    @StackTrace(false)
+    static final class RoomBroadcast extends Event {
+        @Label("Room")
+        String room;
+        @Label("Recipients")
+        int recipients;
+        @Label("Failed Sends")
+        int failed;
+    }
+
+    @Name("Project.RoundResolved")
+    @Label("Round Resolved")
+    @Description("A game round scored and its result sent to the room")
+    @Category({ CATEGORY, "Rooms" })
+    @StackTrace(false)
+    static final class RoundResolved extends Event {
+        @Label("Room")
+        String room;
+        @Label("Round")
+        int round;
+        @Label("Players")
+        int players;
+        @Label("Eliminated")
+        int eliminated;
+        @Label("Game Over")
+        boolean gameOver;
+    }
+
+    @Name("Project.RoomLockWait")
+    @Label("Room Lock Wait")
+    @Description("Time a thread waited to enter a room's monitor")
+    @Category({ CATEGORY, "Rooms" })
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static final class RoomLockWait extends Event {
+        @Label("Room")
+        String room;
+        @Label("Operation")
+        String operation;
+    }
+
+    /**
+     * Call right before synchronizing on a room
+     *
+     * @return the started wait, passed to lockAcquired() once inside
+     */
+    static RoomLockWait lockWait() {
+        RoomLockWait wait = new RoomLockWait();
+        wait.begin();
+        return wait;
+    }
+
+    /**
+     * Ends the wait and records it if it's over the event's threshold
+     */
+    static void lockAcquired(RoomLockWait wait, String room, String operation) {
+        wait.end();
+        if (wait.shouldCommit()) {
+            wait.room = room;
+            wait.operation = operation;
+            wait.commit();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package Project.Server;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumMap;
+
+import Project.Common.LatencyHistogram;
+import Project.Common.Metrics;
+import Project.Common.Metrics.Counter;
+import Project.Common.PayloadType;
+
+/**
+ * The server's metrics, registered once with Metrics.INSTANCE and updated
+ * directly from the connection and room code; MetricsServer exposes them.
+ */
+final class ServerMetrics {
+    static final Counter CONNECTIONS_OPENED = Metrics.INSTANCE.counter("rps_connections_opened_total",
+            "Client connections accepted");
+    static final Counter CONNECTIONS_CLOSED = Metrics.INSTANCE.counter("rps_connections_closed_total",
+            "Client connections cleaned up");
+    static final Counter BYTES_RECEIVED = Metrics.INSTANCE.counter("rps_bytes_received_total",
+            "Bytes read from client sockets");
+    static final Counter BYTES_SENT = Metrics.INSTANCE.counter("rps_bytes_sent_total",
+            "Bytes written to client sockets");
+    static final LatencyHistogram PROCESS_PAYLOAD = Metrics.INSTANCE.histogram("rps_process_payload_seconds",
+            "Time to handle one received payload");
+    static final LatencyHistogram RELAY = Metrics.INSTANCE.histogram("rps_room_relay_seconds",
+            "Time to fan one chat message out to a room");
+
+    private static final EnumMap<PayloadType, Counter> RECEIVED = new EnumMap<>(PayloadType.class);
+    private static final EnumMap<PayloadType, Counter> SENT = new EnumMap<>(PayloadType.class);
+
+    static {
+        Metrics.INSTANCE.gauge("rps_connections_active", "Client connections currently open",
+                () -> CONNECTIONS_OPENED.get() - CONNECTIONS_CLOSED.get());
+        // one series per type up front so a scrape lists every type, even at 0
+        for (PayloadType type : PayloadType.values()) {
+            RECEIVED.put(type, Metrics.INSTANCE.counter("rps_payloads_received_total", "Payloads received by type",
+                    "type", type.name()));
+        }
+        for (PayloadType type : PayloadType.values()) {
+            SENT.put(type, Metrics.INSTANCE.counter("rps_payloads_sent_total", "Payloads sent by type", "type",
+                    type.name()));
+        }
+    }
+
+    private ServerMetrics() {
+    }
+
+    static void received(PayloadType type) {
+        if (type != null) {
+            RECEIVED.get(type).increment();
+        }
+    }
+
+    static void sent(PayloadType type) {
+        if (type != null) {
+            SENT.get(type).increment();
+        }
+    }
+
+    /**
+     * Counts the bytes read through it into BYTES_RECEIVED
+     */
+    static final class CountingInputStream extends FilterInputStream {
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                BYTES_RECEIVED.increment();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                BYTES_RECEIVED.add(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            BYTES_RECEIVED.add(skipped);
+            return skipped;
+        }
+    }
+
+    /**
+     * Counts the bytes written through it into BYTES_SENT
+     */
+    static final class CountingOutputStream extends FilterOutputStream {
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            BYTES_SENT.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            // FilterOutputStream's version writes one byte at a time
+            out.write(b, off, len);
+            BYTES_SENT.add(len);
+        }
+    }
+}
@@ -4,10 +4,15 @@ import java.net.Socket;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import Project.Common.TextFX.Color;
 import Project.Common.TimerPayload;
 import Project.Common.TimerType;
 import Project.Common.ConnectionPayload;
+import Project.Common.CachedPayloads;
+import Project.Common.Choice;
+import Project.Common.ClockSyncPayload;
 import Project.Common.Constants;
 import Project.Common.LoggerUtil;
 import Project.Common.Payload;
@@ -23,6 +28,7 @@ import Project.Common.TextFX;
  * A server-side representation of a single client
  */
 public class ServerThread extends BaseServerThread {
+    private final static String INFO_FORMAT = TextFX.colorize("Thread[%s]: %s", Color.CYAN);
     private Consumer<ServerThread> onInitializationComplete; // callback to inform when this object is ready
 
     /**
@@ -33,8 +39,16 @@ public class ServerThread extends BaseServerThread {
      */
     @Override
     protected void info(String message) {
-        LoggerUtil.INSTANCE
-                .info(TextFX.colorize(String.format("Thread[%s]: %s", this.getClientId(), message), Color.CYAN));
+        if (LoggerUtil.INSTANCE.isLoggable(Level.INFO)) {
+            LoggerUtil.INSTANCE.info(INFO_FORMAT, this.getClientId(), message);
+        }
+    }
+
+    @Override
+    protected void trace(Supplier<String> message) {
+        if (LoggerUtil.INSTANCE.shouldLog(PAYLOAD_LOG, this.getClientId(), Level.INFO)) {
+            LoggerUtil.INSTANCE.info(INFO_FORMAT, this.getClientId(), message.get());
+        }
     }
 
     /**
@@ -59,29 +73,7 @@ public class ServerThread extends BaseServerThread {
 
     // Start Send*() Methods
     public boolean sendResetTurnStatus() {
-        ReadyPayload rp = new ReadyPayload();
-        rp.setPayloadType(PayloadType.RESET_TURN);
-        return sendToClient(rp);
-    }
-
-    // UCID: gb373
-    // Date: 07/10/2025
-    // Summary: Sends the turn status to the client, indicating whether they took
-    // their turn or not.
-    // If quiet is true, it uses SYNC_TURN to silently update the status without
-    // showing output on the client side.
-    public boolean sendTurnStatus(long clientId, boolean didTakeTurn) {
-        return sendTurnStatus(clientId, didTakeTurn, false);
-    }
-
-    public boolean sendTurnStatus(long clientId, boolean didTakeTurn, boolean quiet) {
-        // NOTE for now using ReadyPayload as it has the necessary properties
-        // An actual turn may include other data for your project
-        ReadyPayload rp = new ReadyPayload();
-        rp.setPayloadType(quiet ? PayloadType.SYNC_TURN : PayloadType.TURN);
-        rp.setClientId(clientId);
-        rp.setReady(didTakeTurn);
-        return sendToClient(rp);
+        return sendToClient(CachedPayloads.RESET_TURN);
     }
 
     // UCID: gb373
@@ -95,24 +87,38 @@ public class ServerThread extends BaseServerThread {
         return sendToClient(payload);
     }
 
-    public boolean sendCurrentTime(TimerType timerType, int time) {
+    /**
+     * Announces a countdown's absolute deadline (the client counts down locally)
+     * 
+     * @param timerType
+     * @param deadline  server epoch millis or -1 to cancel
+     * @return
+     */
+    public boolean sendTimerDeadline(TimerType timerType, long deadline) {
+        return sendTimerDeadline(timerType, deadline, System.currentTimeMillis());
+    }
+
+    /**
+     * Same as above for a deadline on a room's own clock
+     * 
+     * @param timerType
+     * @param deadline   epoch millis on the room's clock or -1 to cancel
+     * @param serverTime that clock's current time
+     * @return
+     */
+    public boolean sendTimerDeadline(TimerType timerType, long deadline, long serverTime) {
         TimerPayload payload = new TimerPayload();
         payload.setTimerType(timerType);
-        payload.setTime(time);
+        payload.setDeadline(deadline, serverTime);
         return sendToClient(payload);
     }
 
     public boolean sendCurrentPhase(Phase phase) {
-        Payload p = new Payload();
-        p.setPayloadType(PayloadType.PHASE);
-        p.setMessage(phase.name());
-        return sendToClient(p);
+        return sendToClient(CachedPayloads.phase(phase));
     }
 
     public boolean sendResetReady() {
-        ReadyPayload rp = new ReadyPayload();
-        rp.setPayloadType(PayloadType.RESET_READY);
-        return sendToClient(rp);
+        return sendToClient(CachedPayloads.RESET_READY);
     }
 
     public boolean sendReadyStatus(long clientId, boolean isReady) {
@@ -204,9 +210,14 @@ public class ServerThread extends BaseServerThread {
             payload.setPayloadType(PayloadType.SYNC_CLIENT);
         }
 
+        // cleared by cleanup() once this connection is gone
+        Room room = currentRoom;
+        if (room == null) {
+            return false;
+        }
         payload.setClientId(clientId);
         payload.setClientName(clientName);
-        payload.setMessage(currentRoom.getName());
+        payload.setMessage(room.getName());
 
         return sendToClient(payload);
     }
@@ -244,6 +255,12 @@ public class ServerThread extends BaseServerThread {
     // End Send*() Methods
     @Override
     protected void processPayload(Payload incoming) {
+        if (currentRoom == null && incoming.getPayloadType() != PayloadType.CLIENT_CONNECT
+                && incoming.getPayloadType() != PayloadType.CLOCK_SYNC) {
+            // a room already dropped this connection and cleanup() ran; ignore
+            // whatever the client managed to send before it went away
+            return;
+        }
         switch (incoming.getPayloadType()) {
             case CLIENT_CONNECT:
                 setClientName(((ConnectionPayload) incoming).getClientName().trim());
@@ -251,16 +268,22 @@ public class ServerThread extends BaseServerThread {
             case DISCONNECT:
                 currentRoom.handleDisconnect(this);
                 break;
+            case CLOCK_SYNC:
+                ClockSyncPayload sync = (ClockSyncPayload) incoming;
+                sync.setT1(System.currentTimeMillis());
+                if (sync.getReportedRoundTrip() >= 0) {
+                    clockOffset = sync.getReportedOffset();
+                    roundTripTime = sync.getReportedRoundTrip();
+                }
+                sync.setT2(System.currentTimeMillis());
+                sendToClient(sync);
+                break;
                 // UCID: gb373
                 // Date: 07/28/2025
                 // Summary: Handles the message payload from the client.
-                // Spectators cannot send messages.
+                // Spectators cannot send messages (GameRoom.handleMessage checks).
             case MESSAGE:
-                if (this.isSpectator()) {
-                    sendMessage(Constants.DEFAULT_CLIENT_ID, "Spectators cannot send chat messages.");
-                } else {
-                    currentRoom.handleMessage(this, incoming.getMessage());
-                }
+                currentRoom.handleMessage(this, incoming.getMessage());
                 break;
 
             case REVERSE:
@@ -294,7 +317,7 @@ public class ServerThread extends BaseServerThread {
             // Summary: Handles the player's turn action in the game.
             case TURN:
                 try {
-                    ((GameRoom) currentRoom).handleTurnAction(this, incoming.getMessage());
+                    ((GameRoom) currentRoom).handleTurnAction(this, Choice.fromWire(incoming.getMessage()));
                 } catch (Exception e) {
                     sendMessage(Constants.DEFAULT_CLIENT_ID, "You must be in a GameRoom to do a turn");
                 }
@@ -357,8 +380,7 @@ public class ServerThread extends BaseServerThread {
             // Summary: Handles the away toggle action in the game from the server.
             case AWAY_TOGGLE:
                 boolean isAwayToggle = Boolean.parseBoolean(incoming.getMessage());
-                LoggerUtil.INSTANCE
-                        .info("Received AWAY_TOGGLE from client " + this.getClientId() + ": " + isAwayToggle);
+                LoggerUtil.INSTANCE.info("Received AWAY_TOGGLE from client %s: %s", this.getClientId(), isAwayToggle);
                 try {
                     ((GameRoom) currentRoom).handleAwayToggle(this, isAwayToggle);
                 } catch (Exception e) {
@@ -368,26 +390,47 @@ public class ServerThread extends BaseServerThread {
 
             default:
                 LoggerUtil.INSTANCE.warning(
-                        TextFX.colorize("Unknown payload type received: " + incoming.getPayloadType(), Color.RED));
+                        () -> TextFX.colorize("Unknown payload type received: " + incoming.getPayloadType(), Color.RED));
                 break;
         }
     }
 
-    // limited user data exposer
-    protected boolean isReady() {
-        return this.user.isReady();
+    // seat in the current GameRoom's PlayerTable (-1 when not seated); the game
+    // state itself lives in the table
+    private int seat = -1;
+    // client-reported clock sync estimate (see ClockSync)
+    private volatile long clockOffset = 0;
+    private volatile long roundTripTime = -1;
+
+    /**
+     * @return server clock minus this client's clock in millis, as last reported
+     *         by the client (0 if unknown)
+     */
+    public long getClockOffset() {
+        return clockOffset;
+    }
+
+    /**
+     * @return round trip to this client in millis or -1 if not yet measured
+     */
+    public long getRoundTripTime() {
+        return roundTripTime;
     }
 
-    protected void setReady(boolean isReady) {
-        this.user.setReady(isReady);
+    /**
+     * @param clientTime epoch millis on the client's clock
+     * @return the same instant on the server clock
+     */
+    public long toServerTime(long clientTime) {
+        return clientTime + clockOffset;
     }
 
-    protected boolean didTakeTurn() {
-        return this.user.didTakeTurn();
+    protected int getSeat() {
+        return seat;
     }
 
-    protected void setTookTurn(boolean tookTurn) {
-        this.user.setTookTurn(tookTurn);
+    protected void setSeat(int seat) {
+        this.seat = seat;
     }
 
     @Override
@@ -396,94 +439,4 @@ public class ServerThread extends BaseServerThread {
         onInitializationComplete.accept(this);
     }
 
-    public int getPoints() {
-        return user.getPoints();
-    }
-
-    private String choice; // Player's current choice (e.g., "r", "p", "s")
-
-    public String getChoice() {
-        return choice;
-    }
-
-    public void setChoice(String choice) {
-        this.choice = choice;
-    }
-
-    private boolean eliminated = false;
-
-    public boolean isEliminated() {
-        return eliminated;
-    }
-
-    public void setEliminated(boolean eliminated) {
-        this.eliminated = eliminated;
-    }
-
-    public void setPoints(int points) {
-        user.setPoints(points);
-    }
-
-    public void changePoints(int delta) {
-        int updatedPoints = getPoints() + delta;
-        setPoints(updatedPoints);
-    }
-
-    // UCID: gb373
-    // Date: 07/23/2025
-    // Summary: Sends the pending pick status to the client, indicating whether the
-    // player is currently pending a pick action.
-    public boolean sendPendingStatus(long clientId, boolean isPending) {
-        Payload payload = new Payload();
-        payload.setPayloadType(PayloadType.PENDING_PICK);
-        payload.setClientId(clientId);
-        payload.setMessage(Boolean.toString(isPending));
-        return sendToClient(payload);
-    }
-
-    // UCID: gb373
-    // Date: 07/23/2025
-    // Summary: Sends the elimination status to the client, indicating whether the
-    // player has been eliminated.
-    public boolean sendEliminationStatus(long clientId, boolean isEliminated) {
-        Payload payload = new Payload();
-        payload.setPayloadType(PayloadType.ELIMINATED);
-        payload.setClientId(clientId);
-        payload.setMessage(Boolean.toString(isEliminated));
-        return sendToClient(payload);
-    }
-
-    private boolean away = false;
-
-    public boolean isAway() {
-        return away;
-    }
-
-    public void setAway(boolean a) {
-        this.away = a;
-    }
-
-    // In ServerThread class (player)
-    private boolean spectator = false;
-
-    public boolean isSpectator() {
-        return spectator;
-    }
-
-    public void setSpectator(boolean spectator) {
-        this.spectator = spectator;
-    }
-
-    // UCID: gb373
-    // Date: 07/28/2025
-    // Summary: Sends the spectator status to the client, indicating whether the
-    // player is a spectator.
-    public void sendSpectatorStatus(long clientId, boolean isSpectator) {
-        Payload payload = new Payload();
-        payload.setPayloadType(PayloadType.SPECTATOR_STATUS);
-        payload.setClientId(clientId);
-        payload.setMessage(Boolean.toString(isSpectator));
-        sendToClient(payload);
-    }
-
-}
\ No newline at end of file
+}
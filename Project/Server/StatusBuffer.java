@@ -0,0 +1,136 @@
+package Project.Server;
+
+import java.util.Arrays;
+
+import Project.Common.PlayerStatus;
+import Project.Common.StatusDeltaPayload;
+
+/**
+ * Collects the status changes of one room event for one STATUS_DELTA: one
+ * entry per client, later changes to a bit overwrite earlier ones.
+ * <p>
+ * Entries are parallel arrays with an open-addressing clientId index, so
+ * merging a change is O(1) even when a round start touches every seat of a
+ * large room. Not thread-safe; GameRoom uses it under its monitor.
+ * </p>
+ */
+class StatusBuffer {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] clientIds = new long[INITIAL_CAPACITY];
+    private byte[] changed = new byte[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private int size = 0;
+    // entry index + 1 per slot (0 = empty); length is a power of two > 2 * capacity
+    private int[] index = new int[INITIAL_CAPACITY * 4];
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(long clientId) {
+        return find(clientId) >= 0;
+    }
+
+    /**
+     * Records new values for the masked bits of clientId's status
+     *
+     * @param clientId
+     * @param mask     PlayerStatus bits being set
+     * @param values   their new values
+     * @param quiet    true for a silent sync; an entry stays quiet only while
+     *                 every change merged into it is
+     */
+    void put(long clientId, byte mask, byte values, boolean quiet) {
+        int i = find(clientId);
+        if (i < 0) {
+            i = append(clientId);
+            if (quiet) {
+                changed[i] = PlayerStatus.QUIET;
+            }
+        } else if (!quiet) {
+            changed[i] &= ~PlayerStatus.QUIET;
+        }
+        changed[i] |= mask;
+        flags[i] = (byte) ((flags[i] & ~mask) | (values & mask));
+    }
+
+    /**
+     * Merges every entry of other into this buffer (other's values win)
+     *
+     * @param other
+     */
+    void putAll(StatusBuffer other) {
+        for (int i = 0; i < other.size; i++) {
+            byte mask = (byte) (other.changed[i] & PlayerStatus.ALL);
+            put(other.clientIds[i], mask, other.flags[i], (other.changed[i] & PlayerStatus.QUIET) != 0);
+        }
+    }
+
+    /**
+     * @return a payload holding a copy of the current entries
+     */
+    StatusDeltaPayload toPayload() {
+        StatusDeltaPayload payload = new StatusDeltaPayload();
+        payload.setEntries(Arrays.copyOf(clientIds, size), Arrays.copyOf(changed, size),
+                Arrays.copyOf(flags, size));
+        return payload;
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(index, 0);
+            size = 0;
+        }
+    }
+
+    private int find(long clientId) {
+        int mask = index.length - 1;
+        for (int slot = hash(clientId) & mask;; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (clientIds[entry - 1] == clientId) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private int append(long clientId) {
+        if (size == clientIds.length) {
+            int capacity = size * 2;
+            clientIds = Arrays.copyOf(clientIds, capacity);
+            changed = Arrays.copyOf(changed, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            index = new int[capacity * 4];
+            for (int i = 0; i < size; i++) {
+                insert(clientIds[i], i);
+            }
+        }
+        int i = size++;
+        clientIds[i] = clientId;
+        changed[i] = 0;
+        flags[i] = 0;
+        insert(clientId, i);
+        return i;
+    }
+
+    private void insert(long clientId, int entry) {
+        int mask = index.length - 1;
+        int slot = hash(clientId) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = entry + 1;
+    }
+
+    private static int hash(long clientId) {
+        long h = clientId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}